@@ -0,0 +1,73 @@
+package com.vocawik.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+
+/**
+ * Per-call cost of each scripted algorithm against a real Redis.
+ *
+ * <p>Needs a Redis at {@code redisAddress} (e.g. {@code docker run -p 6379:6379 redis:8-alpine}).
+ * Every call is one {@code EVALSHA} round trip, so the numbers mostly compare the scripts' server
+ * time on top of the network. The limit is high enough that all calls are admitted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class RateLimitAlgorithmBenchmark {
+
+    @Param({"redis://127.0.0.1:6379"})
+    public String redisAddress;
+
+    @Param({"GCRA", "SLIDING_WINDOW", "FIXED_WINDOW"})
+    public RateLimitAlgorithm algorithm;
+
+    private RedissonClient client;
+    private ScriptedRateLimiter limiter;
+    private RateLimitRule rule;
+
+    /** Connects to Redis and builds a rule for the algorithm under test. */
+    @Setup
+    public void setUp() {
+        Config config = new Config();
+        config.useSingleServer().setAddress(redisAddress);
+        client = Redisson.create(config);
+        limiter =
+                new ScriptedRateLimiter(
+                        client,
+                        new RateLimitRedisGuard(
+                                new SimpleMeterRegistry(), 1_000L, 20, 10, 50, 30_000L));
+        rule =
+                new RateLimitRule(
+                        "rate_limit:GET:/api/v1/bench:ip:203.0.113.50:anon",
+                        1_000_000_000L,
+                        Duration.ofMinutes(1),
+                        algorithm);
+    }
+
+    /** Closes the Redis connection. */
+    @TearDown
+    public void tearDown() {
+        client.shutdown();
+    }
+
+    /** One scripted decision per call. */
+    @Benchmark
+    public RateLimitDecision scripted() {
+        return limiter.tryAcquire(rule);
+    }
+}
@@ -0,0 +1,78 @@
+package com.vocawik.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Per-call cost of a {@code @RateLimit} decision on a hot key.
+ *
+ * <p>The shared quota simulates a Redis round trip of {@code roundTripMicros}. {@link
+ * #sharedQuotaOnly} pays it on every call, like the pre-change aspect; {@link #localLeasing}
+ * pays it once per leased batch (5,000 permits here). The simulated quota never runs out, so both
+ * always admit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class RateLimiterBenchmark {
+
+    private static final RateLimitRule RULE =
+            new RateLimitRule(
+                    "rate_limit:GET:/api/v1/bench:ip:203.0.113.50:anon",
+                    100_000,
+                    Duration.ofMinutes(1));
+
+    @Param({"200"})
+    public long roundTripMicros;
+
+    private LeasingRateLimiter sharedOnly;
+    private LeasingRateLimiter leasing;
+
+    /** Builds token-bucket limiters, one with the local tier disabled and one with it enabled. */
+    @Setup
+    public void setUp() {
+        SharedQuota quota =
+                (rule, permits) -> {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(roundTripMicros));
+                    return permits;
+                };
+        sharedOnly =
+                new LeasingRateLimiter(
+                        quota, null, new SimpleMeterRegistry(), false, 0.05, 0, 1_000L);
+        leasing =
+                new LeasingRateLimiter(
+                        quota, null, new SimpleMeterRegistry(), true, 0.05, 0, 1_000L);
+    }
+
+    /** Stops the background lease executors. */
+    @TearDown
+    public void tearDown() {
+        sharedOnly.destroy();
+        leasing.destroy();
+    }
+
+    /** Every decision waits for the shared quota. */
+    @Benchmark
+    public RateLimitDecision sharedQuotaOnly() {
+        return sharedOnly.tryAcquire(RULE);
+    }
+
+    /** Decisions served from striped local buckets, refilled in the background. */
+    @Benchmark
+    public RateLimitDecision localLeasing() {
+        return leasing.tryAcquire(RULE);
+    }
+}
@@ -0,0 +1,81 @@
+package com.vocawik.security.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Token issuance throughput: the previous {@code Jwts.builder()} chain with {@link
+ * UUID#randomUUID()} identifiers versus {@link JwtProvider}'s precomputed encoder.
+ *
+ * <p>Runs with several threads so that contention on the shared {@code SecureRandom} behind {@link
+ * UUID#randomUUID()} shows up the way it does during login and refresh peaks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class JwtIssuanceBenchmark {
+
+    private static final String SECRET =
+            "dGVzdC1zZWNyZXQta2V5LWZvci10ZXN0aW5nLXB1cnBvc2VzLW9ubHktbXVzdC1iZS1hdC1sZWFzdC0yNTYtYml0cy1sb25n";
+    private static final String ISSUER = "vocawik";
+    private static final String AUDIENCE = "vocawik-api";
+    private static final long REFRESH_EXPIRATION = 86_400_000L;
+
+    private SecretKey secretKey;
+    private JwtProvider jwtProvider;
+    private String subject;
+
+    /** Prepares the key, provider and a fixed subject. */
+    @Setup
+    public void setUp() {
+        secretKey = Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET));
+        jwtProvider = new JwtProvider(SECRET, ISSUER, AUDIENCE, 3_600_000L, REFRESH_EXPIRATION);
+        subject = UUID.randomUUID().toString();
+    }
+
+    /** Previous refresh token issuance path. */
+    @Benchmark
+    public String builderRefreshToken() {
+        Date now = new Date();
+        return Jwts.builder()
+                .subject(subject)
+                .issuer(ISSUER)
+                .audience()
+                .add(AUDIENCE)
+                .and()
+                .claim("role", "USER")
+                .claim("typ", "REFRESH")
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + REFRESH_EXPIRATION))
+                .id(UUID.randomUUID().toString())
+                .claim("fam", UUID.randomUUID().toString())
+                .signWith(secretKey)
+                .compact();
+    }
+
+    /** Current refresh token issuance path. */
+    @Benchmark
+    public String encoderRefreshToken() {
+        return jwtProvider.generateRefreshToken(subject, "USER");
+    }
+
+    /** Current access token issuance path. */
+    @Benchmark
+    public String encoderAccessToken() {
+        return jwtProvider.generateAccessToken(subject, "USER");
+    }
+}
@@ -0,0 +1,71 @@
+package com.vocawik.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Per-request cost of access token verification in {@link JwtFilter}.
+ *
+ * <p>Compare {@code gc.alloc.rate.norm} (bytes/op, from the gc profiler) and average time between
+ * the pre-change path ({@link #parserPerCallThreeParses}) and {@link #verifyOnce}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET =
+            "dGVzdC1zZWNyZXQta2V5LWZvci10ZXN0aW5nLXB1cnBvc2VzLW9ubHktbXVzdC1iZS1hdC1sZWFzdC0yNTYtYml0cy1sb25n";
+
+    private SecretKey secretKey;
+    private JwtProvider jwtProvider;
+    private String token;
+
+    /** Issues one access token reused by every invocation. */
+    @Setup
+    public void setUp() {
+        secretKey = Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET));
+        jwtProvider = new JwtProvider(SECRET, "vocawik", "vocawik-api", 3_600_000L, 86_400_000L);
+        token = jwtProvider.generateAccessToken(UUID.randomUUID().toString(), "USER");
+    }
+
+    /** Pre-change filter path: validate, subject and role each built a parser and parsed. */
+    @Benchmark
+    public void parserPerCallThreeParses(Blackhole blackhole) {
+        blackhole.consume(parseWithNewParser().getIssuer());
+        blackhole.consume(parseWithNewParser().getSubject());
+        blackhole.consume(parseWithNewParser().get("role", String.class));
+    }
+
+    /** Shared parser, but still three parses per request. */
+    @Benchmark
+    public void sharedParserThreeParses(Blackhole blackhole) {
+        blackhole.consume(jwtProvider.validateAccessToken(token));
+        blackhole.consume(jwtProvider.getSubject(token));
+        blackhole.consume(jwtProvider.getRole(token));
+    }
+
+    /** Current filter path: one verification returning all claims. */
+    @Benchmark
+    public Optional<VerifiedToken> verifyOnce() {
+        return jwtProvider.verifyAccessToken(token);
+    }
+
+    private Claims parseWithNewParser() {
+        return Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload();
+    }
+}
@@ -0,0 +1,33 @@
+package com.vocawik.aop;
+
+import com.vocawik.ratelimit.ConcurrencyLimitAlgorithm;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to cap the calls in flight on a controller method, adapting the cap to its latency.
+ *
+ * <p>Unlike {@link RateLimit}, the limit is per instance and shared by all callers. Calls over the
+ * current limit are shed with 503 Service Unavailable and a {@code Retry-After} header.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimit {
+
+    /** Limit the endpoint starts with. */
+    int initialLimit() default 20;
+
+    /** Lowest the limit may adapt to. */
+    int minLimit() default 2;
+
+    /** Highest the limit may adapt to. */
+    int maxLimit() default 200;
+
+    /** Algorithm adapting the limit to observed latency. */
+    ConcurrencyLimitAlgorithm algorithm() default ConcurrencyLimitAlgorithm.GRADIENT;
+
+    /** Latency in milliseconds above which {@link ConcurrencyLimitAlgorithm#AIMD} backs off. */
+    long slowCallMillis() default 1000;
+}
@@ -0,0 +1,96 @@
+package com.vocawik.aop;
+
+import com.vocawik.ratelimit.ConcurrencyLimitFilter;
+import com.vocawik.ratelimit.ConcurrencyLimiter;
+import com.vocawik.ratelimit.ConcurrencyLimiters;
+import com.vocawik.web.exception.ServiceUnavailableException;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Aspect for enforcing concurrency limits on methods not already limited by the filter.
+ *
+ * <p>Runs outermost of the limiting aspects, so a shed call does no rate limit work.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 2)
+public class ConcurrencyLimitAspect {
+
+    private final ConcurrencyLimiters concurrencyLimiters;
+
+    /**
+     * Creates a concurrency-limit aspect.
+     *
+     * @param concurrencyLimiters registry of endpoint limiters
+     */
+    public ConcurrencyLimitAspect(ConcurrencyLimiters concurrencyLimiters) {
+        this.concurrencyLimiters = concurrencyLimiters;
+    }
+
+    /**
+     * Holds a concurrency slot of the endpoint while the annotated method runs.
+     *
+     * <p>Requests already holding a slot taken by {@link ConcurrencyLimitFilter} are not counted
+     * again. Calls over the limit are shed with {@link ServiceUnavailableException}.
+     *
+     * @param joinPoint the method invocation join point
+     * @param concurrencyLimit the concurrency limit annotation
+     * @return the original return value of the method
+     * @throws Throwable if the underlying method throws or the call is shed
+     */
+    @Around("@annotation(concurrencyLimit)")
+    public Object checkConcurrencyLimit(
+            ProceedingJoinPoint joinPoint, ConcurrencyLimit concurrencyLimit) throws Throwable {
+
+        ServletRequestAttributes attrs =
+                RequestContextHolder.getRequestAttributes()
+                                instanceof ServletRequestAttributes servletAttrs
+                        ? servletAttrs
+                        : null;
+        if (attrs != null
+                && attrs.getRequest().getAttribute(ConcurrencyLimitFilter.ENFORCED_ATTRIBUTE)
+                        != null) {
+            return joinPoint.proceed();
+        }
+
+        String endpoint = resolveEndpoint(joinPoint, attrs);
+        ConcurrencyLimiter limiter = concurrencyLimiters.limiter(endpoint, concurrencyLimit);
+        int inFlight = limiter.tryAcquire();
+        if (inFlight == 0) {
+            logger.warn("Concurrency limit {} reached: {}", limiter.limit(), endpoint);
+            throw new ServiceUnavailableException(
+                    "Server is busy. Please try again shortly.",
+                    ConcurrencyLimiters.RETRY_AFTER_SECONDS);
+        }
+
+        long startedAt = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            limiter.release(System.nanoTime() - startedAt, inFlight);
+        }
+    }
+
+    private String resolveEndpoint(ProceedingJoinPoint joinPoint, ServletRequestAttributes attrs) {
+        if (attrs == null) {
+            // fallback to method signature like ExContainer.exMethod(..)
+            return joinPoint.getSignature().toShortString();
+        }
+        HttpServletRequest request = attrs.getRequest();
+        // route template, so endpoints match the ones the filter reports
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String path = pattern != null ? pattern.toString() : request.getRequestURI();
+        return request.getMethod() + ":" + path;
+    }
+}
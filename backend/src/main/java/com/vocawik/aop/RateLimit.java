@@ -1,11 +1,20 @@
 package com.vocawik.aop;
 
+import com.vocawik.ratelimit.RateLimitAlgorithm;
+import com.vocawik.ratelimit.RateLimitDimension;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
-/** Annotation to apply rate limiting on controller methods. */
+/**
+ * Annotation to apply rate limiting on controller methods.
+ *
+ * <p>{@link #requests()} limits each caller: the user when authenticated, the client IP otherwise.
+ * {@link #quotas()} adds limits on other dimensions, e.g. a client subnet or the endpoint as a
+ * whole. A call then takes a permit from the caller limit and every applicable quota in one Redis
+ * round trip, or from none of them if any is spent.
+ */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface RateLimit {
@@ -15,4 +24,25 @@ public @interface RateLimit {
 
     /** Time window in seconds. */
     int seconds() default 60;
+
+    /** Algorithm the limit is evaluated with; GCRA for every limit once quotas are declared. */
+    RateLimitAlgorithm algorithm() default RateLimitAlgorithm.TOKEN_BUCKET;
+
+    /** Additional quotas checked together with the caller limit. */
+    Quota[] quotas() default {};
+
+    /** Limit on one dimension of the calls to an endpoint. */
+    @Target({})
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Quota {
+
+        /** What the quota counts calls by. */
+        RateLimitDimension dimension();
+
+        /** Maximum number of requests allowed within the time window. */
+        int requests();
+
+        /** Time window in seconds. */
+        int seconds() default 60;
+    }
 }
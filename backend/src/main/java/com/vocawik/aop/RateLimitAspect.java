@@ -1,39 +1,53 @@
 package com.vocawik.aop;
 
+import com.vocawik.ratelimit.RateLimitDecision;
+import com.vocawik.ratelimit.RateLimitFilter;
+import com.vocawik.ratelimit.RateLimitHeaders;
+import com.vocawik.ratelimit.RateLimitQuotas;
+import com.vocawik.ratelimit.RateLimitRule;
+import com.vocawik.ratelimit.RateLimiter;
 import com.vocawik.web.ClientIpResolver;
+import com.vocawik.web.RequestTimings;
 import com.vocawik.web.exception.TooManyRequestsException;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import java.time.Duration;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.redisson.api.RRateLimiter;
-import org.redisson.api.RateType;
-import org.redisson.api.RedissonClient;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
 
-/** Aspect for enforcing rate limiting on methods. */
+/**
+ * Aspect for enforcing rate limiting on methods.
+ *
+ * <p>Runs outside {@link RequestTimingAspect}, so its checks are timed as the rate limit phase
+ * rather than as handler time.
+ */
 @Slf4j
 @Aspect
 @Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
 public class RateLimitAspect {
 
-    private final RedissonClient redissonClient;
+    private final RateLimiter rateLimiter;
     private final ClientIpResolver clientIpResolver;
 
     /**
      * Creates a rate-limit aspect.
      *
-     * @param redissonClient Redisson client used to resolve distributed rate limiters
+     * @param rateLimiter limiter deciding each call against the cluster-wide limit
      * @param clientIpResolver client IP resolver with trusted proxy policy
      */
-    public RateLimitAspect(RedissonClient redissonClient, ClientIpResolver clientIpResolver) {
-        this.redissonClient = redissonClient;
+    public RateLimitAspect(RateLimiter rateLimiter, ClientIpResolver clientIpResolver) {
+        this.rateLimiter = rateLimiter;
         this.clientIpResolver = clientIpResolver;
     }
 
@@ -41,7 +55,10 @@ public class RateLimitAspect {
      * Checks rate limit using USER_OR_IP strategy before executing the annotated method.
      *
      * <p>USER_OR_IP strategy: authenticated requests are limited per user, and anonymous requests
-     * are limited per client IP. (rate_limit:{HTTP_METHOD}:{URI}:{actor}:{authState})
+     * are limited per client IP. (rate_limit:{HTTP_METHOD}:{ROUTE}:{actor}:{authState}) Requests
+     * already limited by {@link RateLimitFilter} before authentication are not counted again. The
+     * quota left is reported in {@code RateLimit-*} response headers. Quotas declared on other
+     * dimensions are checked in the same call, all or nothing.
      *
      * @param joinPoint the method invocation join point
      * @param rateLimit the rate limit annotation
@@ -52,30 +69,66 @@ public class RateLimitAspect {
     public Object checkRateLimit(ProceedingJoinPoint joinPoint, RateLimit rateLimit)
             throws Throwable {
 
-        String key = buildRateLimitKey(joinPoint);
+        if (isEnforcedByFilter()) {
+            return joinPoint.proceed();
+        }
 
-        RRateLimiter limiter = redissonClient.getRateLimiter(key);
-        limiter.trySetRate(
-                RateType.OVERALL, rateLimit.requests(), Duration.ofSeconds(rateLimit.seconds()));
+        long startedAt = System.nanoTime();
+        ServletRequestAttributes attrs =
+                (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        String endpoint = resolveEndpoint(joinPoint, attrs);
+        String clientIp = resolveClientIp(attrs);
+        AuthContext authContext = resolveAuthContext();
+        String actor = authContext.authenticated ? "user:" + authContext.actor : "ip:" + clientIp;
+        String key = "rate_limit:" + endpoint + ":" + actor + ":" + authContext.authState;
 
-        if (!limiter.tryAcquire()) {
+        RateLimitRule rule =
+                new RateLimitRule(
+                        key,
+                        rateLimit.requests(),
+                        Duration.ofSeconds(rateLimit.seconds()),
+                        rateLimit.algorithm());
+
+        RateLimitDecision decision =
+                rateLimit.quotas().length == 0
+                        ? rateLimiter.tryAcquire(rule)
+                        : rateLimiter.tryAcquireAll(
+                                RateLimitQuotas.withCaller(
+                                        rule,
+                                        rateLimit.quotas(),
+                                        endpoint,
+                                        clientIp,
+                                        authContext.authenticated ? authContext.actor : null));
+        if (attrs != null) {
+            RequestTimings.record(attrs.getRequest(), RequestTimings.Phase.RATE_LIMIT, startedAt);
+        }
+        if (!decision.allowed()) {
             logger.warn("Rate limit exceeded: {}", key);
             throw new TooManyRequestsException(
-                    "Too many requests. Please try again in " + rateLimit.seconds() + " seconds.");
+                    "Too many requests. Please try again in "
+                            + decision.retryAfterSeconds()
+                            + " seconds.",
+                    decision.limit(),
+                    decision.resetSeconds(),
+                    decision.retryAfterSeconds());
         }
 
+        HttpServletResponse response = currentResponse();
+        if (response != null) {
+            RateLimitHeaders.apply(response, decision);
+        }
         return joinPoint.proceed();
     }
 
-    private String buildRateLimitKey(ProceedingJoinPoint joinPoint) {
-        ServletRequestAttributes attrs =
-                (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+    private HttpServletResponse currentResponse() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attrs
+                ? attrs.getResponse()
+                : null;
+    }
 
-        String endpoint = resolveEndpoint(joinPoint, attrs);
-        String clientIp = resolveClientIp(attrs);
-        AuthContext authContext = resolveAuthContext();
-        String actor = authContext.authenticated ? "user:" + authContext.actor : "ip:" + clientIp;
-        return "rate_limit:" + endpoint + ":" + actor + ":" + authContext.authState;
+    private boolean isEnforcedByFilter() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attrs
+                && attrs.getRequest().getAttribute(RateLimitFilter.ENFORCED_ATTRIBUTE) != null;
     }
 
     private String resolveEndpoint(ProceedingJoinPoint joinPoint, ServletRequestAttributes attrs) {
@@ -84,7 +137,10 @@ public class RateLimitAspect {
             return joinPoint.getSignature().toShortString();
         }
         HttpServletRequest request = attrs.getRequest();
-        return request.getMethod() + ":" + request.getRequestURI();
+        // route template, so path variables do not create a limiter key per value
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String path = pattern != null ? pattern.toString() : request.getRequestURI();
+        return request.getMethod() + ":" + path;
     }
 
     private String resolveClientIp(ServletRequestAttributes attrs) {
@@ -0,0 +1,52 @@
+package com.vocawik.aop;
+
+import com.vocawik.web.AccessLogFilter;
+import com.vocawik.web.RequestTimings;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Aspect recording controller method execution as the handler phase of {@link RequestTimings}.
+ *
+ * <p>Ordered innermost, so the rate and concurrency limit aspects are not counted as handler time.
+ * Requests are logged by {@link AccessLogFilter}.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class RequestTimingAspect {
+
+    /** Matches all public methods in classes annotated with {@code @RestController}. */
+    @Pointcut(
+            "within(@org.springframework.web.bind.annotation.RestController *)"
+                    + " && execution(public * *(..))")
+    public void controllerMethods() {}
+
+    /**
+     * Records the time the controller method takes on the current request.
+     *
+     * @param joinPoint the method invocation join point
+     * @return the original return value of the controller method
+     * @throws Throwable if the underlying method throws
+     */
+    @Around("controllerMethods()")
+    public Object timeHandler(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!(RequestContextHolder.getRequestAttributes()
+                instanceof ServletRequestAttributes attrs)) {
+            return joinPoint.proceed();
+        }
+        long startedAt = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RequestTimings.record(attrs.getRequest(), RequestTimings.Phase.HANDLER, startedAt);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.vocawik.common.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of concurrent calls to a dependency.
+ *
+ * <p>A caller that cannot get a permit within the configured wait is rejected instead of queuing,
+ * so a slow dependency can occupy at most {@code maxConcurrentCalls} request threads.
+ */
+public final class Bulkhead {
+
+    private final int maxConcurrentCalls;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+
+    /**
+     * Creates a bulkhead.
+     *
+     * @param maxConcurrentCalls maximum number of calls in flight
+     * @param maxWait how long a caller may wait for a permit
+     */
+    public Bulkhead(int maxConcurrentCalls, Duration maxWait) {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("maxConcurrentCalls must be at least 1");
+        }
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+    }
+
+    /**
+     * Acquires a permit, waiting at most the configured time.
+     *
+     * @return {@code true} if a permit was acquired and must be {@link #release() released}
+     */
+    public boolean tryAcquire() {
+        try {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** Releases a permit acquired with {@link #tryAcquire()}. */
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * Returns the number of calls currently in flight.
+     *
+     * @return calls in flight
+     */
+    public int inFlightCalls() {
+        return maxConcurrentCalls - permits.availablePermits();
+    }
+
+    /**
+     * Returns the maximum number of calls in flight.
+     *
+     * @return maximum concurrent calls
+     */
+    public int maxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+}
@@ -0,0 +1,164 @@
+package com.vocawik.common.resilience;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker.
+ *
+ * <p>While {@link State#CLOSED}, the outcomes of the last {@code windowSize} calls are kept. Once
+ * at least {@code minimumCalls} are recorded and the failure rate reaches the threshold, the
+ * breaker opens and rejects calls for {@code openDuration}. After that a single probe call is let
+ * through ({@link State#HALF_OPEN}): success closes the breaker, failure opens it again.
+ *
+ * <p>Every permitted call must end with exactly one of {@link #onSuccess()}, {@link
+ * #onFailure()} or {@link #releasePermission()}.
+ */
+public final class CircuitBreaker {
+
+    /** Breaker state. */
+    public enum State {
+        /** Calls are permitted and their outcomes recorded. */
+        CLOSED,
+        /** A single probe call is permitted to test recovery. */
+        HALF_OPEN,
+        /** Calls are rejected until the open duration has passed. */
+        OPEN
+    }
+
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier nanoTime;
+    private final boolean[] outcomes;
+
+    private State state = State.CLOSED;
+    private int recordedCalls;
+    private int failedCalls;
+    private int nextIndex;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    /**
+     * Creates a circuit breaker.
+     *
+     * @param windowSize number of most recent calls the failure rate is computed over
+     * @param minimumCalls calls needed in the window before the breaker may open
+     * @param failureRateThreshold failure rate (percent) that opens the breaker
+     * @param openDuration how long the breaker stays open before a probe call
+     */
+    public CircuitBreaker(
+            int windowSize, int minimumCalls, int failureRateThreshold, Duration openDuration) {
+        this(windowSize, minimumCalls, failureRateThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(
+            int windowSize,
+            int minimumCalls,
+            int failureRateThreshold,
+            Duration openDuration,
+            LongSupplier nanoTime) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException(
+                    "minimumCalls must be between 1 and windowSize (" + windowSize + ")");
+        }
+        if (failureRateThreshold < 1 || failureRateThreshold > 100) {
+            throw new IllegalArgumentException("failureRateThreshold must be between 1 and 100");
+        }
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.nanoTime = nanoTime;
+        this.outcomes = new boolean[windowSize];
+    }
+
+    /**
+     * Asks for permission to make a call.
+     *
+     * @return {@code true} if the call may proceed
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN && nanoTime.getAsLong() - openedAt >= openDurationNanos) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (probeInFlight) {
+                    yield false;
+                }
+                probeInFlight = true;
+                yield true;
+            }
+        };
+    }
+
+    /** Gives back a permission without a call having been made. */
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    /** Records a successful call. */
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    /** Records a failed call. */
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recordedCalls >= minimumCalls
+                    && failedCalls * 100 >= failureRateThreshold * recordedCalls) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * Returns the current state.
+     *
+     * @return breaker state
+     */
+    public synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (recordedCalls == outcomes.length) {
+            if (outcomes[nextIndex]) {
+                failedCalls--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        outcomes[nextIndex] = failed;
+        if (failed) {
+            failedCalls++;
+        }
+        nextIndex = (nextIndex + 1) % outcomes.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoTime.getAsLong();
+        probeInFlight = false;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recordedCalls = 0;
+        failedCalls = 0;
+        nextIndex = 0;
+        probeInFlight = false;
+    }
+}
@@ -0,0 +1,2 @@
+/** Resilience primitives for calls to external services. */
+package com.vocawik.common.resilience;
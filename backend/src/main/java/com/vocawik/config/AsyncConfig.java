@@ -13,7 +13,8 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 /**
  * Async configuration.
  *
- * <p>Enables {@code @Async} support and provides a thread pool for asynchronous tasks.
+ * <p>Enables {@code @Async} support and provides a thread pool for asynchronous tasks. Tasks run
+ * with the MDC and security context of the thread that submitted them.
  */
 @Slf4j
 @Configuration
@@ -56,6 +57,7 @@ public class AsyncConfig implements AsyncConfigurer {
         executor.setMaxPoolSize(maxPoolSize);
         executor.setQueueCapacity(queueCapacity);
         executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setTaskDecorator(new RequestContextTaskDecorator());
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(30);
         executor.initialize();
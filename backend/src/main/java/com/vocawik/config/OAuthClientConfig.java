@@ -0,0 +1,55 @@
+package com.vocawik.config;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+/**
+ * HTTP client configuration for OAuth provider calls.
+ *
+ * <p>Provides a dedicated {@link RestClient} backed by a single shared JDK {@link HttpClient}. The
+ * JDK client keeps idle connections alive in its pool and negotiates HTTP/2, so the token,
+ * userinfo and JWKS requests to Google reuse connections instead of paying a TLS handshake each.
+ * Every request is bounded by a connect timeout and a read timeout.
+ */
+@Configuration
+public class OAuthClientConfig {
+
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+
+    /**
+     * Creates OAuth client configuration.
+     *
+     * @param connectTimeoutMs TCP/TLS connect timeout in milliseconds
+     * @param readTimeoutMs response timeout in milliseconds
+     */
+    public OAuthClientConfig(
+            @Value("${oauth.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${oauth.http.read-timeout-ms:3000}") long readTimeoutMs) {
+        this.connectTimeout = Duration.ofMillis(connectTimeoutMs);
+        this.readTimeout = Duration.ofMillis(readTimeoutMs);
+    }
+
+    /**
+     * Creates the REST client used for OAuth provider calls.
+     *
+     * @return OAuth provider REST client
+     */
+    @Bean
+    public RestClient oAuthRestClient() {
+        HttpClient httpClient =
+                HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_2)
+                        .connectTimeout(connectTimeout)
+                        .followRedirects(HttpClient.Redirect.NEVER)
+                        .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return RestClient.builder().requestFactory(requestFactory).build();
+    }
+}
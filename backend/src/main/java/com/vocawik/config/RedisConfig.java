@@ -8,6 +8,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -19,6 +20,7 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
  * <ul>
  *   <li>{@link RedisTemplate} with JSON serialization for general Redis operations
  *   <li>{@link RedissonClient} for distributed locks and advanced data structures
+ *   <li>{@link RedisMessageListenerContainer} for pub/sub subscriptions
  * </ul>
  */
 @Configuration
@@ -52,6 +54,20 @@ public class RedisConfig {
         return template;
     }
 
+    /**
+     * Creates a {@link RedisMessageListenerContainer} shared by pub/sub subscribers.
+     *
+     * @param connectionFactory the Redis connection factory
+     * @return listener container
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
     /**
      * Creates a {@link RedissonClient} for distributed locks and advanced Redis features.
      *
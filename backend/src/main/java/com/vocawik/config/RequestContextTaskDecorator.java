@@ -0,0 +1,51 @@
+package com.vocawik.config;
+
+import java.util.Map;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Carries the submitting thread's MDC and security context into async tasks.
+ *
+ * <p>Both are captured when the task is submitted, so logs written by the task keep the request
+ * ID and the task runs as the caller. The security context is copied rather than shared, and the
+ * worker thread's own context is restored when the task ends so pooled threads do not leak one
+ * request's state into the next.
+ */
+public class RequestContextTaskDecorator implements TaskDecorator {
+
+    /**
+     * Wraps a task to run with the current MDC and security context.
+     *
+     * @param runnable task submitted by the caller
+     * @return task that installs the captured context around {@code runnable}
+     */
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(SecurityContextHolder.getContext().getAuthentication());
+        return () -> {
+            Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+            SecurityContext previousSecurityContext = SecurityContextHolder.getContext();
+            setMdc(mdc);
+            SecurityContextHolder.setContext(securityContext);
+            try {
+                runnable.run();
+            } finally {
+                setMdc(previousMdc);
+                SecurityContextHolder.setContext(previousSecurityContext);
+            }
+        };
+    }
+
+    private static void setMdc(Map<String, String> contextMap) {
+        if (contextMap == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(contextMap);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.vocawik.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling configuration.
+ *
+ * <p>Enables {@code @Scheduled} support for periodic in-process tasks.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
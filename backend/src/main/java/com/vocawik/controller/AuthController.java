@@ -5,6 +5,7 @@ import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 
 import com.vocawik.common.auth.AuthProvider;
 import com.vocawik.dto.auth.AuthTokenResponse;
+import com.vocawik.security.CurrentUser;
 import com.vocawik.service.auth.AuthService;
 import com.vocawik.service.auth.AuthTokenBundle;
 import com.vocawik.service.auth.OAuthStateService;
@@ -14,6 +15,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.util.Locale;
 import java.util.Map;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
@@ -131,6 +133,23 @@ public class AuthController {
                         tokenBundle.accessToken(), "Bearer", tokenBundle.expiresIn()));
     }
 
+    /**
+     * Signs the current user out of every session by revoking all tokens issued so far.
+     *
+     * @param userUuid current user ID
+     * @return empty response
+     */
+    @PostMapping("/logout/all")
+    @Operation(
+            summary = "Sign out everywhere",
+            description = "Revokes every access and refresh token of the current user.")
+    public ResponseEntity<Void> logoutAll(
+            @CurrentUser UUID userUuid, HttpServletResponse response) {
+        authService.revokeAllTokens(userUuid);
+        clearRefreshCookie(response);
+        return ResponseEntity.noContent().build();
+    }
+
     private AuthProvider parseProvider(String provider) {
         try {
             return AuthProvider.valueOf(provider.toUpperCase(Locale.ROOT));
@@ -151,6 +170,18 @@ public class AuthController {
         response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
     }
 
+    private void clearRefreshCookie(HttpServletResponse response) {
+        ResponseCookie cookie =
+                ResponseCookie.from(REFRESH_TOKEN_COOKIE, "")
+                        .httpOnly(true)
+                        .secure(secureCookie)
+                        .sameSite("Strict")
+                        .path("/api/v1/auth")
+                        .maxAge(0)
+                        .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
     private void addOAuthStateCookie(HttpServletResponse response, String state) {
         ResponseCookie cookie =
                 ResponseCookie.from(OAUTH_STATE_COOKIE, state)
@@ -1,11 +1,14 @@
 package com.vocawik.exception;
 
+import com.vocawik.ratelimit.RateLimitHeaders;
 import com.vocawik.web.error.ErrorResponse;
 import com.vocawik.web.exception.BusinessException;
+import com.vocawik.web.exception.ServiceUnavailableException;
 import com.vocawik.web.exception.TooManyRequestsException;
 import com.vocawik.web.exception.UnauthorizedException;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -77,7 +80,7 @@ public class GlobalExceptionHandler {
      * Handles rate limit exceeded errors.
      *
      * @param ex the exception
-     * @return 429 Too Many Requests
+     * @return 429 Too Many Requests, with rate limit headers when the quota is known
      */
     @ExceptionHandler(TooManyRequestsException.class)
     public ResponseEntity<ErrorResponse> handleTooManyRequestsException(
@@ -86,9 +89,29 @@ public class GlobalExceptionHandler {
         logger.warn("Rate limit exceeded: {}", ex.getMessage());
 
         return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .headers(
+                        RateLimitHeaders.rejected(
+                                ex.getLimit(), ex.getResetSeconds(), ex.getRetryAfterSeconds()))
                 .body(ErrorResponse.of(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage()));
     }
 
+    /**
+     * Handles calls shed by a concurrency limit.
+     *
+     * @param ex the exception
+     * @return 503 Service Unavailable with a {@code Retry-After} header
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailableException(
+            ServiceUnavailableException ex) {
+
+        logger.warn("Load shed: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(ErrorResponse.of(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()));
+    }
+
     /**
      * Handles business logic exceptions with {@link com.vocawik.web.error.ErrorCode}.
      *
@@ -0,0 +1,20 @@
+package com.vocawik.ratelimit;
+
+/** Concurrency limit that adapts to the latency of completed calls. */
+interface AdaptiveLimit {
+
+    /**
+     * Returns the current limit.
+     *
+     * @return calls allowed in flight
+     */
+    int limit();
+
+    /**
+     * Adapts the limit to a completed call.
+     *
+     * @param rttNanos how long the call took
+     * @param inFlight calls in flight when it started, itself included
+     */
+    void onSample(long rttNanos, int inFlight);
+}
@@ -0,0 +1,38 @@
+package com.vocawik.ratelimit;
+
+/**
+ * Additive-increase, multiplicative-decrease limit.
+ *
+ * <p>The limit only grows while at least half of it is in use, so an endpoint that is never busy
+ * does not drift up to the maximum and then admit a burst it cannot serve.
+ */
+final class AimdLimit implements AdaptiveLimit {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long slowCallNanos;
+    private volatile int limit;
+
+    AimdLimit(int initialLimit, int minLimit, int maxLimit, long slowCallNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.slowCallNanos = slowCallNanos;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    @Override
+    public int limit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inFlight) {
+        if (rttNanos > slowCallNanos) {
+            limit = Math.max(minLimit, (int) (limit * BACKOFF_RATIO));
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.vocawik.ratelimit;
+
+/** Algorithm adapting a concurrency limit to observed latency. */
+public enum ConcurrencyLimitAlgorithm {
+
+    /**
+     * Scales the limit by the ratio of long-term to recent latency, plus headroom for queueing, so
+     * it shrinks as soon as calls slow down relative to their usual latency.
+     */
+    GRADIENT,
+
+    /**
+     * Additive increase, multiplicative decrease: grows by one while calls are fast, and is cut by
+     * a tenth whenever a call exceeds the slow-call threshold.
+     */
+    AIMD
+}
@@ -0,0 +1,55 @@
+package com.vocawik.ratelimit;
+
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/** Actuator endpoint {@code /actuator/concurrency} listing the concurrency limit per endpoint. */
+@Component
+@Endpoint(id = "concurrency")
+public class ConcurrencyLimitEndpoint {
+
+    private final ConcurrencyLimiters concurrencyLimiters;
+
+    /**
+     * Creates the endpoint.
+     *
+     * @param concurrencyLimiters registry of endpoint limiters
+     */
+    public ConcurrencyLimitEndpoint(ConcurrencyLimiters concurrencyLimiters) {
+        this.concurrencyLimiters = concurrencyLimiters;
+    }
+
+    /**
+     * Lists every endpoint limiter created so far.
+     *
+     * @return limit, calls in flight, shed calls and algorithm by endpoint
+     */
+    @ReadOperation
+    public Map<String, LimiterState> limits() {
+        Map<String, LimiterState> limits = new TreeMap<>();
+        for (ConcurrencyLimiter limiter : concurrencyLimiters.all()) {
+            limits.put(
+                    limiter.endpoint(),
+                    new LimiterState(
+                            limiter.limit(),
+                            limiter.inFlight(),
+                            limiter.shed(),
+                            limiter.algorithm()));
+        }
+        return limits;
+    }
+
+    /**
+     * State of one endpoint limiter.
+     *
+     * @param limit calls allowed in flight
+     * @param inFlight calls in flight
+     * @param shed calls shed so far
+     * @param algorithm algorithm adapting the limit
+     */
+    public record LimiterState(
+            int limit, int inFlight, long shed, ConcurrencyLimitAlgorithm algorithm) {}
+}
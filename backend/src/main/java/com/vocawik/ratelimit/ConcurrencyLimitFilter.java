@@ -0,0 +1,108 @@
+package com.vocawik.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vocawik.aop.ConcurrencyLimit;
+import com.vocawik.ratelimit.RateLimitRouteIndex.ConcurrencyLimitedRoute;
+import com.vocawik.web.error.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Enforces {@link ConcurrencyLimit} as the first filter of the security chain.
+ *
+ * <p>A request over its endpoint's limit is shed with 503 before any rate limit, authentication or
+ * handler work, so an overloaded endpoint sheds load at the cost of one counter check instead of
+ * letting requests pile up behind it. The time to the end of the chain is the latency the limit
+ * adapts to. Requests checked here are marked with {@link #ENFORCED_ATTRIBUTE} so {@link
+ * com.vocawik.aop.ConcurrencyLimitAspect} does not take a second slot for them.
+ */
+@Slf4j
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    /** Request attribute set when this filter holds the request's concurrency slot. */
+    public static final String ENFORCED_ATTRIBUTE =
+            ConcurrencyLimitFilter.class.getName() + ".ENFORCED";
+
+    private final RateLimitRouteIndex routeIndex;
+    private final ConcurrencyLimiters concurrencyLimiters;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Creates a concurrency-limit filter.
+     *
+     * @param routeIndex index of route templates and their limits
+     * @param concurrencyLimiters registry of endpoint limiters
+     * @param objectMapper base mapper used to serialize {@link ErrorResponse}
+     */
+    public ConcurrencyLimitFilter(
+            RateLimitRouteIndex routeIndex,
+            ConcurrencyLimiters concurrencyLimiters,
+            ObjectMapper objectMapper) {
+        this.routeIndex = routeIndex;
+        this.concurrencyLimiters = concurrencyLimiters;
+        this.objectMapper = objectMapper.copy();
+    }
+
+    /**
+     * Sheds a request with 503 when its endpoint is at its concurrency limit, and otherwise holds
+     * a slot until the rest of the chain completes.
+     *
+     * @param request HTTP request
+     * @param response HTTP response
+     * @param filterChain filter chain
+     * @throws ServletException if a servlet exception occurs
+     * @throws IOException if an I/O exception occurs
+     */
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Optional<ConcurrencyLimitedRoute> route = routeIndex.matchConcurrencyLimit(request);
+        if (route.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String endpoint = request.getMethod() + ":" + route.get().template();
+        ConcurrencyLimiter limiter =
+                concurrencyLimiters.limiter(endpoint, route.get().concurrencyLimit());
+        int inFlight = limiter.tryAcquire();
+        if (inFlight == 0) {
+            logger.warn("Concurrency limit {} reached: {}", limiter.limit(), endpoint);
+            writeServiceUnavailable(response);
+            return;
+        }
+
+        request.setAttribute(ENFORCED_ATTRIBUTE, Boolean.TRUE);
+        long startedAt = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - startedAt, inFlight);
+        }
+    }
+
+    private void writeServiceUnavailable(HttpServletResponse response) throws IOException {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        response.setStatus(status.value());
+        response.setHeader(
+                HttpHeaders.RETRY_AFTER, Long.toString(ConcurrencyLimiters.RETRY_AFTER_SECONDS));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(
+                response.getWriter(),
+                ErrorResponse.of(status, "Server is busy. Please try again shortly."));
+    }
+}
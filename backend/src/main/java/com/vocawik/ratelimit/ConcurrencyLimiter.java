@@ -0,0 +1,99 @@
+package com.vocawik.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Calls in flight on one endpoint of this instance, capped by an {@link AdaptiveLimit}.
+ *
+ * <p>A call that gets a slot with {@link #tryAcquire()} must give it back with {@link
+ * #release(long, int)}, which also feeds its latency to the limit.
+ */
+public final class ConcurrencyLimiter {
+
+    private final String endpoint;
+    private final ConcurrencyLimitAlgorithm algorithm;
+    private final AdaptiveLimit limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder shed = new LongAdder();
+
+    ConcurrencyLimiter(String endpoint, ConcurrencyLimitAlgorithm algorithm, AdaptiveLimit limit) {
+        this.endpoint = endpoint;
+        this.algorithm = algorithm;
+        this.limit = limit;
+    }
+
+    /**
+     * Takes a slot if fewer calls than the current limit are in flight.
+     *
+     * @return calls in flight including this one, or {@code 0} if the call must be shed
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.limit()) {
+                shed.increment();
+                return 0;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Gives back a slot and adapts the limit to the call's latency.
+     *
+     * @param rttNanos how long the call took
+     * @param inFlightAtStart value returned by {@link #tryAcquire()} for the call
+     */
+    public void release(long rttNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        limit.onSample(rttNanos, inFlightAtStart);
+    }
+
+    /**
+     * Returns the endpoint, as HTTP method and route template.
+     *
+     * @return endpoint, e.g. {@code GET:/api/v1/words/{id}}
+     */
+    public String endpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Returns the algorithm adapting the limit.
+     *
+     * @return algorithm
+     */
+    public ConcurrencyLimitAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return calls allowed in flight
+     */
+    public int limit() {
+        return limit.limit();
+    }
+
+    /**
+     * Returns the calls in flight.
+     *
+     * @return calls in flight
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the calls shed so far.
+     *
+     * @return shed calls
+     */
+    public long shed() {
+        return shed.sum();
+    }
+}
@@ -0,0 +1,103 @@
+package com.vocawik.ratelimit;
+
+import com.vocawik.aop.ConcurrencyLimit;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * One {@link ConcurrencyLimiter} per endpoint declaring {@link ConcurrencyLimit}.
+ *
+ * <p>Limiters are created on first use and kept for the life of the instance; endpoints are route
+ * templates, so there are at most as many as there are annotated routes. Each limiter publishes its
+ * limit, calls in flight and shed calls as metrics tagged with the endpoint.
+ */
+@Slf4j
+@Component
+public class ConcurrencyLimiters {
+
+    /** Seconds a shed caller is told to wait; limits adapt within a few calls. */
+    public static final long RETRY_AFTER_SECONDS = 1;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the limiter registry.
+     *
+     * @param meterRegistry registry for limit, in-flight and shed metrics
+     */
+    public ConcurrencyLimiters(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns the limiter of an endpoint, creating it on first use.
+     *
+     * @param endpoint HTTP method and route template, e.g. {@code GET:/api/v1/words/{id}}
+     * @param concurrencyLimit limit declared on the handler method
+     * @return endpoint limiter
+     */
+    public ConcurrencyLimiter limiter(String endpoint, ConcurrencyLimit concurrencyLimit) {
+        ConcurrencyLimiter limiter = limiters.get(endpoint);
+        if (limiter != null) {
+            return limiter;
+        }
+        return limiters.computeIfAbsent(endpoint, key -> create(key, concurrencyLimit));
+    }
+
+    /**
+     * Returns every limiter created so far.
+     *
+     * @return endpoint limiters
+     */
+    public List<ConcurrencyLimiter> all() {
+        return List.copyOf(limiters.values());
+    }
+
+    private ConcurrencyLimiter create(String endpoint, ConcurrencyLimit concurrencyLimit) {
+        AdaptiveLimit limit =
+                switch (concurrencyLimit.algorithm()) {
+                    case GRADIENT ->
+                            new GradientLimit(
+                                    concurrencyLimit.initialLimit(),
+                                    concurrencyLimit.minLimit(),
+                                    concurrencyLimit.maxLimit());
+                    case AIMD ->
+                            new AimdLimit(
+                                    concurrencyLimit.initialLimit(),
+                                    concurrencyLimit.minLimit(),
+                                    concurrencyLimit.maxLimit(),
+                                    TimeUnit.MILLISECONDS.toNanos(
+                                            concurrencyLimit.slowCallMillis()));
+                };
+        ConcurrencyLimiter limiter =
+                new ConcurrencyLimiter(endpoint, concurrencyLimit.algorithm(), limit);
+        Gauge.builder("concurrency.limit", limiter, ConcurrencyLimiter::limit)
+                .description("Adaptive limit of calls in flight per endpoint")
+                .tag("endpoint", endpoint)
+                .strongReference(true)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.inflight", limiter, ConcurrencyLimiter::inFlight)
+                .description("Calls in flight per endpoint")
+                .tag("endpoint", endpoint)
+                .strongReference(true)
+                .register(meterRegistry);
+        FunctionCounter.builder("concurrency.shed", limiter, ConcurrencyLimiter::shed)
+                .description("Calls shed for exceeding the concurrency limit")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        logger.info(
+                "Concurrency limit for {} starts at {} ({})",
+                endpoint,
+                limiter.limit(),
+                concurrencyLimit.algorithm());
+        return limiter;
+    }
+}
@@ -0,0 +1,142 @@
+package com.vocawik.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rate limiter used by the aspect and filter: decides with {@link LeasingRateLimiter}, and with the
+ * configured {@link RateLimitFallback} whenever Redis is unavailable.
+ *
+ * <p>Redis counts as unavailable when a call exceeds the latency budget, fails, or is refused by
+ * the open circuit breaker of {@link RateLimitRedisGuard}; in all three cases the decision is made
+ * here without waiting any further.
+ */
+@Slf4j
+@Primary
+@Component
+public class FallbackRateLimiter implements RateLimiter {
+
+    private final RateLimiter delegate;
+    private final RateLimitRedisGuard guard;
+    private final RateLimitFallback policy;
+    private final LocalRateLimiter localRateLimiter;
+    private final Counter admitted;
+    private final Counter rejected;
+
+    /**
+     * Creates a fallback rate limiter.
+     *
+     * @param delegate limiter deciding with the shared quota in Redis
+     * @param guard guard whose open duration is reported to callers rejected by the fallback
+     * @param meterRegistry registry for fallback decision metrics
+     * @param policy how calls are decided while Redis is unavailable
+     * @param localFraction share of each limit one instance admits under the local policy
+     * @param maximumKeys maximum number of keys with a local fallback bucket
+     */
+    @Autowired
+    public FallbackRateLimiter(
+            LeasingRateLimiter delegate,
+            RateLimitRedisGuard guard,
+            MeterRegistry meterRegistry,
+            @Value("${ratelimit.fallback.policy:LOCAL}") RateLimitFallback policy,
+            @Value("${ratelimit.fallback.local-fraction:0.1}") double localFraction,
+            @Value("${ratelimit.fallback.maximum-keys:100000}") long maximumKeys) {
+        this(
+                (RateLimiter) delegate,
+                guard,
+                meterRegistry,
+                policy,
+                new LocalRateLimiter(localFraction, maximumKeys, System::nanoTime));
+    }
+
+    FallbackRateLimiter(
+            RateLimiter delegate,
+            RateLimitRedisGuard guard,
+            MeterRegistry meterRegistry,
+            RateLimitFallback policy,
+            LocalRateLimiter localRateLimiter) {
+        this.delegate = delegate;
+        this.guard = guard;
+        this.policy = policy;
+        this.localRateLimiter = localRateLimiter;
+        this.admitted = decisionCounter(meterRegistry, policy, "allowed");
+        this.rejected = decisionCounter(meterRegistry, policy, "rejected");
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(RateLimitRule rule) {
+        try {
+            return delegate.tryAcquire(rule);
+        } catch (RateLimiterUnavailableException e) {
+            return fallback(e, rule, List.of(rule));
+        }
+    }
+
+    @Override
+    public RateLimitDecision tryAcquireAll(List<RateLimitRule> rules) {
+        try {
+            return delegate.tryAcquireAll(rules);
+        } catch (RateLimiterUnavailableException e) {
+            return fallback(e, rules.get(0), rules);
+        }
+    }
+
+    /**
+     * Returns the policy applied while Redis is unavailable.
+     *
+     * @return fallback policy
+     */
+    public RateLimitFallback policy() {
+        return policy;
+    }
+
+    /**
+     * Returns the number of calls decided by the fallback policy so far.
+     *
+     * @return fallback decisions
+     */
+    public long fallbackDecisions() {
+        return (long) (admitted.count() + rejected.count());
+    }
+
+    private RateLimitDecision fallback(
+            RateLimiterUnavailableException e, RateLimitRule caller, List<RateLimitRule> rules) {
+        logger.debug(
+                "Rate limit for {} decided by {} fallback: {}",
+                caller.key(),
+                policy,
+                e.getMessage());
+        RateLimitDecision decision =
+                switch (policy) {
+                    case FAIL_OPEN ->
+                            RateLimitDecision.allowed(
+                                    caller.permits(), RateLimitDecision.UNKNOWN, Duration.ZERO);
+                    case FAIL_CLOSED ->
+                            RateLimitDecision.rejected(
+                                    caller.permits(), guard.openDuration(), guard.openDuration());
+                    case LOCAL ->
+                            rules.size() == 1
+                                    ? localRateLimiter.tryAcquire(caller)
+                                    : localRateLimiter.tryAcquireAll(rules);
+                };
+        (decision.allowed() ? admitted : rejected).increment();
+        return decision;
+    }
+
+    private static Counter decisionCounter(
+            MeterRegistry meterRegistry, RateLimitFallback policy, String outcome) {
+        return Counter.builder("ratelimit.fallback.decisions")
+                .description("Rate limit decisions made without Redis")
+                .tag("policy", policy.name().toLowerCase(Locale.ROOT))
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
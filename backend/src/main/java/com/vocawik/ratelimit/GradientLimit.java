@@ -0,0 +1,64 @@
+package com.vocawik.ratelimit;
+
+/**
+ * Gradient limit: compares recent latency with its long-term average.
+ *
+ * <p>Each sample updates a short and a long exponential moving average of the latency. Their ratio,
+ * capped to {@code [0.5, 1]}, is the gradient: {@code 1} while calls are as fast as usual, lower
+ * once a queue builds up and recent calls slow down. The new limit is {@code limit * gradient +
+ * sqrt(limit)}, the square root leaving room to probe for more capacity, smoothed into the current
+ * limit. As with {@link AimdLimit}, the limit only grows while at least half of it is in use.
+ */
+final class GradientLimit implements AdaptiveLimit {
+
+    private static final double SHORT_SMOOTHING = 0.1;
+    private static final double LONG_SMOOTHING = 0.002;
+    private static final double LIMIT_SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private double shortRtt;
+    private double longRtt;
+    private double estimate;
+    private volatile int limit;
+
+    GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimate = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.limit = (int) estimate;
+    }
+
+    @Override
+    public int limit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inFlight) {
+        if (longRtt == 0) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+            return;
+        }
+        shortRtt += (rttNanos - shortRtt) * SHORT_SMOOTHING;
+        longRtt += (rttNanos - longRtt) * LONG_SMOOTHING;
+        if (longRtt / shortRtt > 2) {
+            // recovering from an overload: let the baseline follow latency back down
+            longRtt = shortRtt * 2;
+        }
+
+        double gradient = Math.clamp(longRtt / shortRtt, MIN_GRADIENT, 1.0);
+        double target = estimate * gradient + Math.sqrt(estimate);
+        if (target > estimate && inFlight * 2 < estimate) {
+            return;
+        }
+        estimate =
+                Math.clamp(
+                        estimate * (1 - LIMIT_SMOOTHING) + target * LIMIT_SMOOTHING,
+                        minLimit,
+                        maxLimit);
+        limit = (int) estimate;
+    }
+}
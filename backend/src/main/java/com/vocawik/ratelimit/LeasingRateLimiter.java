@@ -0,0 +1,396 @@
+package com.vocawik.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Two-tier rate limiter: in-process permit buckets refilled by leasing batches from the shared
+ * quota.
+ *
+ * <p>This tier serves {@link RateLimitAlgorithm#TOKEN_BUCKET} rules. Rules using another algorithm
+ * need the exact remaining quota and are handed to {@link ScriptedRateLimiter} on every call, as
+ * are rules checked together, which leased permits cannot take from all or nothing.
+ *
+ * <p>Each key gets a local bucket split into cache-line padded stripes, and callers take permits
+ * with a CAS on their own stripe first, so most decisions need neither a lock nor a Redis round
+ * trip. When a bucket runs low a batch is leased from the {@link SharedQuota} in the background;
+ * only a caller that finds the bucket empty leases synchronously. A key has at most one lease in
+ * flight: callers that find the bucket empty while a lease is running wait for it and retry the
+ * bucket instead of leasing a batch each.
+ *
+ * <p>The batch size is {@code lease-fraction} of the limit and bounds the error, which goes both
+ * ways. Each instance may sit on up to two unused batches (the rest of one in hand, one
+ * prefetched), so the cluster may admit up to {@code 2 * instances * batch} fewer calls than the
+ * limit. A batch stays usable for one window after it was leased, and the shared quota frees its
+ * permits on the same schedule, so within any window an instance may also serve what is left of
+ * batches leased in the previous one on top of a full new lease: the cluster may admit up to
+ * {@code 2 * instances * batch} more calls than the limit as well. Each batch expires on its own,
+ * whatever was leased after it, so that excess cannot grow beyond one window's leftovers.
+ *
+ * <p>Once the shared quota refuses a lease, callers are rejected locally, and told to retry, for
+ * the time one batch takes to refill, so a flood of rejected calls does not become a flood of
+ * Redis calls. Limits too small for a batch of two go straight to the shared quota, and a rejected
+ * caller is told to retry once one permit has refilled.
+ *
+ * <p>Permits already leased keep being served while Redis is unavailable; a caller that needs the
+ * shared quota gets a {@link RateLimiterUnavailableException} for {@link FallbackRateLimiter} to
+ * handle.
+ */
+@Slf4j
+@Component
+public class LeasingRateLimiter implements RateLimiter, DisposableBean {
+
+    /** Longs per stripe, so neighbouring stripes never share a 64-byte cache line. */
+    private static final int STRIPE_PADDING = 8;
+
+    private static final int MAX_STRIPES = 16;
+
+    private final SharedQuota sharedQuota;
+    private final ScriptedRateLimiter scriptedRateLimiter;
+    private final boolean localEnabled;
+    private final double leaseFraction;
+    private final int stripes;
+    private final Cache<String, LocalPermits> buckets;
+    private final ExecutorService leaseExecutor;
+    private final Counter syncLeases;
+    private final Counter prefetchLeases;
+
+    /**
+     * Creates a leasing rate limiter.
+     *
+     * @param sharedQuota cluster-wide quota permits are leased from
+     * @param scriptedRateLimiter limiter for rules using a scripted algorithm
+     * @param meterRegistry registry for lease metrics
+     * @param localEnabled whether decisions may be served from local buckets
+     * @param leaseFraction share of a rule's limit leased per batch
+     * @param stripes stripes per local bucket, or {@code 0} to derive it from the CPU count
+     * @param maximumKeys maximum number of keys with a local bucket
+     */
+    public LeasingRateLimiter(
+            SharedQuota sharedQuota,
+            ScriptedRateLimiter scriptedRateLimiter,
+            MeterRegistry meterRegistry,
+            @Value("${ratelimit.local.enabled:true}") boolean localEnabled,
+            @Value("${ratelimit.local.lease-fraction:0.05}") double leaseFraction,
+            @Value("${ratelimit.local.stripes:0}") int stripes,
+            @Value("${ratelimit.local.maximum-keys:100000}") long maximumKeys) {
+        if (leaseFraction <= 0 || leaseFraction > 1) {
+            throw new IllegalArgumentException("lease fraction must be in (0, 1]");
+        }
+        this.sharedQuota = sharedQuota;
+        this.scriptedRateLimiter = scriptedRateLimiter;
+        this.localEnabled = localEnabled;
+        this.leaseFraction = leaseFraction;
+        this.stripes =
+                stripes > 0
+                        ? powerOfTwo(stripes)
+                        : powerOfTwo(
+                                Math.min(MAX_STRIPES, Runtime.getRuntime().availableProcessors()));
+        this.buckets =
+                Caffeine.newBuilder()
+                        .maximumSize(maximumKeys)
+                        .expireAfter(new IdleForTwoWindows())
+                        .build();
+        this.leaseExecutor =
+                Executors.newThreadPerTaskExecutor(
+                        Thread.ofVirtual().name("rate-limit-lease-", 0).factory());
+        this.syncLeases =
+                Counter.builder("ratelimit.leases").tag("mode", "sync").register(meterRegistry);
+        this.prefetchLeases =
+                Counter.builder("ratelimit.leases").tag("mode", "prefetch").register(meterRegistry);
+        Gauge.builder("ratelimit.local.keys", buckets, Cache::estimatedSize)
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(RateLimitRule rule) {
+        if (rule.algorithm() != RateLimitAlgorithm.TOKEN_BUCKET) {
+            return scriptedRateLimiter.tryAcquire(rule);
+        }
+        long batch = leaseSize(rule);
+        if (!localEnabled || batch < 2) {
+            return decide(rule, sharedQuota.lease(rule, 1) > 0, refillTime(rule, 1));
+        }
+        return decide(rule, tryTakePermit(rule, batch), refillTime(rule, batch));
+    }
+
+    @Override
+    public RateLimitDecision tryAcquireAll(List<RateLimitRule> rules) {
+        return scriptedRateLimiter.tryAcquireAll(rules);
+    }
+
+    private boolean tryTakePermit(RateLimitRule rule, long batch) {
+        LocalPermits bucket =
+                buckets.get(rule.key(), key -> new LocalPermits(stripes, rule.window().toNanos()));
+        while (true) {
+            long now = System.nanoTime();
+            if (bucket.tryTake(now)) {
+                if (bucket.available(now) <= batch / 2) {
+                    prefetch(rule, bucket, batch);
+                }
+                return true;
+            }
+            if (bucket.isExhausted(now)) {
+                return false;
+            }
+            CompletableFuture<Void> inFlight = bucket.leaseInFlight();
+            if (inFlight == null) {
+                CompletableFuture<Void> lease = new CompletableFuture<>();
+                inFlight = bucket.startLease(lease);
+                if (inFlight == null) {
+                    return leaseNow(rule, bucket, batch, lease, now);
+                }
+            }
+            // another caller is leasing for this key: wait for its batch and retry the bucket
+            inFlight.join();
+        }
+    }
+
+    /** Leases a batch for a caller that found the bucket empty; one of its permits is theirs. */
+    private boolean leaseNow(
+            RateLimitRule rule,
+            LocalPermits bucket,
+            long batch,
+            CompletableFuture<Void> lease,
+            long now) {
+        try {
+            syncLeases.increment();
+            long granted = sharedQuota.lease(rule, batch);
+            if (granted == 0) {
+                bucket.markExhausted(now, refillTime(rule, batch).toNanos());
+                return false;
+            }
+            bucket.add(granted - 1, System.nanoTime());
+            return true;
+        } finally {
+            bucket.endLease(lease);
+        }
+    }
+
+    /**
+     * Builds a token-bucket decision. The global remaining quota is not known here; a rejected
+     * caller is told to retry once the permits it was refused for have refilled.
+     */
+    private static RateLimitDecision decide(
+            RateLimitRule rule, boolean allowed, Duration retryAfter) {
+        if (allowed) {
+            return RateLimitDecision.allowed(
+                    rule.permits(), RateLimitDecision.UNKNOWN, Duration.ZERO);
+        }
+        return RateLimitDecision.rejected(rule.permits(), rule.window(), retryAfter);
+    }
+
+    /** Time the shared token bucket takes to refill the given number of permits. */
+    private static Duration refillTime(RateLimitRule rule, long permits) {
+        return Duration.ofNanos(rule.window().toNanos() / rule.permits() * permits);
+    }
+
+    /** Stops background leases; permits they would have returned are given up. */
+    @Override
+    public void destroy() {
+        leaseExecutor.shutdownNow();
+    }
+
+    private void prefetch(RateLimitRule rule, LocalPermits bucket, long batch) {
+        if (bucket.leaseInFlight() != null) {
+            return;
+        }
+        CompletableFuture<Void> lease = new CompletableFuture<>();
+        if (bucket.startLease(lease) != null) {
+            return;
+        }
+        try {
+            leaseExecutor.execute(
+                    () -> {
+                        try {
+                            prefetchLeases.increment();
+                            bucket.add(sharedQuota.lease(rule, batch), System.nanoTime());
+                        } catch (RateLimiterUnavailableException e) {
+                            // reported by the guard; callers fall back once the bucket is empty
+                            logger.debug("Skipped prefetch for {}: {}", rule.key(), e.getMessage());
+                        } catch (RuntimeException e) {
+                            logger.warn(
+                                    "Cannot lease rate limit permits for {}: {}",
+                                    rule.key(),
+                                    e.getMessage());
+                        } finally {
+                            bucket.endLease(lease);
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            bucket.endLease(lease);
+        }
+    }
+
+    private long leaseSize(RateLimitRule rule) {
+        return Math.max(1L, (long) (rule.permits() * leaseFraction));
+    }
+
+    private static int powerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    /**
+     * Local permits of one key, kept as the batches they were leased in so each expires on its own.
+     */
+    private static final class LocalPermits {
+
+        private static final Batch[] NO_BATCHES = new Batch[0];
+
+        private final int stripes;
+        private final long windowNanos;
+        private final AtomicReference<CompletableFuture<Void>> leasing = new AtomicReference<>();
+        private volatile Batch[] batches = NO_BATCHES;
+        private volatile long exhaustedUntil = System.nanoTime();
+
+        LocalPermits(int stripes, long windowNanos) {
+            this.stripes = stripes;
+            this.windowNanos = windowNanos;
+        }
+
+        /** Takes a permit from the oldest batch whose window has not ended. */
+        boolean tryTake(long now) {
+            for (Batch batch : batches) {
+                if (!batch.isExpired(now) && batch.tryTake()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /** Adds a leased batch; expired and spent batches are dropped at the same time. */
+        synchronized void add(long permits, long now) {
+            if (permits <= 0) {
+                return;
+            }
+            List<Batch> kept = new ArrayList<>(batches.length + 1);
+            for (Batch batch : batches) {
+                if (!batch.isExpired(now) && batch.available() > 0) {
+                    kept.add(batch);
+                }
+            }
+            kept.add(new Batch(stripes, permits, now + windowNanos));
+            batches = kept.toArray(NO_BATCHES);
+        }
+
+        long available(long now) {
+            long sum = 0;
+            for (Batch batch : batches) {
+                if (!batch.isExpired(now)) {
+                    sum += batch.available();
+                }
+            }
+            return sum;
+        }
+
+        boolean isExhausted(long now) {
+            return now - exhaustedUntil < 0;
+        }
+
+        void markExhausted(long now, long backoffNanos) {
+            exhaustedUntil = now + backoffNanos;
+        }
+
+        CompletableFuture<Void> leaseInFlight() {
+            return leasing.get();
+        }
+
+        /**
+         * Registers a lease unless one is already running.
+         *
+         * @return {@code null} if the caller now owns the lease, otherwise the running lease
+         */
+        CompletableFuture<Void> startLease(CompletableFuture<Void> lease) {
+            return leasing.compareAndExchange(null, lease);
+        }
+
+        void endLease(CompletableFuture<Void> lease) {
+            leasing.compareAndSet(lease, null);
+            lease.complete(null);
+        }
+    }
+
+    /** Permits of one lease, striped so concurrent callers rarely contend on one counter. */
+    private static final class Batch {
+
+        private final AtomicLongArray slots;
+        private final int mask;
+        private final long validUntil;
+
+        Batch(int stripes, long permits, long validUntil) {
+            this.slots = new AtomicLongArray(stripes * STRIPE_PADDING);
+            this.mask = stripes - 1;
+            this.validUntil = validUntil;
+            long share = permits / stripes;
+            long extra = permits % stripes;
+            for (int i = 0; i < stripes; i++) {
+                slots.set(i * STRIPE_PADDING, share + (i < extra ? 1 : 0));
+            }
+        }
+
+        boolean isExpired(long now) {
+            return now - validUntil > 0;
+        }
+
+        boolean tryTake() {
+            int start = (int) Thread.currentThread().threadId() & mask;
+            for (int i = 0; i <= mask; i++) {
+                int index = ((start + i) & mask) * STRIPE_PADDING;
+                long current;
+                while ((current = slots.get(index)) > 0) {
+                    if (slots.compareAndSet(index, current, current - 1)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        long available() {
+            long sum = 0;
+            for (int i = 0; i <= mask; i++) {
+                sum += slots.get(i * STRIPE_PADDING);
+            }
+            return sum;
+        }
+    }
+
+    /** Drops a key's bucket once it has been idle for two of its windows. */
+    private static final class IdleForTwoWindows implements Expiry<String, LocalPermits> {
+
+        @Override
+        public long expireAfterCreate(String key, LocalPermits value, long currentTime) {
+            return 2 * value.windowNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(
+                String key, LocalPermits value, long currentTime, long currentDuration) {
+            return 2 * value.windowNanos;
+        }
+
+        @Override
+        public long expireAfterRead(
+                String key, LocalPermits value, long currentTime, long currentDuration) {
+            return 2 * value.windowNanos;
+        }
+    }
+}
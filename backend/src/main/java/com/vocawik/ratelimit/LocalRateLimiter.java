@@ -0,0 +1,107 @@
+package com.vocawik.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process token buckets admitting a share of each limit, used while Redis is unavailable.
+ *
+ * <p>Each bucket holds {@code fraction} of the rule's permits and refills them over its window, so
+ * with {@code 1 / fraction} instances the cluster admits about the configured limit. Decisions
+ * report the local limit, which is what the caller is actually held to.
+ */
+final class LocalRateLimiter implements RateLimiter {
+
+    private static final Duration IDLE_EXPIRY = Duration.ofMinutes(10);
+
+    private final double fraction;
+    private final LongSupplier nanoTime;
+    private final Cache<String, Bucket> buckets;
+
+    LocalRateLimiter(double fraction, long maximumKeys, LongSupplier nanoTime) {
+        if (fraction <= 0 || fraction > 1) {
+            throw new IllegalArgumentException("local fraction must be in (0, 1]");
+        }
+        this.fraction = fraction;
+        this.nanoTime = nanoTime;
+        this.buckets =
+                Caffeine.newBuilder()
+                        .maximumSize(maximumKeys)
+                        .expireAfterAccess(IDLE_EXPIRY)
+                        .build();
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(RateLimitRule rule) {
+        return bucket(rule).tryTake(nanoTime.getAsLong());
+    }
+
+    @Override
+    public RateLimitDecision tryAcquireAll(List<RateLimitRule> rules) {
+        long now = nanoTime.getAsLong();
+        List<Bucket> taken = new ArrayList<>(rules.size());
+        RateLimitDecision tightest = null;
+        for (RateLimitRule rule : rules) {
+            Bucket bucket = bucket(rule);
+            RateLimitDecision decision = bucket.tryTake(now);
+            if (!decision.allowed()) {
+                taken.forEach(Bucket::giveBack);
+                return decision;
+            }
+            taken.add(bucket);
+            if (tightest == null || decision.remaining() < tightest.remaining()) {
+                tightest = decision;
+            }
+        }
+        return tightest;
+    }
+
+    private Bucket bucket(RateLimitRule rule) {
+        return buckets.get(
+                rule.key(),
+                key ->
+                        new Bucket(
+                                Math.max(1L, (long) (rule.permits() * fraction)),
+                                rule.window().toNanos(),
+                                nanoTime.getAsLong()));
+    }
+
+    /** Token bucket refilling its capacity once per window. */
+    private static final class Bucket {
+
+        private final long capacity;
+        private final double nanosPerToken;
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(long capacity, long windowNanos, long now) {
+            this.capacity = capacity;
+            this.nanosPerToken = (double) windowNanos / capacity;
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        synchronized RateLimitDecision tryTake(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) / nanosPerToken);
+            refilledAt = now;
+            if (tokens < 1) {
+                Duration retryAfter = Duration.ofNanos((long) ((1 - tokens) * nanosPerToken));
+                return RateLimitDecision.rejected(capacity, untilFull(), retryAfter);
+            }
+            tokens -= 1;
+            return RateLimitDecision.allowed(capacity, (long) tokens, untilFull());
+        }
+
+        synchronized void giveBack() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+
+        private Duration untilFull() {
+            return Duration.ofNanos((long) ((capacity - tokens) * nanosPerToken));
+        }
+    }
+}
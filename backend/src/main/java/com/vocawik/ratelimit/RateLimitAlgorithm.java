@@ -0,0 +1,20 @@
+package com.vocawik.ratelimit;
+
+/** Algorithm a rate limit is evaluated with. */
+public enum RateLimitAlgorithm {
+
+    /**
+     * Redisson token bucket, served from permits leased to each instance. Cheapest per call, but
+     * the remaining quota is not known locally, so responses only report the limit.
+     */
+    TOKEN_BUCKET,
+
+    /** Generic cell rate algorithm: evenly spaced permits with a burst of the whole limit. */
+    GCRA,
+
+    /** Current fixed window plus the previous one weighted by how much of it still overlaps. */
+    SLIDING_WINDOW,
+
+    /** Counter reset at the end of each window, which starts with the window's first call. */
+    FIXED_WINDOW
+}
@@ -0,0 +1,74 @@
+package com.vocawik.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a rate limit check, with what the client may be told about its quota.
+ *
+ * @param allowed whether the call may proceed
+ * @param limit permits per window
+ * @param remaining permits left after this call, or {@link #UNKNOWN}
+ * @param resetAfter time until the quota is fully available again
+ * @param retryAfter time until a rejected call may be retried, zero when allowed
+ */
+public record RateLimitDecision(
+        boolean allowed, long limit, long remaining, Duration resetAfter, Duration retryAfter) {
+
+    /** Remaining quota that is not known to this instance. */
+    public static final long UNKNOWN = -1;
+
+    /**
+     * Creates an allowed decision.
+     *
+     * @param limit permits per window
+     * @param remaining permits left after this call, or {@link #UNKNOWN}
+     * @param resetAfter time until the quota is fully available again
+     * @return allowed decision
+     */
+    public static RateLimitDecision allowed(long limit, long remaining, Duration resetAfter) {
+        return new RateLimitDecision(true, limit, remaining, resetAfter, Duration.ZERO);
+    }
+
+    /**
+     * Creates a rejected decision.
+     *
+     * @param limit permits per window
+     * @param resetAfter time until the quota is fully available again
+     * @param retryAfter time until the call may be retried
+     * @return rejected decision
+     */
+    public static RateLimitDecision rejected(long limit, Duration resetAfter, Duration retryAfter) {
+        return new RateLimitDecision(false, limit, 0, resetAfter, retryAfter);
+    }
+
+    /**
+     * Returns whether the remaining quota is known.
+     *
+     * @return {@code true} unless the remaining quota is {@link #UNKNOWN}
+     */
+    public boolean hasRemaining() {
+        return remaining != UNKNOWN;
+    }
+
+    /**
+     * Returns the reset time in whole seconds, rounded up.
+     *
+     * @return seconds until the quota is fully available again
+     */
+    public long resetSeconds() {
+        return ceilSeconds(resetAfter);
+    }
+
+    /**
+     * Returns the retry delay in whole seconds, rounded up.
+     *
+     * @return seconds until a rejected call may be retried
+     */
+    public long retryAfterSeconds() {
+        return ceilSeconds(retryAfter);
+    }
+
+    private static long ceilSeconds(Duration duration) {
+        return (duration.toMillis() + 999) / 1000;
+    }
+}
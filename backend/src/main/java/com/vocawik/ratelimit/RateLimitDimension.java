@@ -0,0 +1,72 @@
+package com.vocawik.ratelimit;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/** What a quota counts calls by, on top of the endpoint it is declared on. */
+public enum RateLimitDimension {
+
+    /** Each authenticated user; not applied to anonymous calls. */
+    USER,
+
+    /** Each client IP. */
+    IP,
+
+    /** Each client network: the /24 of an IPv4 address or the /64 of an IPv6 address. */
+    SUBNET,
+
+    /** All callers of the endpoint together. */
+    ENDPOINT;
+
+    private static final int IPV4_SUBNET_BYTES = 3;
+    private static final int IPV6_SUBNET_BYTES = 8;
+
+    /**
+     * Returns the part of the limiter key naming the caller group this dimension counts.
+     *
+     * @param clientIp resolved client IP
+     * @param user authenticated user, or {@code null} for anonymous calls
+     * @return key qualifier, or {@code null} if the dimension does not apply to the call
+     */
+    String qualifier(String clientIp, String user) {
+        return switch (this) {
+            case USER -> user == null ? null : "user:" + user;
+            case IP -> "ip:" + clientIp;
+            case SUBNET -> "subnet:" + subnet(clientIp);
+            case ENDPOINT -> "all";
+        };
+    }
+
+    /**
+     * Returns the network of an IP literal in CIDR notation.
+     *
+     * @param clientIp resolved client IP
+     * @return network such as {@code 203.0.113.0/24}, or the value itself if it is not an IP
+     */
+    static String subnet(String clientIp) {
+        if (clientIp == null || clientIp.isEmpty() || !isAddressLiteral(clientIp)) {
+            return String.valueOf(clientIp);
+        }
+        try {
+            byte[] address = InetAddress.getByName(clientIp).getAddress();
+            int kept = address.length == 4 ? IPV4_SUBNET_BYTES : IPV6_SUBNET_BYTES;
+            for (int i = kept; i < address.length; i++) {
+                address[i] = 0;
+            }
+            return InetAddress.getByAddress(address).getHostAddress() + "/" + kept * 8;
+        } catch (UnknownHostException e) {
+            return clientIp;
+        }
+    }
+
+    /** Only hex digits, dots and colons, so resolving it can never trigger a DNS lookup. */
+    private static boolean isAddressLiteral(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.digit(c, 16) < 0 && c != '.' && c != ':') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
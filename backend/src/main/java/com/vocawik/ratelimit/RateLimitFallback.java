@@ -0,0 +1,14 @@
+package com.vocawik.ratelimit;
+
+/** How rate-limited calls are decided while Redis is unavailable. */
+public enum RateLimitFallback {
+
+    /** Admit every call: availability over enforcement. */
+    FAIL_OPEN,
+
+    /** Reject every call until Redis answers again. */
+    FAIL_CLOSED,
+
+    /** Enforce a share of each limit in process, so instances together stay near the limit. */
+    LOCAL
+}
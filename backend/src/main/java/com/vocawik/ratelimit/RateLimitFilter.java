@@ -0,0 +1,139 @@
+package com.vocawik.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vocawik.aop.RateLimit;
+import com.vocawik.ratelimit.RateLimitRouteIndex.RateLimitedRoute;
+import com.vocawik.web.ClientIpResolver;
+import com.vocawik.web.RequestTimings;
+import com.vocawik.web.error.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Enforces {@link RateLimit} for anonymous requests before any authentication work.
+ *
+ * <p>Runs ahead of the guest and JWT filters, so an over-limit anonymous caller is rejected before
+ * a guest is looked up or created. The limit is keyed by client IP and the matched route template
+ * from {@link RateLimitRouteIndex}, so path variables do not create a limiter key per value.
+ *
+ * <p>Requests carrying an {@code Authorization} header are left to {@link
+ * com.vocawik.aop.RateLimitAspect}, which limits them per user once the token is verified.
+ * Requests checked here are marked with {@link #ENFORCED_ATTRIBUTE} so the aspect does not count
+ * them twice.
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    /** Request attribute set when this filter has applied the request's rate limit. */
+    public static final String ENFORCED_ATTRIBUTE = RateLimitFilter.class.getName() + ".ENFORCED";
+
+    private static final String AUTHORIZATION_HEADER = "Authorization";
+
+    private final RateLimitRouteIndex routeIndex;
+    private final RateLimiter rateLimiter;
+    private final ClientIpResolver clientIpResolver;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Creates a rate-limit filter.
+     *
+     * @param routeIndex index of route templates and their limits
+     * @param rateLimiter limiter deciding each call against the cluster-wide limit
+     * @param clientIpResolver client IP resolver with trusted proxy policy
+     * @param objectMapper base mapper used to serialize {@link ErrorResponse}
+     */
+    public RateLimitFilter(
+            RateLimitRouteIndex routeIndex,
+            RateLimiter rateLimiter,
+            ClientIpResolver clientIpResolver,
+            ObjectMapper objectMapper) {
+        this.routeIndex = routeIndex;
+        this.rateLimiter = rateLimiter;
+        this.clientIpResolver = clientIpResolver;
+        this.objectMapper = objectMapper.copy();
+    }
+
+    /**
+     * Rejects an anonymous request to a rate-limited route with 429 once its IP is over the limit,
+     * and reports the quota left in {@code RateLimit-*} response headers.
+     *
+     * @param request HTTP request
+     * @param response HTTP response
+     * @param filterChain filter chain
+     * @throws ServletException if a servlet exception occurs
+     * @throws IOException if an I/O exception occurs
+     */
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (StringUtils.hasText(request.getHeader(AUTHORIZATION_HEADER))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        Optional<RateLimitedRoute> route = routeIndex.match(request);
+        if (route.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RateLimit rateLimit = route.get().rateLimit();
+        String endpoint = request.getMethod() + ":" + route.get().template();
+        String clientIp = clientIpResolver.resolve(request);
+        // same key RateLimitAspect builds for anonymous callers
+        String key = "rate_limit:" + endpoint + ":ip:" + clientIp + ":anon";
+        request.setAttribute(ENFORCED_ATTRIBUTE, Boolean.TRUE);
+
+        RateLimitRule rule =
+                new RateLimitRule(
+                        key,
+                        rateLimit.requests(),
+                        Duration.ofSeconds(rateLimit.seconds()),
+                        rateLimit.algorithm());
+        RateLimitDecision decision =
+                rateLimit.quotas().length == 0
+                        ? rateLimiter.tryAcquire(rule)
+                        : rateLimiter.tryAcquireAll(
+                                RateLimitQuotas.withCaller(
+                                        rule, rateLimit.quotas(), endpoint, clientIp, null));
+        RateLimitHeaders.apply(response, decision);
+        RequestTimings.record(request, RequestTimings.Phase.RATE_LIMIT, startedAt);
+        if (!decision.allowed()) {
+            logger.warn("Rate limit exceeded: {}", key);
+            writeTooManyRequests(response, decision);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private void writeTooManyRequests(HttpServletResponse response, RateLimitDecision decision)
+            throws IOException {
+        HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(
+                response.getWriter(),
+                ErrorResponse.of(
+                        status,
+                        "Too many requests. Please try again in "
+                                + decision.retryAfterSeconds()
+                                + " seconds."));
+    }
+}
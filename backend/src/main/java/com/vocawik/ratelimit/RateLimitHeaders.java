@@ -0,0 +1,73 @@
+package com.vocawik.ratelimit;
+
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.function.BiConsumer;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * {@code RateLimit-*} response headers (IETF RateLimit header fields draft) and {@code
+ * Retry-After}, so clients can pace themselves instead of retrying blindly.
+ */
+public final class RateLimitHeaders {
+
+    /** Permits per window. */
+    public static final String LIMIT = "RateLimit-Limit";
+
+    /** Permits left in the current window. */
+    public static final String REMAINING = "RateLimit-Remaining";
+
+    /** Seconds until the quota is fully available again. */
+    public static final String RESET = "RateLimit-Reset";
+
+    private RateLimitHeaders() {}
+
+    /**
+     * Writes the headers of a decision to a response.
+     *
+     * @param response HTTP response
+     * @param decision rate limit decision
+     */
+    public static void apply(HttpServletResponse response, RateLimitDecision decision) {
+        write(
+                decision.allowed(),
+                decision.limit(),
+                decision.remaining(),
+                decision.resetSeconds(),
+                decision.retryAfterSeconds(),
+                response::setHeader);
+    }
+
+    /**
+     * Builds the headers of a rejected call.
+     *
+     * @param limit permits per window, or a negative value if unknown
+     * @param resetSeconds seconds until the quota is fully available again
+     * @param retryAfterSeconds seconds until the call may be retried
+     * @return response headers
+     */
+    public static HttpHeaders rejected(long limit, long resetSeconds, long retryAfterSeconds) {
+        HttpHeaders headers = new HttpHeaders();
+        write(false, limit, 0, resetSeconds, retryAfterSeconds, headers::set);
+        return headers;
+    }
+
+    private static void write(
+            boolean allowed,
+            long limit,
+            long remaining,
+            long resetSeconds,
+            long retryAfterSeconds,
+            BiConsumer<String, String> setter) {
+        if (limit < 0) {
+            return;
+        }
+        setter.accept(LIMIT, Long.toString(limit));
+        if (remaining != RateLimitDecision.UNKNOWN) {
+            setter.accept(REMAINING, Long.toString(remaining));
+            setter.accept(RESET, Long.toString(resetSeconds));
+        }
+        if (!allowed) {
+            setter.accept(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.vocawik.ratelimit;
+
+import com.vocawik.aop.RateLimit;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Builds the rules checked together when a {@link RateLimit} declares additional quotas. */
+public final class RateLimitQuotas {
+
+    private RateLimitQuotas() {}
+
+    /**
+     * Builds the caller's rule followed by one rule per quota that applies to the call.
+     *
+     * <p>All rules are evaluated with {@link RateLimitAlgorithm#GCRA}, the algorithm {@link
+     * RateLimiter#tryAcquireAll} checks them with. Quotas on {@link RateLimitDimension#USER} are
+     * skipped for anonymous calls.
+     *
+     * @param caller rule limiting the caller, as built from {@link RateLimit#requests()}
+     * @param quotas quotas declared on the endpoint
+     * @param endpoint HTTP method and route template, e.g. {@code GET:/api/v1/words/{id}}
+     * @param clientIp resolved client IP
+     * @param user authenticated user, or {@code null} for anonymous calls
+     * @return rules to take a permit from together, the caller's first
+     */
+    public static List<RateLimitRule> withCaller(
+            RateLimitRule caller,
+            RateLimit.Quota[] quotas,
+            String endpoint,
+            String clientIp,
+            String user) {
+        List<RateLimitRule> rules = new ArrayList<>(quotas.length + 1);
+        rules.add(
+                new RateLimitRule(
+                        caller.key(), caller.permits(), caller.window(), RateLimitAlgorithm.GCRA));
+        for (RateLimit.Quota quota : quotas) {
+            String qualifier = quota.dimension().qualifier(clientIp, user);
+            if (qualifier == null) {
+                continue;
+            }
+            rules.add(
+                    new RateLimitRule(
+                            "rate_limit:" + endpoint + ":" + qualifier,
+                            quota.requests(),
+                            Duration.ofSeconds(quota.seconds()),
+                            RateLimitAlgorithm.GCRA));
+        }
+        return List.copyOf(rules);
+    }
+}
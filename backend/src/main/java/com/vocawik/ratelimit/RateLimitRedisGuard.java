@@ -0,0 +1,184 @@
+package com.vocawik.ratelimit;
+
+import com.vocawik.common.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Latency budget and circuit breaker for the Redis calls behind rate limit decisions.
+ *
+ * <p>Calls are issued asynchronously and waited for at most {@code timeout-ms}, so a slow Redis
+ * costs a rate-limited request at most the budget instead of Redisson's response timeout. A call
+ * that times out may still be applied on Redis; the permit it took is then lost, which errs on the
+ * safe side. Timeouts and errors feed a {@link CircuitBreaker}; while it is open calls fail at once
+ * and {@link FallbackRateLimiter} decides with its fallback policy instead.
+ */
+@Slf4j
+@Component
+public class RateLimitRedisGuard {
+
+    private final long timeoutNanos;
+    private final Duration openDuration;
+    private final CircuitBreaker circuitBreaker;
+    private final AtomicReference<CircuitBreaker.State> observedState =
+            new AtomicReference<>(CircuitBreaker.State.CLOSED);
+    private final Map<CircuitBreaker.State, Counter> transitions =
+            new EnumMap<>(CircuitBreaker.State.class);
+    private final Counter circuitOpenRejections;
+    private final Timer successes;
+    private final Timer errors;
+    private final Timer timeouts;
+
+    /**
+     * Creates a Redis guard.
+     *
+     * @param meterRegistry registry for latency and circuit breaker metrics
+     * @param timeoutMs latency budget of one Redis call
+     * @param windowSize calls the circuit breaker failure rate is computed over
+     * @param minimumCalls calls needed before the circuit breaker may open
+     * @param failureRateThreshold failure rate (percent) that opens the circuit breaker
+     * @param openDurationMs how long the circuit breaker stays open
+     */
+    public RateLimitRedisGuard(
+            MeterRegistry meterRegistry,
+            @Value("${ratelimit.redis.timeout-ms:20}") long timeoutMs,
+            @Value("${ratelimit.redis.circuit-breaker.window-size:50}") int windowSize,
+            @Value("${ratelimit.redis.circuit-breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${ratelimit.redis.circuit-breaker.failure-rate-threshold:50}")
+                    int failureRateThreshold,
+            @Value("${ratelimit.redis.circuit-breaker.open-duration-ms:5000}")
+                    long openDurationMs) {
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        this.openDuration = Duration.ofMillis(openDurationMs);
+        this.circuitBreaker =
+                new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, openDuration);
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            transitions.put(
+                    state,
+                    Counter.builder("ratelimit.redis.circuit.transitions")
+                            .description("Rate limit circuit breaker state changes")
+                            .tag("to", state.name().toLowerCase(Locale.ROOT))
+                            .register(meterRegistry));
+        }
+        this.circuitOpenRejections =
+                Counter.builder("ratelimit.redis.rejected")
+                        .description("Rate limit Redis calls rejected by the open circuit breaker")
+                        .register(meterRegistry);
+        this.successes = latencyTimer(meterRegistry, "success");
+        this.errors = latencyTimer(meterRegistry, "error");
+        this.timeouts = latencyTimer(meterRegistry, "timeout");
+        Gauge.builder("ratelimit.redis.circuit.state", circuitBreaker, b -> b.state().ordinal())
+                .description("Rate limit circuit breaker state (0 closed, 1 half-open, 2 open)")
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Issues a Redis call and waits for its result within the latency budget.
+     *
+     * @param call starts the call and returns its pending result
+     * @param <T> result type
+     * @return result of the call
+     * @throws RateLimiterUnavailableException if the breaker is open, or the call fails or does not
+     *     complete within the budget
+     */
+    public <T> T await(Supplier<? extends CompletionStage<T>> call) {
+        boolean permitted = circuitBreaker.tryAcquirePermission();
+        observeState();
+        if (!permitted) {
+            circuitOpenRejections.increment();
+            throw new RateLimiterUnavailableException("Rate limit circuit breaker is open");
+        }
+
+        long startedAt = System.nanoTime();
+        Timer outcome = errors;
+        try {
+            T result = call.get().toCompletableFuture().get(timeoutNanos, TimeUnit.NANOSECONDS);
+            outcome = successes;
+            return result;
+        } catch (TimeoutException e) {
+            outcome = timeouts;
+            throw new RateLimiterUnavailableException(
+                    "Redis did not answer within " + timeout().toMillis() + " ms", e);
+        } catch (ExecutionException e) {
+            throw new RateLimiterUnavailableException(
+                    "Redis call failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RateLimiterUnavailableException("Interrupted while waiting for Redis", e);
+        } catch (RuntimeException e) {
+            throw new RateLimiterUnavailableException("Redis call failed: " + e.getMessage(), e);
+        } finally {
+            if (outcome == successes) {
+                circuitBreaker.onSuccess();
+            } else {
+                circuitBreaker.onFailure();
+            }
+            outcome.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            observeState();
+        }
+    }
+
+    /**
+     * Returns the circuit breaker state.
+     *
+     * @return breaker state
+     */
+    public CircuitBreaker.State state() {
+        return circuitBreaker.state();
+    }
+
+    /**
+     * Returns the latency budget of one Redis call.
+     *
+     * @return latency budget
+     */
+    public Duration timeout() {
+        return Duration.ofNanos(timeoutNanos);
+    }
+
+    /**
+     * Returns how long the breaker stays open before Redis is tried again.
+     *
+     * @return open duration
+     */
+    public Duration openDuration() {
+        return openDuration;
+    }
+
+    /** Logs and counts a state change of the breaker. */
+    private void observeState() {
+        CircuitBreaker.State current = circuitBreaker.state();
+        CircuitBreaker.State previous = observedState.getAndSet(current);
+        if (previous != current) {
+            transitions.get(current).increment();
+            if (current == CircuitBreaker.State.CLOSED) {
+                logger.info("Rate limit circuit breaker closed, Redis decisions resumed");
+            } else {
+                logger.warn("Rate limit circuit breaker is {}", current);
+            }
+        }
+    }
+
+    private static Timer latencyTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("ratelimit.redis.request")
+                .description("Latency of Redis calls behind rate limit decisions")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,153 @@
+package com.vocawik.ratelimit;
+
+import com.vocawik.aop.ConcurrencyLimit;
+import com.vocawik.aop.RateLimit;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Route templates of all request mappings with their {@link RateLimit} and {@link
+ * ConcurrencyLimit}, indexed once at startup.
+ *
+ * <p>Lets {@link RateLimitFilter} and {@link ConcurrencyLimitFilter} find the limits of a request
+ * before it reaches the dispatcher. Every mapping is indexed, not only limited ones, so a request
+ * is attributed to the most specific route the way Spring MVC would pick it (e.g. {@code
+ * /words/new} rather than {@code /words/{id}}). Matching considers the path and HTTP method only.
+ */
+@Slf4j
+@Component
+public class RateLimitRouteIndex implements SmartInitializingSingleton {
+
+    @SuppressFBWarnings(
+            value = "EI_EXPOSE_REP2",
+            justification =
+                    "RequestMappingHandlerMapping is managed by Spring and not exposed externally.")
+    private final RequestMappingHandlerMapping requestMappingHandlerMapping;
+
+    private volatile List<Route> routes = List.of();
+
+    /**
+     * Creates a route index.
+     *
+     * @param requestMappingHandlerMapping handler mapping holding the application's routes
+     */
+    public RateLimitRouteIndex(RequestMappingHandlerMapping requestMappingHandlerMapping) {
+        this.requestMappingHandlerMapping = requestMappingHandlerMapping;
+    }
+
+    /** Indexes the routes once all handler mappings are registered. */
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<Route> indexed = new ArrayList<>();
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry :
+                requestMappingHandlerMapping.getHandlerMethods().entrySet()) {
+            RequestMappingInfo info = entry.getKey();
+            RateLimit rateLimit = entry.getValue().getMethodAnnotation(RateLimit.class);
+            ConcurrencyLimit concurrencyLimit =
+                    entry.getValue().getMethodAnnotation(ConcurrencyLimit.class);
+            Set<RequestMethod> methods = info.getMethodsCondition().getMethods();
+            for (String template : info.getPatternValues()) {
+                indexed.add(
+                        new Route(
+                                PathPatternParser.defaultInstance.parse(template),
+                                template,
+                                methods,
+                                rateLimit,
+                                concurrencyLimit));
+            }
+        }
+        indexed.sort(
+                Comparator.comparing(Route::pattern, PathPattern.SPECIFICITY_COMPARATOR)
+                        .thenComparing(route -> route.methods().isEmpty()));
+        routes = List.copyOf(indexed);
+        logger.info(
+                "Indexed {} routes, {} rate limited",
+                indexed.size(),
+                indexed.stream().filter(route -> route.rateLimit() != null).count());
+    }
+
+    /**
+     * Finds the rate-limited route a request would be dispatched to.
+     *
+     * @param request current HTTP request
+     * @return matched route template and its limit, or empty if the route is not rate limited
+     */
+    public Optional<RateLimitedRoute> match(HttpServletRequest request) {
+        return find(request)
+                .filter(route -> route.rateLimit() != null)
+                .map(route -> new RateLimitedRoute(route.template(), route.rateLimit()));
+    }
+
+    /**
+     * Finds the concurrency-limited route a request would be dispatched to.
+     *
+     * @param request current HTTP request
+     * @return matched route template and its limit, or empty if the route has no such limit
+     */
+    public Optional<ConcurrencyLimitedRoute> matchConcurrencyLimit(HttpServletRequest request) {
+        return find(request)
+                .filter(route -> route.concurrencyLimit() != null)
+                .map(
+                        route ->
+                                new ConcurrencyLimitedRoute(
+                                        route.template(), route.concurrencyLimit()));
+    }
+
+    private Optional<Route> find(HttpServletRequest request) {
+        PathContainer path =
+                RequestPath.parse(request.getRequestURI(), request.getContextPath())
+                        .pathWithinApplication();
+        for (Route route : routes) {
+            if (route.matches(request.getMethod(), path)) {
+                return Optional.of(route);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Route a request matched, with its limit.
+     *
+     * @param template route template, e.g. {@code /api/v1/words/{id}}
+     * @param rateLimit limit declared on the handler method
+     */
+    public record RateLimitedRoute(String template, RateLimit rateLimit) {}
+
+    /**
+     * Route a request matched, with its concurrency limit.
+     *
+     * @param template route template, e.g. {@code /api/v1/words/{id}}
+     * @param concurrencyLimit limit declared on the handler method
+     */
+    public record ConcurrencyLimitedRoute(String template, ConcurrencyLimit concurrencyLimit) {}
+
+    private record Route(
+            PathPattern pattern,
+            String template,
+            Set<RequestMethod> methods,
+            RateLimit rateLimit,
+            ConcurrencyLimit concurrencyLimit) {
+
+        boolean matches(String method, PathContainer path) {
+            return (methods.isEmpty() || methods.stream().anyMatch(m -> m.name().equals(method)))
+                    && pattern.matches(path);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.vocawik.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Limit applied to one rate-limit key.
+ *
+ * @param key limiter key identifying the endpoint and the caller
+ * @param permits permits allowed per window across all instances
+ * @param window window length
+ * @param algorithm algorithm the limit is evaluated with
+ */
+public record RateLimitRule(
+        String key, long permits, Duration window, RateLimitAlgorithm algorithm) {
+
+    /**
+     * Creates a token-bucket rule.
+     *
+     * @param key limiter key identifying the endpoint and the caller
+     * @param permits permits allowed per window across all instances
+     * @param window window length
+     */
+    public RateLimitRule(String key, long permits, Duration window) {
+        this(key, permits, window, RateLimitAlgorithm.TOKEN_BUCKET);
+    }
+}
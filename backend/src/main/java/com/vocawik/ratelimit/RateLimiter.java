@@ -0,0 +1,25 @@
+package com.vocawik.ratelimit;
+
+import java.util.List;
+
+/** Decides whether a call may proceed under a rate limit. */
+public interface RateLimiter {
+
+    /**
+     * Takes one permit for a rule.
+     *
+     * @param rule rate limit rule
+     * @return decision, with the quota left to the caller
+     */
+    RateLimitDecision tryAcquire(RateLimitRule rule);
+
+    /**
+     * Takes one permit from every rule, or from none of them if any rule is spent.
+     *
+     * <p>The rules are evaluated with {@link RateLimitAlgorithm#GCRA} whatever their algorithm.
+     *
+     * @param rules rules to take a permit from together
+     * @return decision of the rule that rejected the call, or of the one with the least left
+     */
+    RateLimitDecision tryAcquireAll(List<RateLimitRule> rules);
+}
@@ -0,0 +1,48 @@
+package com.vocawik.ratelimit;
+
+import com.vocawik.common.resilience.CircuitBreaker;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health details of rate limiting.
+ *
+ * <p>Always up, since requests are still decided while Redis is unavailable, but reports whether
+ * decisions currently come from Redis or from the fallback policy.
+ */
+@Component
+public class RateLimiterHealthIndicator implements HealthIndicator {
+
+    private final RateLimitRedisGuard guard;
+    private final FallbackRateLimiter fallbackRateLimiter;
+
+    /**
+     * Creates a rate limiter health indicator.
+     *
+     * @param guard guard holding the Redis circuit breaker
+     * @param fallbackRateLimiter limiter applying the fallback policy
+     */
+    public RateLimiterHealthIndicator(
+            RateLimitRedisGuard guard, FallbackRateLimiter fallbackRateLimiter) {
+        this.guard = guard;
+        this.fallbackRateLimiter = fallbackRateLimiter;
+    }
+
+    /**
+     * Reports the decision mode, circuit breaker state and fallback policy.
+     *
+     * @return {@link Health#up()} with rate limiting details
+     */
+    @Override
+    public Health health() {
+        CircuitBreaker.State state = guard.state();
+        return Health.up()
+                .withDetail("mode", state == CircuitBreaker.State.CLOSED ? "redis" : "fallback")
+                .withDetail("circuitBreaker", state)
+                .withDetail("fallbackPolicy", fallbackRateLimiter.policy())
+                .withDetail("fallbackDecisions", fallbackRateLimiter.fallbackDecisions())
+                .withDetail("timeoutMs", guard.timeout().toMillis())
+                .build();
+    }
+}
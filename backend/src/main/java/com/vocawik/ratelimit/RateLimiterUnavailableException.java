@@ -0,0 +1,27 @@
+package com.vocawik.ratelimit;
+
+/**
+ * Thrown when the shared rate limit state cannot be reached within the latency budget, or the
+ * circuit breaker in front of it is open.
+ */
+public class RateLimiterUnavailableException extends RuntimeException {
+
+    /**
+     * Creates an exception.
+     *
+     * @param message reason the limiter is unavailable
+     */
+    public RateLimiterUnavailableException(String message) {
+        super(message);
+    }
+
+    /**
+     * Creates an exception with its cause.
+     *
+     * @param message reason the limiter is unavailable
+     * @param cause underlying failure
+     */
+    public RateLimiterUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,215 @@
+package com.vocawik.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RateType;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cluster-wide quota backed by Redisson rate limiters.
+ *
+ * <p>A lease asks for the whole batch first and falls back to a single permit, so a nearly spent
+ * quota is still handed out one permit at a time instead of being refused to every instance.
+ *
+ * <p>Limiters are registered once per key and remembered locally, so a lease is normally a single
+ * {@code tryAcquire}. Registration also gives the limiter's Redis keys a TTL of two windows and is
+ * repeated at most once per window while the key is in use, so limiters of callers that went away
+ * (one per client IP for anonymous traffic) expire instead of accumulating in Redis.
+ *
+ * <p>Registration and the permit requests of a lease are chained asynchronously and awaited once
+ * through the {@link RateLimitRedisGuard}, so the whole lease fits in one latency budget.
+ */
+@Slf4j
+@Component
+public class RedissonSharedQuota implements SharedQuota {
+
+    /** Pattern matching the configuration key of every rate limiter. */
+    static final String KEY_PATTERN = "rate_limit:*";
+
+    private static final int TTL_WINDOWS = 2;
+    private static final int SCAN_BATCH_SIZE = 1_000;
+
+    private final RedissonClient redissonClient;
+    private final RateLimitRedisGuard guard;
+    private final LongSupplier nanoTime;
+    private final Cache<String, Registration> registrations;
+    private final AtomicLong liveKeys = new AtomicLong(-1);
+
+    /**
+     * Creates a Redisson-backed quota.
+     *
+     * @param redissonClient Redisson client used to resolve distributed rate limiters
+     * @param guard latency budget and circuit breaker for the Redis calls
+     * @param meterRegistry registry for limiter key metrics
+     * @param maximumRegistrations maximum number of keys remembered as registered
+     */
+    @Autowired
+    public RedissonSharedQuota(
+            RedissonClient redissonClient,
+            RateLimitRedisGuard guard,
+            MeterRegistry meterRegistry,
+            @Value("${ratelimit.redis.maximum-registrations:100000}") long maximumRegistrations) {
+        this(redissonClient, guard, meterRegistry, maximumRegistrations, System::nanoTime);
+    }
+
+    RedissonSharedQuota(
+            RedissonClient redissonClient,
+            RateLimitRedisGuard guard,
+            MeterRegistry meterRegistry,
+            long maximumRegistrations,
+            LongSupplier nanoTime) {
+        this.redissonClient = redissonClient;
+        this.guard = guard;
+        this.nanoTime = nanoTime;
+        this.registrations =
+                Caffeine.newBuilder()
+                        .maximumSize(maximumRegistrations)
+                        .expireAfter(new IdleForTtl())
+                        .build();
+        Gauge.builder("ratelimit.registered.keys", registrations, Cache::estimatedSize)
+                .description("Rate limiter keys registered by this instance")
+                .strongReference(true)
+                .register(meterRegistry);
+        Gauge.builder("ratelimit.redis.keys", liveKeys, AtomicLong::get)
+                .description("Rate limiter keys alive in Redis, counted by the last scan")
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public long lease(RateLimitRule rule, long permits) {
+        Registration registration = registration(rule);
+        return guard.await(
+                () ->
+                        registration
+                                .refreshIfDue(rule, nanoTime.getAsLong())
+                                .thenCompose(refreshed -> acquire(registration.limiter, permits)));
+    }
+
+    /** Asks for the whole batch, then for a single permit if the batch is refused. */
+    private static CompletionStage<Long> acquire(RRateLimiter limiter, long permits) {
+        return limiter.tryAcquireAsync(permits)
+                .thenCompose(
+                        granted -> {
+                            if (granted) {
+                                return CompletableFuture.completedFuture(permits);
+                            }
+                            if (permits == 1) {
+                                return CompletableFuture.completedFuture(0L);
+                            }
+                            return limiter.tryAcquireAsync().thenApply(single -> single ? 1L : 0L);
+                        });
+    }
+
+    /** Counts the limiter keys alive in Redis for the {@code ratelimit.redis.keys} gauge. */
+    @Scheduled(fixedDelayString = "${ratelimit.redis.key-count-interval-ms:300000}")
+    public void countLiveKeys() {
+        try {
+            long count = 0;
+            for (String ignored :
+                    redissonClient.getKeys().getKeysByPattern(KEY_PATTERN, SCAN_BATCH_SIZE)) {
+                count++;
+            }
+            liveKeys.set(count);
+        } catch (RedisException e) {
+            logger.warn("Cannot count rate limiter keys: {}", e.getMessage());
+        }
+    }
+
+    /** Returns the key's registration, remembering a new one. */
+    private Registration registration(RateLimitRule rule) {
+        return registrations.get(
+                rule.key(),
+                key ->
+                        new Registration(
+                                redissonClient.getRateLimiter(key), rule.window().toNanos()));
+    }
+
+    /** A limiter this instance has configured, and when its configuration is due again. */
+    private static final class Registration {
+
+        private final RRateLimiter limiter;
+        private final long windowNanos;
+        private volatile CompletionStage<Boolean> refresh;
+        private volatile long refreshAt;
+
+        Registration(RRateLimiter limiter, long windowNanos) {
+            this.limiter = limiter;
+            this.windowNanos = windowNanos;
+        }
+
+        /**
+         * Returns the pending or completed configuration of the limiter, starting a new one once
+         * per window. A failed configuration is forgotten, so the next lease starts it again.
+         */
+        CompletionStage<Boolean> refreshIfDue(RateLimitRule rule, long now) {
+            CompletionStage<Boolean> current = refresh;
+            if (current != null && now - refreshAt < 0) {
+                return current;
+            }
+            synchronized (this) {
+                if (refresh != null && now - refreshAt < 0) {
+                    return refresh;
+                }
+                // no-op when the limiter exists; recreates it if its keys have expired
+                CompletionStage<Boolean> started =
+                        limiter.trySetRateAsync(RateType.OVERALL, rule.permits(), rule.window())
+                                .thenCompose(
+                                        set ->
+                                                limiter.expireAsync(
+                                                        rule.window()
+                                                                .multipliedBy(TTL_WINDOWS)));
+                refresh = started;
+                refreshAt = now + windowNanos;
+                started.whenComplete(
+                        (expired, error) -> {
+                            if (error != null) {
+                                forget(started);
+                            }
+                        });
+                return started;
+            }
+        }
+
+        private synchronized void forget(CompletionStage<Boolean> failed) {
+            if (refresh == failed) {
+                refresh = null;
+            }
+        }
+    }
+
+    /** Forgets a registration once it has been idle for as long as its Redis keys live. */
+    private static final class IdleForTtl implements Expiry<String, Registration> {
+
+        @Override
+        public long expireAfterCreate(String key, Registration value, long currentTime) {
+            return TTL_WINDOWS * value.windowNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(
+                String key, Registration value, long currentTime, long currentDuration) {
+            return TTL_WINDOWS * value.windowNanos;
+        }
+
+        @Override
+        public long expireAfterRead(
+                String key, Registration value, long currentTime, long currentDuration) {
+            return TTL_WINDOWS * value.windowNanos;
+        }
+    }
+}
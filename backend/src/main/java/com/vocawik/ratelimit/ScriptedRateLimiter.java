@@ -0,0 +1,192 @@
+package com.vocawik.ratelimit;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evaluates GCRA, sliding-window and fixed-window limits as one Lua script per call.
+ *
+ * <p>Each script checks and consumes the quota atomically on the Redis server, reading the clock
+ * from Redis so instances with skewed clocks agree, and returns the remaining quota and reset time
+ * for the response headers. Scripts are loaded once and invoked by SHA; they are loaded again if
+ * Redis has lost them (e.g. after a restart or failover), all within one call awaited through the
+ * {@link RateLimitRedisGuard}. Every key expires with its window.
+ *
+ * <p>Several rules can be checked at once with GCRA: the script takes a permit from every rule only
+ * if all of them allow the call, so a rejected call never uses up another rule's quota.
+ */
+@Slf4j
+@Component
+public class ScriptedRateLimiter {
+
+    private static final String ALL_SCRIPT = "gcra_all";
+
+    private final RScript script;
+    private final RateLimitRedisGuard guard;
+    private final Map<String, String> sources;
+    private final Map<String, String> shas = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a scripted rate limiter.
+     *
+     * @param redissonClient Redisson client used to run the limiter scripts
+     * @param guard latency budget and circuit breaker for the Redis calls
+     */
+    public ScriptedRateLimiter(RedissonClient redissonClient, RateLimitRedisGuard guard) {
+        this.script = redissonClient.getScript(StringCodec.INSTANCE);
+        this.guard = guard;
+        this.sources =
+                Map.of(
+                        scriptName(RateLimitAlgorithm.GCRA), load("gcra"),
+                        scriptName(RateLimitAlgorithm.SLIDING_WINDOW), load("sliding_window"),
+                        scriptName(RateLimitAlgorithm.FIXED_WINDOW), load("fixed_window"),
+                        ALL_SCRIPT, load(ALL_SCRIPT));
+    }
+
+    /**
+     * Takes one permit for a rule with its algorithm's script.
+     *
+     * @param rule rate limit rule using a scripted algorithm
+     * @return decision with the remaining quota and reset time
+     */
+    public RateLimitDecision tryAcquire(RateLimitRule rule) {
+        String name = scriptName(rule.algorithm());
+        if (!sources.containsKey(name)) {
+            throw new IllegalArgumentException(
+                    "No script for rate limit algorithm " + rule.algorithm());
+        }
+        List<Object> result =
+                eval(
+                        name,
+                        List.<Object>of(key(rule, rule.algorithm())),
+                        Long.toString(rule.permits()),
+                        Long.toString(rule.window().toMillis()));
+
+        long limit = rule.permits();
+        Duration resetAfter = Duration.ofMillis(toLong(result.get(2)));
+        if (toLong(result.get(0)) == 1L) {
+            return RateLimitDecision.allowed(limit, toLong(result.get(1)), resetAfter);
+        }
+        return RateLimitDecision.rejected(
+                limit, resetAfter, Duration.ofMillis(toLong(result.get(3))));
+    }
+
+    /**
+     * Takes one permit from every rule with GCRA, or from none of them if any rule is spent.
+     *
+     * @param rules rules to take a permit from together
+     * @return decision of the rule that rejected the call, or of the one with the least left
+     */
+    public RateLimitDecision tryAcquireAll(List<RateLimitRule> rules) {
+        if (rules.isEmpty()) {
+            throw new IllegalArgumentException("At least one rate limit rule is required");
+        }
+        List<Object> keys = new ArrayList<>(rules.size());
+        Object[] args = new Object[rules.size() * 2];
+        for (int i = 0; i < rules.size(); i++) {
+            RateLimitRule rule = rules.get(i);
+            // same key as a single GCRA rule, so both share the caller's state
+            keys.add(key(rule, RateLimitAlgorithm.GCRA));
+            args[2 * i] = Long.toString(rule.permits());
+            args[2 * i + 1] = Long.toString(rule.window().toMillis());
+        }
+        List<Object> result = eval(ALL_SCRIPT, keys, args);
+
+        // Lua indexes from 1
+        long limit = rules.get((int) toLong(result.get(1)) - 1).permits();
+        Duration resetAfter = Duration.ofMillis(toLong(result.get(3)));
+        if (toLong(result.get(0)) == 1L) {
+            return RateLimitDecision.allowed(limit, toLong(result.get(2)), resetAfter);
+        }
+        return RateLimitDecision.rejected(
+                limit, resetAfter, Duration.ofMillis(toLong(result.get(4))));
+    }
+
+    private List<Object> eval(String name, List<Object> keys, Object... args) {
+        return guard.await(
+                () ->
+                        evalSha(name, keys, args)
+                                .exceptionallyCompose(
+                                        error -> {
+                                            if (!isNoScript(error)) {
+                                                return CompletableFuture.failedStage(error);
+                                            }
+                                            logger.info(
+                                                    "Rate limit script {} missing on Redis,"
+                                                            + " loading it again",
+                                                    name);
+                                            shas.remove(name);
+                                            return evalSha(name, keys, args);
+                                        }));
+    }
+
+    private CompletionStage<List<Object>> evalSha(
+            String name, List<Object> keys, Object... args) {
+        String sha = shas.get(name);
+        CompletionStage<String> loaded =
+                sha != null
+                        ? CompletableFuture.completedFuture(sha)
+                        : script.scriptLoadAsync(sources.get(name))
+                                .thenApply(
+                                        loadedSha -> {
+                                            shas.put(name, loadedSha);
+                                            return loadedSha;
+                                        });
+        return loaded.thenCompose(
+                digest ->
+                        script.<List<Object>>evalShaAsync(
+                                RScript.Mode.READ_WRITE,
+                                digest,
+                                RScript.ReturnType.MULTI,
+                                keys,
+                                args));
+    }
+
+    private static boolean isNoScript(Throwable error) {
+        Throwable cause =
+                error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error;
+        return cause instanceof RedisException
+                && cause.getMessage() != null
+                && cause.getMessage().contains("NOSCRIPT");
+    }
+
+    /** One key per algorithm, so changing a route's algorithm never reads another's state. */
+    private static String key(RateLimitRule rule, RateLimitAlgorithm algorithm) {
+        return rule.key() + ":" + scriptName(algorithm);
+    }
+
+    private static String scriptName(RateLimitAlgorithm algorithm) {
+        return algorithm.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static long toLong(Object value) {
+        return ((Number) value).longValue();
+    }
+
+    private static String load(String name) {
+        String location = "ratelimit/" + name + ".lua";
+        try {
+            return new ClassPathResource(location).getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read rate limit script " + location, e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.vocawik.ratelimit;
+
+/** Cluster-wide quota that instances lease permits from. */
+public interface SharedQuota {
+
+    /**
+     * Takes permits from the cluster-wide quota of a rule.
+     *
+     * @param rule rate limit rule
+     * @param permits permits wanted
+     * @return permits granted, between {@code 0} and {@code permits}
+     */
+    long lease(RateLimitRule rule, long permits);
+}
@@ -0,0 +1,2 @@
+/** Request rate limiting shared across application instances, and adaptive concurrency limits. */
+package com.vocawik.ratelimit;
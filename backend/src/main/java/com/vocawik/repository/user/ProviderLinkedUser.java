@@ -0,0 +1,12 @@
+package com.vocawik.repository.user;
+
+import com.vocawik.domain.user.UserRole;
+
+/**
+ * User columns needed to log in through a linked provider identity.
+ *
+ * @param userId user primary key
+ * @param userUuid user external identifier
+ * @param role user role
+ */
+public record ProviderLinkedUser(Long userId, String userUuid, UserRole role) {}
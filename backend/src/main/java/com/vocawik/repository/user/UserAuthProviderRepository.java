@@ -4,10 +4,30 @@ import com.vocawik.common.auth.AuthProvider;
 import com.vocawik.domain.user.UserAuthProvider;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /** Repository for {@link UserAuthProvider} persistence access. */
 public interface UserAuthProviderRepository extends JpaRepository<UserAuthProvider, Long> {
 
     Optional<UserAuthProvider> findByProviderAndProviderUserId(
             AuthProvider provider, String providerUserId);
+
+    /**
+     * Resolves the user linked to a provider identity in a single query.
+     *
+     * <p>The {@code (provider, provider_user_id) INCLUDE (user_id)} unique index answers the
+     * mapping lookup without reading the mapping row, and the user is joined by primary key.
+     *
+     * @param provider provider type
+     * @param providerUserId provider-side user identifier
+     * @return linked user columns, or empty if the identity is not linked
+     */
+    @Query(
+            "select new com.vocawik.repository.user.ProviderLinkedUser(u.id, u.uuid, u.role)"
+                    + " from UserAuthProvider p join p.user u"
+                    + " where p.provider = :provider and p.providerUserId = :providerUserId")
+    Optional<ProviderLinkedUser> findLinkedUser(
+            @Param("provider") AuthProvider provider,
+            @Param("providerUserId") String providerUserId);
 }
@@ -1,11 +1,31 @@
 package com.vocawik.repository.user;
 
 import com.vocawik.domain.user.User;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /** Repository for {@link User} persistence access. */
 public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
+
+    /**
+     * Records a login without loading the user.
+     *
+     * <p>Bulk updates skip JPA auditing, so {@code updatedAt} is set here as well, matching what
+     * saving the entity would have done.
+     *
+     * @param id user primary key
+     * @param lastLoginAt login time
+     * @return number of updated rows (0 if the user no longer exists)
+     */
+    @Modifying
+    @Query(
+            "update User u set u.lastLoginAt = :lastLoginAt, u.updatedAt = :lastLoginAt"
+                    + " where u.id = :id")
+    int updateLastLoginAt(@Param("id") Long id, @Param("lastLoginAt") LocalDateTime lastLoginAt);
 }
@@ -1,10 +1,13 @@
 package com.vocawik.security;
 
+import com.vocawik.ratelimit.ConcurrencyLimitFilter;
+import com.vocawik.ratelimit.RateLimitFilter;
 import com.vocawik.security.guest.GuestAuthenticationFilter;
 import com.vocawik.security.jwt.JwtFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -23,6 +26,10 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  * <ul>
  *   <li>CSRF disabled (stateless REST API)
  *   <li>Session policy set to STATELESS for token-based authentication
+ *   <li>{@link ConcurrencyLimitFilter} registered first, so overloaded endpoints shed requests
+ *       before any other work
+ *   <li>{@link RateLimitFilter} registered ahead of the guest and JWT filters, so over-limit
+ *       anonymous requests are rejected before any authentication work
  *   <li>{@link com.vocawik.security.jwt.JwtFilter} registered before {@link
  *       UsernamePasswordAuthenticationFilter}
  *   <li>All endpoints are authenticated except for the public ones
@@ -34,6 +41,8 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+    private final RateLimitFilter rateLimitFilter;
     private final JwtFilter jwtFilter;
     private final GuestAuthenticationFilter guestAuthenticationFilter;
     private final ApiAuthenticationEntryPoint apiAuthenticationEntryPoint;
@@ -61,6 +70,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(
                         authorize ->
                                 authorize
+                                        .requestMatchers(HttpMethod.POST, "/api/v1/auth/logout/all")
+                                        .authenticated()
                                         .requestMatchers(
                                                 "/api/v1/auth/**",
                                                 "/api/v1/status",
@@ -71,6 +82,10 @@ public class SecurityConfig {
                                         .permitAll()
                                         .anyRequest()
                                         .authenticated())
+                // filters at the same position run in the order they are added
+                .addFilterBefore(
+                        concurrencyLimitFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(
                         guestAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
@@ -2,6 +2,7 @@ package com.vocawik.security.guest;
 
 import com.vocawik.domain.guest.Guest;
 import com.vocawik.web.ClientIpResolver;
+import com.vocawik.web.RequestTimings;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -67,7 +68,9 @@ public class GuestAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
+        long startedAt = System.nanoTime();
         if (!isAllowGuestHandler(request)) {
+            RequestTimings.record(request, RequestTimings.Phase.GUEST, startedAt);
             filterChain.doFilter(request, response);
             return;
         }
@@ -82,6 +85,7 @@ public class GuestAuthenticationFilter extends OncePerRequestFilter {
         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
         SecurityContextHolder.getContext().setAuthentication(authentication);
         logger.debug("Set guest authentication for guestUuid={}", principal.guestUuid());
+        RequestTimings.record(request, RequestTimings.Phase.GUEST, startedAt);
 
         filterChain.doFilter(request, response);
     }
@@ -0,0 +1,258 @@
+package com.vocawik.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Verifies bearer access tokens for {@link JwtFilter}.
+ *
+ * <p>Verification runs in increasing order of cost:
+ *
+ * <ol>
+ *   <li>structural pre-check ({@link JwtProvider#precheck(String)}), no hashing or crypto
+ *   <li>verified-token cache, keyed by the SHA-256 digest of the raw token until its {@code exp}
+ *   <li>negative cache of recently rejected digests
+ *   <li>full signature and claim verification
+ * </ol>
+ *
+ * <p>Cached or not, a token whose epoch is below its subject's current epoch in {@link
+ * TokenEpochRegistry} is rejected as revoked. That check is an in-process map lookup.
+ *
+ * <p>Every rejection increments {@code jwt.rejections}, tagged with its {@link TokenRejectReason}.
+ */
+@Component
+public class AccessTokenVerifier {
+
+    private static final String VERIFIED_CACHE_NAME = "jwt.verified";
+    private static final String REJECTED_CACHE_NAME = "jwt.rejected";
+    private static final ThreadLocal<MessageDigest> SHA_256 =
+            ThreadLocal.withInitial(AccessTokenVerifier::newSha256);
+
+    private final JwtProvider jwtProvider;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final Cache<String, VerifiedToken> verifiedCache;
+    private final Cache<String, Boolean> rejectedCache;
+    private final Map<TokenRejectReason, Counter> rejectionCounters;
+
+    /**
+     * Creates an access token verifier.
+     *
+     * @param jwtProvider provider used for cryptographic verification
+     * @param tokenEpochRegistry per-user token epochs for revocation
+     * @param meterRegistry registry for cache and rejection metrics
+     * @param verifiedCacheEnabled whether verified tokens are cached
+     * @param verifiedCacheMaximumSize maximum number of cached verified tokens
+     * @param rejectedCacheEnabled whether rejected token digests are cached
+     * @param rejectedCacheMaximumSize maximum number of cached rejected digests
+     * @param rejectedCacheTtlSeconds how long a rejected digest is remembered
+     */
+    public AccessTokenVerifier(
+            JwtProvider jwtProvider,
+            TokenEpochRegistry tokenEpochRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.verified-cache.enabled:true}") boolean verifiedCacheEnabled,
+            @Value("${jwt.verified-cache.maximum-size:10000}") long verifiedCacheMaximumSize,
+            @Value("${jwt.rejected-cache.enabled:true}") boolean rejectedCacheEnabled,
+            @Value("${jwt.rejected-cache.maximum-size:10000}") long rejectedCacheMaximumSize,
+            @Value("${jwt.rejected-cache.ttl-seconds:60}") long rejectedCacheTtlSeconds) {
+        this.jwtProvider = jwtProvider;
+        this.tokenEpochRegistry = tokenEpochRegistry;
+        this.verifiedCache =
+                verifiedCacheEnabled
+                        ? buildVerifiedCache(verifiedCacheMaximumSize, meterRegistry)
+                        : null;
+        this.rejectedCache =
+                rejectedCacheEnabled
+                        ? buildRejectedCache(
+                                rejectedCacheMaximumSize, rejectedCacheTtlSeconds, meterRegistry)
+                        : null;
+        this.rejectionCounters = registerRejectionCounters(meterRegistry);
+    }
+
+    /**
+     * Verifies an access token, using the caches when possible.
+     *
+     * @param token raw JWT access token
+     * @return verified claims, or empty if the token is rejected
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        Optional<TokenRejectReason> malformed = jwtProvider.precheck(token);
+        if (malformed.isPresent()) {
+            return reject(malformed.get());
+        }
+        if (verifiedCache == null && rejectedCache == null) {
+            return verifyUncached(token);
+        }
+
+        String key = digest(token);
+        if (verifiedCache != null) {
+            VerifiedToken cached = verifiedCache.getIfPresent(key);
+            if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+                return checkEpoch(cached);
+            }
+        }
+        if (rejectedCache != null && rejectedCache.getIfPresent(key) != null) {
+            return reject(TokenRejectReason.NEGATIVE_CACHE);
+        }
+
+        Optional<VerifiedToken> verified = jwtProvider.verifyPrecheckedAccessToken(token);
+        if (verified.isEmpty()) {
+            if (rejectedCache != null) {
+                rejectedCache.put(key, Boolean.TRUE);
+            }
+            return reject(TokenRejectReason.VERIFICATION);
+        }
+        if (verifiedCache != null && verified.get().expiresAt() != null) {
+            verifiedCache.put(key, verified.get());
+        }
+        return checkEpoch(verified.get());
+    }
+
+    /**
+     * Drops every cached token issued to the given subject, e.g. after its tokens are revoked.
+     *
+     * @param subject user identifier (UUID as string)
+     */
+    public void invalidateSubject(String subject) {
+        if (verifiedCache != null) {
+            verifiedCache.asMap().values().removeIf(verified -> subject.equals(verified.subject()));
+        }
+    }
+
+    /** Drops every cached verified token. */
+    public void invalidateAll() {
+        if (verifiedCache != null) {
+            verifiedCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Drops cached tokens of a user whose tokens were revoked.
+     *
+     * @param event revocation event
+     */
+    @EventListener
+    public void onUserTokensRevoked(UserTokensRevokedEvent event) {
+        invalidateSubject(event.subject());
+    }
+
+    /**
+     * Drops cached tokens once signing keys are retired, so that tokens signed with them stop being
+     * accepted immediately instead of at their expiry.
+     *
+     * @param event key retirement event
+     */
+    @EventListener
+    public void onKeysRetired(JwtKeysRetiredEvent event) {
+        invalidateAll();
+    }
+
+    private Optional<VerifiedToken> verifyUncached(String token) {
+        Optional<VerifiedToken> verified = jwtProvider.verifyPrecheckedAccessToken(token);
+        if (verified.isEmpty()) {
+            return reject(TokenRejectReason.VERIFICATION);
+        }
+        return checkEpoch(verified.get());
+    }
+
+    private Optional<VerifiedToken> checkEpoch(VerifiedToken verified) {
+        if (verified.epoch() < tokenEpochRegistry.currentEpoch(verified.subject())) {
+            return reject(TokenRejectReason.REVOKED);
+        }
+        return Optional.of(verified);
+    }
+
+    private Optional<VerifiedToken> reject(TokenRejectReason reason) {
+        rejectionCounters.get(reason).increment();
+        return Optional.empty();
+    }
+
+    private static Cache<String, VerifiedToken> buildVerifiedCache(
+            long maximumSize, MeterRegistry meterRegistry) {
+        Cache<String, VerifiedToken> cache =
+                Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfter(new UntilTokenExpiry())
+                        .recordStats()
+                        .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, VERIFIED_CACHE_NAME);
+        return cache;
+    }
+
+    private static Cache<String, Boolean> buildRejectedCache(
+            long maximumSize, long ttlSeconds, MeterRegistry meterRegistry) {
+        Cache<String, Boolean> cache =
+                Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                        .recordStats()
+                        .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, REJECTED_CACHE_NAME);
+        return cache;
+    }
+
+    private static Map<TokenRejectReason, Counter> registerRejectionCounters(
+            MeterRegistry meterRegistry) {
+        Map<TokenRejectReason, Counter> counters = new EnumMap<>(TokenRejectReason.class);
+        for (TokenRejectReason reason : TokenRejectReason.values()) {
+            counters.put(
+                    reason,
+                    Counter.builder("jwt.rejections")
+                            .description("Bearer tokens rejected by JwtFilter")
+                            .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+                            .register(meterRegistry));
+        }
+        return counters;
+    }
+
+    private static String digest(String token) {
+        MessageDigest digest = SHA_256.get();
+        return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /** Expires each entry at its token's {@code exp}. */
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return Math.max(0L, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(
+                String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(
+                String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
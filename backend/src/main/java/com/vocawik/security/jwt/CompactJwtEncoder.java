@@ -0,0 +1,128 @@
+package com.vocawik.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import javax.crypto.Mac;
+
+/**
+ * Compact JWS encoder for the fixed token shape issued by {@link JwtProvider}.
+ *
+ * <p>The issuer/audience claims never change, so they are encoded once, and each {@link
+ * JwtSigningKey} carries its own pre-encoded header. Per token only the variable claims are
+ * serialized, and the signing input is fed to the key's per-thread {@link Mac}. The result is a
+ * standard compact JWS that jjwt parses like a builder-issued token.
+ */
+final class CompactJwtEncoder {
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final String issuerAudienceClaims;
+
+    /**
+     * Creates an encoder.
+     *
+     * @param issuer issuer claim value
+     * @param audience audience claim value
+     */
+    CompactJwtEncoder(String issuer, String audience) {
+        this.issuerAudienceClaims = buildIssuerAudienceClaims(issuer, audience);
+    }
+
+    /**
+     * Encodes and signs a token.
+     *
+     * @param key signing key; its header (with {@code kid}) prefixes the token
+     * @param subject subject claim
+     * @param role role claim, omitted when {@code null}
+     * @param tokenType token type claim
+     * @param issuedAtSeconds issued-at time (epoch seconds)
+     * @param expiresAtSeconds expiration time (epoch seconds)
+     * @param tokenId token ID (jti), omitted when {@code null}
+     * @param familyId refresh family claim, omitted when {@code null}
+     * @param generation refresh generation claim, omitted when {@code null}
+     * @param epoch subject token epoch claim, omitted when {@code 0}
+     * @return compact JWS
+     */
+    String encode(
+            JwtSigningKey key,
+            String subject,
+            String role,
+            String tokenType,
+            long issuedAtSeconds,
+            long expiresAtSeconds,
+            String tokenId,
+            String familyId,
+            Long generation,
+            long epoch) {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"sub\":");
+        appendString(json, subject);
+        json.append(issuerAudienceClaims);
+        if (role != null) {
+            json.append(",\"role\":");
+            appendString(json, role);
+        }
+        json.append(",\"typ\":");
+        appendString(json, tokenType);
+        json.append(",\"iat\":").append(issuedAtSeconds);
+        json.append(",\"exp\":").append(expiresAtSeconds);
+        if (tokenId != null) {
+            json.append(",\"jti\":");
+            appendString(json, tokenId);
+        }
+        if (familyId != null) {
+            json.append(",\"fam\":");
+            appendString(json, familyId);
+        }
+        if (generation != null) {
+            json.append(",\"gen\":").append(generation.longValue());
+        }
+        if (epoch != 0L) {
+            json.append(",\"ep\":").append(epoch);
+        }
+        json.append('}');
+
+        byte[] payload = BASE64_URL.encode(json.toString().getBytes(StandardCharsets.UTF_8));
+        Mac mac = key.mac();
+        mac.update(key.signingInputPrefix());
+        byte[] signature = mac.doFinal(payload);
+
+        return key.headerSegment()
+                + '.'
+                + new String(payload, StandardCharsets.US_ASCII)
+                + '.'
+                + BASE64_URL.encodeToString(signature);
+    }
+
+    private static String buildIssuerAudienceClaims(String issuer, String audience) {
+        StringBuilder claims = new StringBuilder();
+        claims.append(",\"iss\":");
+        appendString(claims, issuer);
+        claims.append(",\"aud\":[");
+        appendString(claims, audience);
+        claims.append(']');
+        return claims.toString();
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+}
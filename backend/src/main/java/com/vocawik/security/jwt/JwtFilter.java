@@ -1,11 +1,13 @@
 package com.vocawik.security.jwt;
 
+import com.vocawik.web.RequestTimings;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.List;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -21,7 +23,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
  * JWT authentication filter.
  *
  * <p>Extracts the JWT from header and sets the authentication in {@link SecurityContextHolder} if
- * valid.
+ * valid and not revoked (see {@link AccessTokenVerifier}).
  */
 @Slf4j
 @Component
@@ -31,7 +33,7 @@ public class JwtFilter extends OncePerRequestFilter {
     private static final String AUTHORIZATION_HEADER = "Authorization";
     private static final String BEARER_PREFIX = "Bearer ";
 
-    private final JwtProvider jwtProvider;
+    private final AccessTokenVerifier accessTokenVerifier;
 
     /**
      * Filters the request and sets the authentication in the {@link SecurityContextHolder}.
@@ -47,37 +49,43 @@ public class JwtFilter extends OncePerRequestFilter {
             HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
+        long startedAt = System.nanoTime();
         String token = resolveToken(request);
 
-        if (token != null && jwtProvider.validateAccessToken(token)) {
-            String subject = jwtProvider.getSubject(token);
-            String role = jwtProvider.getRole(token);
+        if (token != null) {
+            accessTokenVerifier
+                    .verify(token)
+                    .ifPresent(verified -> authenticate(request, verified));
+        }
+        RequestTimings.record(request, RequestTimings.Phase.AUTH, startedAt);
 
-            // check role exists
-            List<GrantedAuthority> authorities =
-                    role == null || role.isBlank()
-                            ? List.of()
-                            : List.of(new SimpleGrantedAuthority("ROLE_" + role));
+        filterChain.doFilter(request, response);
+    }
 
-            // parse subject as UUID to build AuthPrincipal
-            AuthPrincipal principal;
-            try {
-                principal = new AuthPrincipal(java.util.UUID.fromString(subject), role);
-            } catch (IllegalArgumentException ex) {
-                logger.warn("Invalid JWT subject (not a UUID)");
-                filterChain.doFilter(request, response);
-                return;
-            }
+    private void authenticate(HttpServletRequest request, VerifiedToken verified) {
+        String role = verified.role();
 
-            UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(principal, null, authorities);
-            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        // check role exists
+        List<GrantedAuthority> authorities =
+                role == null || role.isBlank()
+                        ? List.of()
+                        : List.of(new SimpleGrantedAuthority("ROLE_" + role));
 
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            logger.debug("Set authentication for: {}", principal.userUuid());
+        // parse subject as UUID to build AuthPrincipal
+        AuthPrincipal principal;
+        try {
+            principal = new AuthPrincipal(UUID.fromString(verified.subject()), role);
+        } catch (IllegalArgumentException ex) {
+            logger.warn("Invalid JWT subject (not a UUID)");
+            return;
         }
 
-        filterChain.doFilter(request, response);
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(principal, null, authorities);
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        logger.debug("Set authentication for: {}", principal.userUuid());
     }
 
     private String resolveToken(HttpServletRequest request) {
@@ -0,0 +1,214 @@
+package com.vocawik.security.jwt;
+
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.ProtectedHeader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.Key;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Set of HMAC keys used to sign and verify JWTs, indexed by key ID ({@code kid}).
+ *
+ * <p>New tokens are signed with the active key and carry its {@code kid}; verification resolves
+ * the key by {@code kid} (or by the encoded header segment in the pre-check) with a single map
+ * lookup. Tokens issued before key IDs existed have no {@code kid} and are verified with the key
+ * whose ID equals {@code jwt.key-id}.
+ *
+ * <p>Without {@code jwt.key-ring.location} the ring holds only {@code jwt.secret}. With it, the
+ * ring is defined by that properties file, which is re-read periodically:
+ *
+ * <pre>
+ * active=2026-10
+ * keys.2026-09=&lt;Base64 secret&gt;
+ * keys.2026-10=&lt;Base64 secret&gt;
+ * </pre>
+ *
+ * <p>A rotation adds the new key, switches {@code active} once every instance has picked it up,
+ * and removes the old key after the longest token lifetime has passed. An unreadable or invalid
+ * file keeps the current ring in place. Removing keys publishes a {@link JwtKeysRetiredEvent}.
+ */
+@Slf4j
+@Component
+public final class JwtKeyRing {
+
+    /** Key ID used for {@code jwt.secret} when {@code jwt.key-id} is not set. */
+    public static final String DEFAULT_KEY_ID = "primary";
+
+    private static final String ACTIVE_PROPERTY = "active";
+    private static final String KEY_PROPERTY_PREFIX = "keys.";
+
+    private final String legacyKeyId;
+    private final Path location;
+    private final ApplicationEventPublisher eventPublisher;
+    private volatile Snapshot snapshot;
+    private byte[] loadedContent;
+
+    /**
+     * Creates a key ring.
+     *
+     * @param secret Base64-encoded secret used when no key ring file is configured or present
+     * @param keyId key ID of {@code secret}, also used to verify tokens without {@code kid}
+     * @param location path of the key ring properties file, or blank to use {@code secret} only
+     * @param eventPublisher publisher for {@link JwtKeysRetiredEvent}
+     * @throws IllegalStateException if the key ring file exists but cannot be loaded
+     */
+    public JwtKeyRing(
+            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.key-id:" + DEFAULT_KEY_ID + "}") String keyId,
+            @Value("${jwt.key-ring.location:}") String location,
+            ApplicationEventPublisher eventPublisher) {
+        JwtSigningKey primary = JwtSigningKey.of(keyId, secret);
+        this.legacyKeyId = keyId;
+        this.location = location == null || location.isBlank() ? null : Path.of(location);
+        this.eventPublisher = eventPublisher;
+        this.snapshot = Snapshot.of(Map.of(keyId, primary), primary, legacyKeyId);
+        if (this.location != null && Files.exists(this.location)) {
+            try {
+                load();
+            } catch (IOException | IllegalArgumentException e) {
+                throw new IllegalStateException("Cannot load JWT key ring " + this.location, e);
+            }
+        }
+    }
+
+    /**
+     * Creates a key ring holding a single key, without a watched file.
+     *
+     * @param secret Base64-encoded secret
+     * @return key ring
+     */
+    public static JwtKeyRing of(String secret) {
+        return new JwtKeyRing(secret, DEFAULT_KEY_ID, "", event -> {});
+    }
+
+    /**
+     * Re-reads the key ring file if its content has changed.
+     *
+     * <p>Polled rather than watched with {@code WatchService}: mounted secrets are usually replaced
+     * through a symlink swap, which directory watches do not report reliably.
+     */
+    @Scheduled(fixedDelayString = "${jwt.key-ring.refresh-interval-ms:30000}")
+    public void reload() {
+        if (location == null) {
+            return;
+        }
+        try {
+            load();
+        } catch (NoSuchFileException e) {
+            logger.warn("JWT key ring file {} not found, keeping current keys", location);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn(
+                    "Cannot load JWT key ring {}, keeping current keys: {}",
+                    location,
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the ID of the key that signs new tokens.
+     *
+     * @return active key ID
+     */
+    public String activeKeyId() {
+        return snapshot.active().keyId();
+    }
+
+    /**
+     * Returns the IDs of all keys accepted for verification.
+     *
+     * @return key IDs
+     */
+    public Set<String> keyIds() {
+        return snapshot.byKeyId().keySet();
+    }
+
+    JwtSigningKey activeKey() {
+        return snapshot.active();
+    }
+
+    /** Resolves the key for an encoded JWS header segment, or {@code null} if none matches. */
+    JwtSigningKey findByHeaderSegment(String headerSegment) {
+        return snapshot.byHeaderSegment().get(headerSegment);
+    }
+
+    /** Key locator for the jjwt parser; {@code null} makes the parser reject the token. */
+    Key locate(Header header) {
+        String keyId =
+                header instanceof ProtectedHeader protectedHeader
+                        ? protectedHeader.getKeyId()
+                        : null;
+        JwtSigningKey key = snapshot.byKeyId().get(keyId == null ? legacyKeyId : keyId);
+        return key == null ? null : key.secretKey();
+    }
+
+    private synchronized void load() throws IOException {
+        byte[] content = Files.readAllBytes(location);
+        if (Arrays.equals(content, loadedContent)) {
+            return;
+        }
+        Properties properties = new Properties();
+        properties.load(new StringReader(new String(content, StandardCharsets.UTF_8)));
+
+        Map<String, JwtSigningKey> keys = new HashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(KEY_PROPERTY_PREFIX)) {
+                String keyId = name.substring(KEY_PROPERTY_PREFIX.length());
+                keys.put(keyId, JwtSigningKey.of(keyId, properties.getProperty(name)));
+            }
+        }
+        String activeKeyId = properties.getProperty(ACTIVE_PROPERTY);
+        JwtSigningKey active = activeKeyId == null ? null : keys.get(activeKeyId.trim());
+        if (active == null) {
+            throw new IllegalArgumentException(
+                    "active key '" + activeKeyId + "' is not one of " + keys.keySet());
+        }
+
+        Set<String> retired = new HashSet<>(snapshot.byKeyId().keySet());
+        retired.removeAll(keys.keySet());
+        snapshot = Snapshot.of(keys, active, legacyKeyId);
+        loadedContent = content;
+        logger.info(
+                "Loaded JWT key ring: active={}, keys={}",
+                active.keyId(),
+                new TreeSet<>(keys.keySet()));
+        if (!retired.isEmpty()) {
+            eventPublisher.publishEvent(new JwtKeysRetiredEvent(Set.copyOf(retired)));
+        }
+    }
+
+    /** Immutable view of the ring, swapped atomically on reload. */
+    private record Snapshot(
+            Map<String, JwtSigningKey> byKeyId,
+            Map<String, JwtSigningKey> byHeaderSegment,
+            JwtSigningKey active) {
+
+        static Snapshot of(
+                Map<String, JwtSigningKey> keys, JwtSigningKey active, String legacyKeyId) {
+            Map<String, JwtSigningKey> byHeaderSegment = new HashMap<>();
+            for (JwtSigningKey key : keys.values()) {
+                byHeaderSegment.put(key.headerSegment(), key);
+            }
+            JwtSigningKey legacy = keys.get(legacyKeyId);
+            if (legacy != null) {
+                byHeaderSegment.put(legacy.legacyHeaderSegment(), legacy);
+            }
+            return new Snapshot(Map.copyOf(keys), Map.copyOf(byHeaderSegment), active);
+        }
+    }
+}
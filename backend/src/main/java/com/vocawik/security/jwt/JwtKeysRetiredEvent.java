@@ -0,0 +1,10 @@
+package com.vocawik.security.jwt;
+
+import java.util.Set;
+
+/**
+ * Published by {@link JwtKeyRing} when keys are removed from the ring.
+ *
+ * @param keyIds IDs of the removed keys
+ */
+public record JwtKeysRetiredEvent(Set<String> keyIds) {}
@@ -1,41 +1,55 @@
 package com.vocawik.security.jwt;
 
+import com.github.f4b6a3.uuid.UuidCreator;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
-import java.util.Base64;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.Date;
-import javax.crypto.SecretKey;
+import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
  * JWT token provider.
  *
- * <p>Handles creation and validation of access and refresh tokens using HMAC-SHA256.
+ * <p>Handles creation and validation of access and refresh tokens using HMAC-SHA (HS256, HS384 or
+ * HS512, chosen by secret length). Keys come from the {@link JwtKeyRing}: tokens are signed with
+ * its active key and carry that key's {@code kid}, and are verified with whichever key their
+ * {@code kid} names. Tokens are issued through {@link CompactJwtEncoder} and structurally
+ * pre-checked before any cryptographic work so that malformed bearer values are rejected cheaply.
  */
 @Slf4j
 @Component
 public final class JwtProvider {
 
+    /** Generation of the first refresh token of a family. */
+    public static final long INITIAL_REFRESH_GENERATION = 1L;
+
     private static final String TOKEN_TYPE_CLAIM = "typ";
     private static final String ROLE_CLAIM = "role";
     private static final String REFRESH_FAMILY_CLAIM = "fam";
+    private static final String REFRESH_GENERATION_CLAIM = "gen";
+    private static final String TOKEN_EPOCH_CLAIM = "ep";
     private static final String ACCESS_TOKEN_TYPE = "ACCESS";
     private static final String REFRESH_TOKEN_TYPE = "REFRESH";
+    private static final int MAX_TOKEN_LENGTH = 4096;
 
-    private final SecretKey secretKey;
+    private final JwtKeyRing keyRing;
+    private final JwtParser jwtParser;
+    private final CompactJwtEncoder encoder;
     private final String issuer;
     private final String audience;
     private final long accessExpiration;
     private final long refreshExpiration;
 
     /**
-     * Constructs a JwtProvider with the given configuration.
+     * Constructs a JwtProvider with a single signing key.
      *
      * @param secret Base64-encoded secret key
      * @param issuer expected JWT issuer
@@ -44,12 +58,35 @@ public final class JwtProvider {
      * @param refreshExpiration refresh token expiration in milliseconds
      */
     public JwtProvider(
-            @Value("${jwt.secret}") String secret,
+            String secret,
+            String issuer,
+            String audience,
+            long accessExpiration,
+            long refreshExpiration) {
+        this(JwtKeyRing.of(secret), issuer, audience, accessExpiration, refreshExpiration);
+    }
+
+    /**
+     * Constructs a JwtProvider backed by a key ring.
+     *
+     * @param keyRing signing and verification keys
+     * @param issuer expected JWT issuer
+     * @param audience expected JWT audience
+     * @param accessExpiration access token expiration in milliseconds
+     * @param refreshExpiration refresh token expiration in milliseconds
+     */
+    @Autowired
+    public JwtProvider(
+            JwtKeyRing keyRing,
             @Value("${jwt.issuer}") String issuer,
             @Value("${jwt.audience}") String audience,
             @Value("${jwt.access-expiration}") long accessExpiration,
             @Value("${jwt.refresh-expiration}") long refreshExpiration) {
-        this.secretKey = Keys.hmacShaKeyFor(decodeBase64Secret(secret));
+        this.keyRing = keyRing;
+        // JwtParser is immutable and thread-safe, so one instance serves every request; the key
+        // is resolved per token from the ring, so rotations need no new parser.
+        this.jwtParser = Jwts.parser().keyLocator(keyRing::locate).build();
+        this.encoder = new CompactJwtEncoder(issuer, audience);
         this.issuer = issuer;
         this.audience = audience;
         this.accessExpiration = accessExpiration;
@@ -74,7 +111,42 @@ public final class JwtProvider {
      * @return signed JWT access token
      */
     public String generateAccessToken(String subject, String role) {
-        return generateToken(subject, role, accessExpiration, ACCESS_TOKEN_TYPE);
+        return generateAccessToken(subject, role, 0L);
+    }
+
+    /**
+     * Generates an access token bound to a token epoch of its subject.
+     *
+     * @param subject user identifier (UUID as string)
+     * @param role user role (e.g. USER, ADMIN)
+     * @param epoch subject's current token epoch; tokens below the current epoch are revoked
+     * @return signed JWT access token
+     */
+    public String generateAccessToken(String subject, String role, long epoch) {
+        return generateAccessToken(subject, role, epoch, Instant.now());
+    }
+
+    /**
+     * Generates an access token with a given issue time. Signing is deterministic, so the same
+     * arguments and signing key give the same token.
+     *
+     * @param subject user identifier (UUID as string)
+     * @param role user role (e.g. USER, ADMIN)
+     * @param epoch subject's token epoch at issue time
+     * @param issuedAt issue time; the expiry is counted from it
+     * @return signed JWT access token
+     */
+    public String generateAccessToken(String subject, String role, long epoch, Instant issuedAt) {
+        return generateToken(
+                subject,
+                role,
+                accessExpiration,
+                ACCESS_TOKEN_TYPE,
+                null,
+                null,
+                null,
+                epoch,
+                issuedAt.toEpochMilli());
     }
 
     /**
@@ -84,11 +156,7 @@ public final class JwtProvider {
      * @return signed JWT refresh token
      */
     public String generateRefreshToken(String subject) {
-        return generateRefreshToken(
-                subject,
-                "USER",
-                java.util.UUID.randomUUID().toString(),
-                java.util.UUID.randomUUID().toString());
+        return generateRefreshToken(subject, "USER");
     }
 
     /**
@@ -100,25 +168,116 @@ public final class JwtProvider {
      */
     public String generateRefreshToken(String subject, String role) {
         return generateRefreshToken(
+                subject, role, newTokenId(), newTokenId(), INITIAL_REFRESH_GENERATION);
+    }
+
+    /**
+     * Generates a refresh token with explicit token-family metadata but no generation.
+     *
+     * <p>Tokens without a generation are rotated through per-token "used" markers; new tokens
+     * should carry a generation instead.
+     *
+     * @param subject user identifier (UUID as string)
+     * @param role user role (e.g. USER, ADMIN)
+     * @param familyId refresh token family identifier
+     * @param tokenId unique refresh token identifier (JWT ID / jti)
+     * @return signed JWT refresh token
+     */
+    public String generateRefreshToken(
+            String subject, String role, String familyId, String tokenId) {
+        return generateToken(
                 subject,
                 role,
-                java.util.UUID.randomUUID().toString(),
-                java.util.UUID.randomUUID().toString());
+                refreshExpiration,
+                REFRESH_TOKEN_TYPE,
+                tokenId,
+                familyId,
+                null,
+                0L,
+                System.currentTimeMillis());
     }
 
     /**
-     * Generates a refresh token with explicit token-family metadata.
+     * Generates a refresh token at a given generation of its family.
      *
      * @param subject user identifier (UUID as string)
      * @param role user role (e.g. USER, ADMIN)
      * @param familyId refresh token family identifier
      * @param tokenId unique refresh token identifier (JWT ID / jti)
+     * @param generation position of the token in its family, starting at {@link
+     *     #INITIAL_REFRESH_GENERATION}
      * @return signed JWT refresh token
      */
     public String generateRefreshToken(
-            String subject, String role, String familyId, String tokenId) {
+            String subject, String role, String familyId, String tokenId, long generation) {
+        return generateRefreshToken(subject, role, familyId, tokenId, generation, 0L);
+    }
+
+    /**
+     * Generates a refresh token at a given generation of its family, bound to a token epoch.
+     *
+     * @param subject user identifier (UUID as string)
+     * @param role user role (e.g. USER, ADMIN)
+     * @param familyId refresh token family identifier
+     * @param tokenId unique refresh token identifier (JWT ID / jti)
+     * @param generation position of the token in its family
+     * @param epoch subject's current token epoch; tokens below the current epoch are revoked
+     * @return signed JWT refresh token
+     */
+    public String generateRefreshToken(
+            String subject,
+            String role,
+            String familyId,
+            String tokenId,
+            long generation,
+            long epoch) {
+        return generateRefreshToken(
+                subject, role, familyId, tokenId, generation, epoch, Instant.now());
+    }
+
+    /**
+     * Generates a refresh token with a given issue time. Signing is deterministic, so the same
+     * arguments and signing key give the same token.
+     *
+     * @param subject user identifier (UUID as string)
+     * @param role user role (e.g. USER, ADMIN)
+     * @param familyId refresh token family identifier
+     * @param tokenId unique refresh token identifier (JWT ID / jti)
+     * @param generation position of the token in its family
+     * @param epoch subject's token epoch at issue time
+     * @param issuedAt issue time; the expiry is counted from it
+     * @return signed JWT refresh token
+     */
+    public String generateRefreshToken(
+            String subject,
+            String role,
+            String familyId,
+            String tokenId,
+            long generation,
+            long epoch,
+            Instant issuedAt) {
         return generateToken(
-                subject, role, refreshExpiration, REFRESH_TOKEN_TYPE, tokenId, familyId);
+                subject,
+                role,
+                refreshExpiration,
+                REFRESH_TOKEN_TYPE,
+                tokenId,
+                familyId,
+                generation,
+                epoch,
+                issuedAt.toEpochMilli());
+    }
+
+    /**
+     * Creates a new identifier for a token (jti) or refresh token family.
+     *
+     * <p>Uses a time-ordered UUIDv7 with a non-cryptographic random part. Identifiers only need to
+     * be unique, not secret: tokens are signed, so a guessed jti cannot be used to forge one.
+     *
+     * @return new identifier
+     */
+    public String newTokenId() {
+        return UuidCreator.getTimeOrderedEpochFast().toString();
     }
 
     /**
@@ -161,6 +320,16 @@ public final class JwtProvider {
         return parseClaims(token).get(REFRESH_FAMILY_CLAIM, String.class);
     }
 
+    /**
+     * Extracts refresh token generation from a token.
+     *
+     * @param token JWT token
+     * @return refresh generation or {@code null} when absent
+     */
+    public Long getRefreshGeneration(String token) {
+        return parseClaims(token).get(REFRESH_GENERATION_CLAIM, Long.class);
+    }
+
     /**
      * Returns access token expiry in seconds.
      *
@@ -179,6 +348,72 @@ public final class JwtProvider {
         return refreshExpiration / 1000;
     }
 
+    /**
+     * Verifies an access token once and returns its claims.
+     *
+     * @param token JWT access token
+     * @return verified claims, or empty if the token is invalid or not an access token
+     */
+    public Optional<VerifiedToken> verifyAccessToken(String token) {
+        return verify(token, ACCESS_TOKEN_TYPE);
+    }
+
+    /**
+     * Verifies an access token that already passed {@link #precheck(String)}.
+     *
+     * <p>For {@link AccessTokenVerifier}, which runs the pre-check itself before its caches and
+     * would otherwise scan the token twice on every miss.
+     *
+     * @param token JWT access token accepted by {@link #precheck(String)}
+     * @return verified claims, or empty if the token is invalid or not an access token
+     */
+    Optional<VerifiedToken> verifyPrecheckedAccessToken(String token) {
+        return verifyPrechecked(token, ACCESS_TOKEN_TYPE);
+    }
+
+    /**
+     * Verifies a refresh token once and returns its claims.
+     *
+     * @param token JWT refresh token
+     * @return verified claims, or empty if the token is invalid or not a refresh token
+     */
+    public Optional<VerifiedToken> verifyRefreshToken(String token) {
+        return verify(token, REFRESH_TOKEN_TYPE);
+    }
+
+    /**
+     * Checks token structure without any cryptographic work.
+     *
+     * <p>Rejects values that cannot be a token issued by this provider: wrong length, segment
+     * count, a header naming no key in the ring, or characters outside the base64url alphabet.
+     *
+     * @param token raw token value
+     * @return rejection reason, or empty if the token is structurally plausible
+     */
+    public Optional<TokenRejectReason> precheck(String token) {
+        if (token == null || token.isEmpty() || token.length() > MAX_TOKEN_LENGTH) {
+            return Optional.of(TokenRejectReason.LENGTH);
+        }
+        int firstDot = token.indexOf('.');
+        int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+        if (secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+            return Optional.of(TokenRejectReason.SEGMENTS);
+        }
+        JwtSigningKey key = keyRing.findByHeaderSegment(token.substring(0, firstDot));
+        if (key == null) {
+            return Optional.of(TokenRejectReason.HEADER);
+        }
+        if (secondDot == firstDot + 1
+                || token.length() - secondDot - 1 != key.signatureSegmentLength()) {
+            return Optional.of(TokenRejectReason.LENGTH);
+        }
+        if (!isBase64Url(token, firstDot + 1, secondDot)
+                || !isBase64Url(token, secondDot + 1, token.length())) {
+            return Optional.of(TokenRejectReason.ENCODING);
+        }
+        return Optional.empty();
+    }
+
     /**
      * Validates a JWT token.
      *
@@ -210,32 +445,53 @@ public final class JwtProvider {
     }
 
     private boolean validateByType(String token, String expectedType) {
+        return verify(token, expectedType).isPresent();
+    }
+
+    private Optional<VerifiedToken> verify(String token, String expectedType) {
+        // Failures are logged at DEBUG: bearer values are client-controlled, and a flood of junk
+        // tokens must not turn into a flood of log I/O.
+        Optional<TokenRejectReason> rejection = precheck(token);
+        if (rejection.isPresent()) {
+            logger.debug("Malformed JWT token: {}", rejection.get());
+            return Optional.empty();
+        }
+        return verifyPrechecked(token, expectedType);
+    }
+
+    private Optional<VerifiedToken> verifyPrechecked(String token, String expectedType) {
         try {
             Claims claims = parseClaims(token);
             if (!issuer.equals(claims.getIssuer())) {
-                logger.warn("Invalid JWT issuer");
-                return false;
+                logger.debug("Invalid JWT issuer");
+                return Optional.empty();
             }
             if (!hasExpectedAudience(claims)) {
-                logger.warn("Invalid JWT audience");
-                return false;
+                logger.debug("Invalid JWT audience");
+                return Optional.empty();
             }
-            if (expectedType != null
-                    && !expectedType.equals(claims.get(TOKEN_TYPE_CLAIM, String.class))) {
-                logger.warn("Invalid JWT type");
-                return false;
+            String tokenType = claims.get(TOKEN_TYPE_CLAIM, String.class);
+            if (expectedType != null && !expectedType.equals(tokenType)) {
+                logger.debug("Invalid JWT type");
+                return Optional.empty();
             }
-            return true;
+            Date expiration = claims.getExpiration();
+            return Optional.of(
+                    new VerifiedToken(
+                            claims.getSubject(),
+                            claims.get(ROLE_CLAIM, String.class),
+                            tokenType,
+                            claims.getId(),
+                            claims.get(REFRESH_FAMILY_CLAIM, String.class),
+                            claims.get(REFRESH_GENERATION_CLAIM, Long.class),
+                            epochOf(claims),
+                            expiration == null ? null : expiration.toInstant()));
         } catch (ExpiredJwtException e) {
-            logger.warn("Expired JWT token");
+            logger.debug("Expired JWT token");
         } catch (JwtException e) {
-            logger.warn("Invalid JWT token: {}", e.getMessage());
+            logger.debug("Invalid JWT token: {}", e.getMessage());
         }
-        return false;
-    }
-
-    private String generateToken(String subject, String role, long expirationMs, String tokenType) {
-        return generateToken(subject, role, expirationMs, tokenType, null, null);
+        return Optional.empty();
     }
 
     private String generateToken(
@@ -244,45 +500,55 @@ public final class JwtProvider {
             long expirationMs,
             String tokenType,
             String tokenId,
-            String refreshFamilyId) {
-        Date now = new Date();
-        Date expiry = new Date(now.getTime() + expirationMs);
-
-        var builder =
-                Jwts.builder()
-                        .subject(subject)
-                        .issuer(issuer)
-                        .audience()
-                        .add(audience)
-                        .and()
-                        .claim(ROLE_CLAIM, role)
-                        .claim(TOKEN_TYPE_CLAIM, tokenType)
-                        .issuedAt(now)
-                        .expiration(expiry);
-
-        if (tokenId != null && !tokenId.isBlank()) {
-            builder.id(tokenId);
-        }
-        if (REFRESH_TOKEN_TYPE.equals(tokenType)
-                && refreshFamilyId != null
-                && !refreshFamilyId.isBlank()) {
-            builder.claim(REFRESH_FAMILY_CLAIM, refreshFamilyId);
-        }
+            String refreshFamilyId,
+            Long refreshGeneration,
+            long epoch,
+            long issuedAtMillis) {
+        String jti = tokenId != null && !tokenId.isBlank() ? tokenId : null;
+        String family =
+                REFRESH_TOKEN_TYPE.equals(tokenType)
+                                && refreshFamilyId != null
+                                && !refreshFamilyId.isBlank()
+                        ? refreshFamilyId
+                        : null;
+        Long generation = REFRESH_TOKEN_TYPE.equals(tokenType) ? refreshGeneration : null;
+
+        return encoder.encode(
+                keyRing.activeKey(),
+                subject,
+                role,
+                tokenType,
+                issuedAtMillis / 1000,
+                (issuedAtMillis + expirationMs) / 1000,
+                jti,
+                family,
+                generation,
+                epoch);
+    }
 
-        return builder.signWith(secretKey).compact();
+    private static long epochOf(Claims claims) {
+        Long epoch = claims.get(TOKEN_EPOCH_CLAIM, Long.class);
+        return epoch == null ? 0L : epoch;
     }
 
     private Claims parseClaims(String token) {
-        return Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload();
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
 
-    private byte[] decodeBase64Secret(String secret) {
-        try {
-            return Base64.getDecoder().decode(secret);
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException(
-                    "jwt.secret must be a valid Base64-encoded value", e);
+    private static boolean isBase64Url(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            boolean valid =
+                    (c >= 'A' && c <= 'Z')
+                            || (c >= 'a' && c <= 'z')
+                            || (c >= '0' && c <= '9')
+                            || c == '-'
+                            || c == '_';
+            if (!valid) {
+                return false;
+            }
         }
+        return true;
     }
 
     private boolean hasExpectedAudience(Claims claims) {
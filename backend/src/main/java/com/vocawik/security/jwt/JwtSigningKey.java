@@ -0,0 +1,122 @@
+package com.vocawik.security.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.MacAlgorithm;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+
+/**
+ * One HMAC key of the {@link JwtKeyRing}, with everything derived from it precomputed.
+ *
+ * <p>Holds the encoded JWS header segments that identify the key, the expected signature segment
+ * length used by the structural pre-check, and a per-thread {@link Mac} for signing.
+ */
+final class JwtSigningKey {
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final String keyId;
+    private final SecretKey secretKey;
+    private final String headerSegment;
+    private final String legacyHeaderSegment;
+    private final byte[] signingInputPrefix;
+    private final int signatureSegmentLength;
+    private final ThreadLocal<Mac> macs;
+
+    private JwtSigningKey(String keyId, byte[] keyBytes) {
+        MacAlgorithm algorithm = macAlgorithmFor(keyBytes);
+        this.keyId = keyId;
+        this.secretKey = Keys.hmacShaKeyFor(keyBytes);
+        this.headerSegment =
+                encode("{\"alg\":\"" + algorithm.getId() + "\",\"kid\":\"" + keyId + "\"}");
+        this.legacyHeaderSegment = encode("{\"alg\":\"" + algorithm.getId() + "\"}");
+        this.signingInputPrefix = (headerSegment + ".").getBytes(StandardCharsets.US_ASCII);
+        this.signatureSegmentLength = (algorithm.getKeyBitLength() + 5) / 6;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        // fail fast on an unusable key instead of on the first token
+        newMac();
+    }
+
+    /**
+     * Creates a signing key from a Base64-encoded secret.
+     *
+     * @param keyId key identifier written to the {@code kid} header
+     * @param secret Base64-encoded secret
+     * @return signing key
+     * @throws IllegalArgumentException if the key ID or secret is invalid
+     */
+    static JwtSigningKey of(String keyId, String secret) {
+        if (keyId == null || !keyId.matches("[A-Za-z0-9._-]{1,64}")) {
+            throw new IllegalArgumentException("Invalid JWT key id: " + keyId);
+        }
+        try {
+            return new JwtSigningKey(keyId, Base64.getDecoder().decode(secret.trim()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "JWT secret for key '" + keyId + "' must be a valid Base64-encoded value", e);
+        }
+    }
+
+    String keyId() {
+        return keyId;
+    }
+
+    SecretKey secretKey() {
+        return secretKey;
+    }
+
+    /** Header segment issued by this service: {@code {"alg":...,"kid":...}}. */
+    String headerSegment() {
+        return headerSegment;
+    }
+
+    /** Header segment of tokens issued before key IDs existed: {@code {"alg":...}}. */
+    String legacyHeaderSegment() {
+        return legacyHeaderSegment;
+    }
+
+    /** ASCII bytes of {@code headerSegment + "."}, the constant start of the signing input. */
+    byte[] signingInputPrefix() {
+        return signingInputPrefix;
+    }
+
+    int signatureSegmentLength() {
+        return signatureSegmentLength;
+    }
+
+    /** Returns this thread's MAC, initialized with the key. */
+    Mac mac() {
+        return macs.get();
+    }
+
+    /** Mirrors the algorithm {@link Keys#hmacShaKeyFor(byte[])} assigns to a key of this size. */
+    private static MacAlgorithm macAlgorithmFor(byte[] keyBytes) {
+        int bits = keyBytes.length * 8;
+        if (bits >= 512) {
+            return Jwts.SIG.HS512;
+        }
+        if (bits >= 384) {
+            return Jwts.SIG.HS384;
+        }
+        return Jwts.SIG.HS256;
+    }
+
+    private static String encode(String json) {
+        return BASE64_URL.encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(secretKey.getAlgorithm());
+            mac.init(secretKey);
+            return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("Cannot initialize JWT signing MAC", e);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.vocawik.security.jwt;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-user token epochs used to revoke tokens before they expire.
+ *
+ * <p>Tokens carry the epoch of their subject at issue time ({@code ep} claim, {@code 0} when
+ * absent). Revoking a user moves the epoch to the revocation time in milliseconds, and any token
+ * below the current epoch is rejected. Checks read an in-process map, so they cost no I/O on the
+ * request path.
+ *
+ * <p>Redis sorted set {@code auth:token-epochs} is the source of truth, scored by epoch. Changes
+ * are broadcast on {@code auth:token-epoch:changed} so that other nodes apply them within
+ * milliseconds, and the set is re-read periodically to recover from missed messages. Epochs only
+ * move forward, so out-of-order or duplicate updates are harmless.
+ *
+ * <p>Once an epoch is older than the refresh token lifetime, every token issued before it has
+ * expired, so the entry is dropped from Redis and from the map and the user is back at epoch
+ * {@code 0}. Because epochs are times, the next revocation still lands above every token issued
+ * meanwhile. Only users revoked within that lifetime have an entry.
+ */
+@Slf4j
+@Component
+@SuppressFBWarnings(
+        value = "EI_EXPOSE_REP2",
+        justification =
+                "StringRedisTemplate is a Spring-managed infrastructure bean and is not exposed externally.")
+public class TokenEpochRegistry {
+
+    private static final String EPOCHS_KEY = "auth:token-epochs";
+    private static final String EPOCH_CHANNEL = "auth:token-epoch:changed";
+    private static final char MESSAGE_SEPARATOR = ' ';
+    private static final RedisScript<Long> REVOKE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/token-epoch-revoke.lua"), Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long retentionMs;
+    private final ConcurrentMap<String, Long> epochs = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    /**
+     * Creates the registry and subscribes to epoch changes from other nodes.
+     *
+     * @param stringRedisTemplate Redis template
+     * @param listenerContainer container for the epoch change subscription
+     * @param eventPublisher publisher for {@link UserTokensRevokedEvent}
+     * @param retentionMs how long an epoch is kept, the refresh token lifetime in milliseconds
+     */
+    public TokenEpochRegistry(
+            StringRedisTemplate stringRedisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${jwt.refresh-expiration}") long retentionMs) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.eventPublisher = eventPublisher;
+        this.retentionMs = retentionMs;
+        listenerContainer.addMessageListener(
+                (message, pattern) ->
+                        onEpochMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(EPOCH_CHANNEL));
+    }
+
+    /**
+     * Returns the current token epoch of a user.
+     *
+     * @param subject user identifier (UUID as string)
+     * @return current epoch, {@code 0} if the user was never revoked
+     */
+    public long currentEpoch(String subject) {
+        Long epoch = epochs.get(subject);
+        return epoch == null ? 0L : epoch;
+    }
+
+    /**
+     * Revokes every token issued to a user so far, e.g. on logout-everywhere or suspension.
+     *
+     * @param subject user identifier (UUID as string)
+     * @return new epoch
+     */
+    public long revokeAll(String subject) {
+        Long epoch =
+                stringRedisTemplate.execute(
+                        REVOKE_SCRIPT,
+                        List.of(EPOCHS_KEY),
+                        subject,
+                        Long.toString(retentionMs));
+        if (epoch == null) {
+            throw new IllegalStateException("Token epoch update returned no value");
+        }
+        apply(subject, epoch, true);
+        stringRedisTemplate.convertAndSend(EPOCH_CHANNEL, subject + MESSAGE_SEPARATOR + epoch);
+        return epoch;
+    }
+
+    /**
+     * Re-reads the epochs from Redis and drops expired ones; also loads them at startup.
+     *
+     * <p>Until one read succeeds, runs publish no {@link UserTokensRevokedEvent}: nothing is cached
+     * yet, so there is nothing to evict, and the epochs are enforced through {@link
+     * #currentEpoch(String)}.
+     */
+    @Scheduled(fixedDelayString = "${jwt.epoch.reconcile-interval-ms:30000}")
+    public void reconcile() {
+        long cutoff = System.currentTimeMillis() - retentionMs;
+        epochs.values().removeIf(epoch -> epoch < cutoff);
+        Set<ZSetOperations.TypedTuple<String>> entries;
+        try {
+            entries =
+                    stringRedisTemplate
+                            .opsForZSet()
+                            .rangeByScoreWithScores(EPOCHS_KEY, cutoff, Double.POSITIVE_INFINITY);
+        } catch (RuntimeException e) {
+            logger.warn("Cannot reconcile token epochs: {}", e.getMessage());
+            return;
+        }
+        if (entries == null) {
+            return;
+        }
+        for (ZSetOperations.TypedTuple<String> entry : entries) {
+            if (entry.getValue() != null && entry.getScore() != null) {
+                apply(entry.getValue(), entry.getScore().longValue(), loaded);
+            }
+        }
+        loaded = true;
+    }
+
+    void onEpochMessage(String body) {
+        int separator = body.indexOf(MESSAGE_SEPARATOR);
+        if (separator <= 0) {
+            logger.warn("Ignoring malformed token epoch message");
+            return;
+        }
+        apply(body.substring(0, separator), parse(body.substring(separator + 1)), true);
+    }
+
+    private void apply(String subject, long epoch, boolean publish) {
+        long previous = currentEpoch(subject);
+        if (epoch > previous && epochs.merge(subject, epoch, Math::max) == epoch && publish) {
+            eventPublisher.publishEvent(new UserTokensRevokedEvent(subject, epoch));
+        }
+    }
+
+    private static long parse(String epoch) {
+        try {
+            return Long.parseLong(epoch.trim());
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
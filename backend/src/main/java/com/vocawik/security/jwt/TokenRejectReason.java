@@ -0,0 +1,19 @@
+package com.vocawik.security.jwt;
+
+/** Reason a bearer token was rejected, used as the {@code reason} tag of rejection counters. */
+public enum TokenRejectReason {
+    /** Token is empty, too long, or has an unexpected signature length. */
+    LENGTH,
+    /** Token does not consist of exactly three dot-separated segments. */
+    SEGMENTS,
+    /** Header segment does not match the header this service issues. */
+    HEADER,
+    /** Payload or signature contains characters outside the base64url alphabet. */
+    ENCODING,
+    /** Token was recently rejected and is still in the negative cache. */
+    NEGATIVE_CACHE,
+    /** Token is well-formed but failed signature, expiry or claim verification. */
+    VERIFICATION,
+    /** Token is valid but was issued before its subject's tokens were revoked. */
+    REVOKED
+}
@@ -0,0 +1,10 @@
+package com.vocawik.security.jwt;
+
+/**
+ * Published by {@link TokenEpochRegistry} when a user's token epoch advances on this node, either
+ * locally or through a change received from another node.
+ *
+ * @param subject user identifier (UUID as string)
+ * @param epoch new token epoch; tokens issued below it are revoked
+ */
+public record UserTokensRevokedEvent(String subject, long epoch) {}
@@ -0,0 +1,25 @@
+package com.vocawik.security.jwt;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature, issuer, audience, type and expiry have already been verified.
+ *
+ * @param subject user identifier (UUID as string)
+ * @param role user role, or {@code null} when absent
+ * @param type token type ({@code ACCESS} or {@code REFRESH})
+ * @param tokenId token ID (jti), or {@code null} when absent
+ * @param family refresh token family ID, or {@code null} when absent
+ * @param generation refresh token generation within its family, or {@code null} when absent
+ * @param epoch subject token epoch the token was issued at, {@code 0} when absent
+ * @param expiresAt token expiration time
+ */
+public record VerifiedToken(
+        String subject,
+        String role,
+        String type,
+        String tokenId,
+        String family,
+        Long generation,
+        long epoch,
+        Instant expiresAt) {}
@@ -1,43 +1,35 @@
 package com.vocawik.service.auth;
 
-import com.vocawik.common.auth.AuthProvider;
-import com.vocawik.domain.user.User;
-import com.vocawik.domain.user.UserAuthProvider;
-import com.vocawik.repository.user.UserAuthProviderRepository;
-import com.vocawik.repository.user.UserRepository;
 import com.vocawik.security.jwt.JwtProvider;
+import com.vocawik.security.jwt.TokenEpochRegistry;
+import com.vocawik.security.jwt.VerifiedToken;
 import com.vocawik.web.exception.UnauthorizedException;
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.HexFormat;
+import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 /** Authentication service for OAuth login and token issuance. */
 @Service
 @RequiredArgsConstructor
-@SuppressFBWarnings(
-        value = "EI_EXPOSE_REP2",
-        justification =
-                "StringRedisTemplate is a Spring-managed infrastructure bean and is not exposed externally.")
 public class AuthService {
 
-    private static final String REFRESH_USED_KEY_PREFIX = "auth:refresh:used:";
-    private static final String REFRESH_REVOKED_FAMILY_KEY_PREFIX = "auth:refresh:family:revoked:";
+    private static final String LEGACY_ID_PREFIX = "legacy:";
 
     private final GoogleOAuthClient googleOAuthClient;
+    private final GoogleIdTokenVerifier googleIdTokenVerifier;
     private final OAuthProperties oAuthProperties;
-    private final UserRepository userRepository;
-    private final UserAuthProviderRepository userAuthProviderRepository;
+    private final LoginIdentityService loginIdentityService;
     private final JwtProvider jwtProvider;
-    private final StringRedisTemplate stringRedisTemplate;
+    private final RefreshTokenStore refreshTokenStore;
+    private final TokenEpochRegistry tokenEpochRegistry;
 
     /**
      * Builds Google OAuth authorize URL.
@@ -62,31 +54,29 @@ public class AuthService {
     /**
      * Handles Google OAuth callback and returns issued token bundle.
      *
+     * <p>Runs in two phases: the provider calls happen outside any transaction, and only the user
+     * lookup/link runs in a short transaction in {@link LoginIdentityService}. A slow provider
+     * therefore never holds a database connection. The profile is read from the id_token,
+     * verified locally; the userinfo endpoint is called only when that fails.
+     *
      * @param code authorization code
      * @return issued tokens
      */
-    @Transactional
     public AuthTokenBundle authenticateGoogle(String code) {
         GoogleTokenResponse tokenResponse = googleOAuthClient.exchangeCode(code);
-        GoogleUserInfo userInfo = googleOAuthClient.fetchUserInfo(tokenResponse.accessToken());
-
-        User user =
-                userAuthProviderRepository
-                        .findByProviderAndProviderUserId(AuthProvider.GOOGLE, userInfo.sub())
-                        .map(UserAuthProvider::getUser)
-                        .orElseGet(() -> linkOrCreateGoogleUser(userInfo));
-
-        user.touchLastLoginAt();
+        GoogleUserInfo userInfo =
+                googleIdTokenVerifier
+                        .verify(tokenResponse.idToken())
+                        .orElseGet(
+                                () -> googleOAuthClient.fetchUserInfo(tokenResponse.accessToken()));
 
-        String role = user.getRole().name();
-        String accessToken = jwtProvider.generateAccessToken(user.getUuid(), role);
-        String familyId = UUID.randomUUID().toString();
-        String refreshToken =
-                jwtProvider.generateRefreshToken(
-                        user.getUuid(), role, familyId, UUID.randomUUID().toString());
+        LoginIdentity identity = loginIdentityService.resolveGoogleUser(userInfo);
 
-        return new AuthTokenBundle(
-                accessToken, refreshToken, jwtProvider.getAccessExpirationSeconds());
+        return issueBundle(
+                identity.userUuid(),
+                identity.role(),
+                jwtProvider.newTokenId(),
+                JwtProvider.INITIAL_REFRESH_GENERATION);
     }
 
     /**
@@ -96,40 +86,60 @@ public class AuthService {
      * @return reissued token bundle
      */
     public AuthTokenBundle refresh(String refreshToken) {
-        if (refreshToken == null || !jwtProvider.validateRefreshToken(refreshToken)) {
-            throw new UnauthorizedException("Invalid or missing refresh token.");
+        VerifiedToken verified =
+                Optional.ofNullable(refreshToken)
+                        .flatMap(jwtProvider::verifyRefreshToken)
+                        .orElseThrow(
+                                () ->
+                                        new UnauthorizedException(
+                                                "Invalid or missing refresh token."));
+
+        String subject = verified.subject();
+        String role = verified.role();
+        String familyId = resolveRefreshFamily(verified);
+        String tokenId = resolveRefreshTokenId(refreshToken, verified);
+        Long generation = verified.generation();
+        Duration refreshTtl = Duration.ofSeconds(jwtProvider.getRefreshExpirationSeconds());
+
+        if (verified.epoch() < tokenEpochRegistry.currentEpoch(subject)) {
+            throw new UnauthorizedException("Session was revoked. Please sign in again.");
         }
 
-        String subject = jwtProvider.getSubject(refreshToken);
-        String role = jwtProvider.getRole(refreshToken);
-        String familyId = resolveRefreshFamily(refreshToken, subject);
-        String tokenId = resolveRefreshTokenId(refreshToken);
-        Duration refreshTtl = Duration.ofSeconds(jwtProvider.getRefreshExpirationSeconds());
+        // The claims of the next bundle are chosen up front so the rotation script can keep them
+        // for duplicate refreshes of the same token within the grace period. Tokens are signed
+        // only once the rotation succeeded.
+        RefreshRotation rotation;
+        if (generation != null) {
+            RefreshGrant next = newGrant(subject, familyId, generation + 1);
+            rotation = refreshTokenStore.rotate(familyId, generation, tokenId, refreshTtl, next);
+        } else {
+            // Token predates generations: continue its family at the first generation. Legacy
+            // families derived from the subject are shared across sessions, so start a new one.
+            String nextFamilyId =
+                    familyId.startsWith(LEGACY_ID_PREFIX) ? jwtProvider.newTokenId() : familyId;
+            RefreshGrant next =
+                    newGrant(subject, nextFamilyId, JwtProvider.INITIAL_REFRESH_GENERATION);
+            rotation = refreshTokenStore.rotateLegacy(familyId, tokenId, refreshTtl, next);
+        }
 
-        if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(refreshFamilyRevokedKey(familyId)))) {
+        if (rotation.verdict() == RefreshRotationVerdict.REVOKED) {
             throw new UnauthorizedException(
                     "Refresh token family is revoked. Please sign in again.");
         }
-
-        boolean firstUse =
-                Boolean.TRUE.equals(
-                        stringRedisTemplate
-                                .opsForValue()
-                                .setIfAbsent(REFRESH_USED_KEY_PREFIX + tokenId, "1", refreshTtl));
-        if (!firstUse) {
-            stringRedisTemplate
-                    .opsForValue()
-                    .set(refreshFamilyRevokedKey(familyId), "1", refreshTtl);
+        if (rotation.verdict() == RefreshRotationVerdict.REUSED) {
             throw new UnauthorizedException("Refresh token reuse detected. Please sign in again.");
         }
+        // a duplicate gets the stored grant, which signs to the same bundle
+        return issueBundle(subject, role, rotation.grant());
+    }
 
-        String accessToken = jwtProvider.generateAccessToken(subject, role);
-        String nextRefreshToken =
-                jwtProvider.generateRefreshToken(
-                        subject, role, familyId, UUID.randomUUID().toString());
-
-        return new AuthTokenBundle(
-                accessToken, nextRefreshToken, jwtProvider.getAccessExpirationSeconds());
+    /**
+     * Revokes every access and refresh token issued to a user so far.
+     *
+     * @param userUuid user identifier
+     */
+    public void revokeAllTokens(UUID userUuid) {
+        tokenEpochRegistry.revokeAll(userUuid.toString());
     }
 
     /**
@@ -141,62 +151,56 @@ public class AuthService {
         return jwtProvider.getRefreshExpirationSeconds();
     }
 
-    private User linkOrCreateGoogleUser(GoogleUserInfo userInfo) {
-        User user =
-                userRepository
-                        .findByEmail(userInfo.email())
-                        .orElseGet(
-                                () ->
-                                        userRepository.save(
-                                                User.create(
-                                                        userInfo.email(),
-                                                        resolveNickname(
-                                                                userInfo.name(),
-                                                                userInfo.email()))));
-
-        UserAuthProvider mapping =
-                UserAuthProvider.link(user, AuthProvider.GOOGLE, userInfo.sub(), userInfo.email());
-        userAuthProviderRepository.save(mapping);
-        return user;
+    private AuthTokenBundle issueBundle(
+            String subject, String role, String familyId, long generation) {
+        return issueBundle(subject, role, newGrant(subject, familyId, generation));
     }
 
-    private String resolveNickname(String name, String email) {
-        if (name != null && !name.isBlank()) {
-            return truncate(name.trim(), 100);
-        }
-        int at = email.indexOf('@');
-        String localPart = at > 0 ? email.substring(0, at) : email;
-        return truncate(localPart, 100);
+    private RefreshGrant newGrant(String subject, String familyId, long generation) {
+        return new RefreshGrant(
+                familyId,
+                generation,
+                jwtProvider.newTokenId(),
+                tokenEpochRegistry.currentEpoch(subject),
+                Instant.now());
     }
 
-    private String truncate(String value, int max) {
-        return value.length() <= max ? value : value.substring(0, max);
+    private AuthTokenBundle issueBundle(String subject, String role, RefreshGrant grant) {
+        String accessToken =
+                jwtProvider.generateAccessToken(subject, role, grant.epoch(), grant.issuedAt());
+        String refreshToken =
+                jwtProvider.generateRefreshToken(
+                        subject,
+                        role,
+                        grant.familyId(),
+                        grant.tokenId(),
+                        grant.generation(),
+                        grant.epoch(),
+                        grant.issuedAt());
+        return new AuthTokenBundle(
+                accessToken, refreshToken, jwtProvider.getAccessExpirationSeconds());
     }
 
     private String encode(String value) {
         return URLEncoder.encode(value, StandardCharsets.UTF_8);
     }
 
-    private String resolveRefreshFamily(String refreshToken, String subject) {
-        String familyId = jwtProvider.getRefreshFamily(refreshToken);
+    private String resolveRefreshFamily(VerifiedToken verified) {
+        String familyId = verified.family();
         if (familyId == null || familyId.isBlank()) {
-            return "legacy:" + subject;
+            return LEGACY_ID_PREFIX + verified.subject();
         }
         return familyId;
     }
 
-    private String resolveRefreshTokenId(String refreshToken) {
-        String tokenId = jwtProvider.getTokenId(refreshToken);
+    private String resolveRefreshTokenId(String refreshToken, VerifiedToken verified) {
+        String tokenId = verified.tokenId();
         if (tokenId == null || tokenId.isBlank()) {
-            return "legacy:" + sha256(refreshToken);
+            return LEGACY_ID_PREFIX + sha256(refreshToken);
         }
         return tokenId;
     }
 
-    private String refreshFamilyRevokedKey(String familyId) {
-        return REFRESH_REVOKED_FAMILY_KEY_PREFIX + familyId;
-    }
-
     private String sha256(String value) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
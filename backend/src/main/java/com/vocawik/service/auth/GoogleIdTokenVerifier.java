@@ -0,0 +1,100 @@
+package com.vocawik.service.auth;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.ProtectedHeader;
+import java.security.Key;
+import java.util.Optional;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Verifies Google id_tokens locally against the cached {@link GoogleJwksCache} keys.
+ *
+ * <p>Checks the signature, expiry, issuer and audience as required by OpenID Connect. A token
+ * that cannot be verified yields an empty result so the caller can fall back to the userinfo
+ * endpoint.
+ */
+@Slf4j
+@Component
+public class GoogleIdTokenVerifier {
+
+    private static final Set<String> ISSUERS =
+            Set.of("accounts.google.com", "https://accounts.google.com");
+
+    private final String clientId;
+    private final JwtParser parser;
+
+    /**
+     * Creates a verifier.
+     *
+     * @param jwksCache Google signing key cache
+     * @param oAuthProperties OAuth provider configuration holding the expected audience
+     * @param clockSkewSeconds tolerated clock difference for {@code exp}/{@code iat}
+     */
+    public GoogleIdTokenVerifier(
+            GoogleJwksCache jwksCache,
+            OAuthProperties oAuthProperties,
+            @Value("${oauth.google.id-token.clock-skew-seconds:30}") long clockSkewSeconds) {
+        this.clientId = oAuthProperties.getClientId();
+        this.parser =
+                Jwts.parser()
+                        .keyLocator(header -> locateKey(jwksCache, header))
+                        .clockSkewSeconds(clockSkewSeconds)
+                        .build();
+    }
+
+    /**
+     * Verifies an id_token and extracts the user profile from its claims.
+     *
+     * @param idToken id_token from the token endpoint response, may be {@code null}
+     * @return user profile, or empty if the token is absent or not valid for this client
+     */
+    public Optional<GoogleUserInfo> verify(String idToken) {
+        if (idToken == null || idToken.isBlank() || clientId == null || clientId.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            Claims claims = parser.parseSignedClaims(idToken).getPayload();
+            if (!ISSUERS.contains(claims.getIssuer())) {
+                logger.warn("Google id_token has unexpected issuer {}", claims.getIssuer());
+                return Optional.empty();
+            }
+            if (claims.getAudience() == null || !claims.getAudience().contains(clientId)) {
+                logger.warn("Google id_token was not issued for this client");
+                return Optional.empty();
+            }
+            String email = claims.get("email", String.class);
+            if (claims.getSubject() == null || email == null) {
+                return Optional.empty();
+            }
+            // Google has sent email_verified both as a boolean and as a string
+            Object emailVerified = claims.get("email_verified");
+            return Optional.of(
+                    new GoogleUserInfo(
+                            claims.getSubject(),
+                            email,
+                            emailVerified == null
+                                    ? null
+                                    : Boolean.valueOf(emailVerified.toString()),
+                            claims.get("name", String.class)));
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.warn("Google id_token rejected: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /** Key locator for the jjwt parser; {@code null} makes the parser reject the token. */
+    private static Key locateKey(GoogleJwksCache jwksCache, Header header) {
+        if (header instanceof ProtectedHeader protectedHeader
+                && protectedHeader.getKeyId() != null) {
+            return jwksCache.find(protectedHeader.getKeyId()).orElse(null);
+        }
+        return null;
+    }
+}
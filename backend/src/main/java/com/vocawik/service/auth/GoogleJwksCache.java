@@ -0,0 +1,161 @@
+package com.vocawik.service.auth;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * In-process cache of Google's id_token signing keys (JWKS).
+ *
+ * <p>The key set is fetched on first use and kept for the {@code max-age} Google sends in {@code
+ * Cache-Control}. A scheduled check re-fetches it shortly before it expires, so logins normally
+ * find a fresh key set without waiting on Google. A token signed with an unknown key ID triggers
+ * an immediate re-fetch (Google has rotated keys), throttled so unknown IDs cannot turn into a
+ * request per login. When a re-fetch fails the previous keys stay in use.
+ */
+@Slf4j
+@Component
+@SuppressFBWarnings(
+        value = "EI_EXPOSE_REP2",
+        justification =
+                "RestClient is a Spring-managed infrastructure bean and is not exposed externally.")
+public class GoogleJwksCache {
+
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    private final RestClient restClient;
+    private final String jwksUri;
+    private final Duration defaultMaxAge;
+    private final Duration refreshAhead;
+    private final Duration minRefreshInterval;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile Instant lastFetchAt = Instant.EPOCH;
+
+    /**
+     * Creates a JWKS cache.
+     *
+     * @param oAuthProperties OAuth provider configuration holding the JWKS endpoint
+     * @param restClient pooled REST client for OAuth provider calls
+     * @param defaultMaxAgeSeconds lifetime of a key set served without {@code max-age}
+     * @param refreshAheadSeconds how long before expiry the background check re-fetches
+     * @param minRefreshIntervalSeconds minimum time between two fetches on demand
+     */
+    public GoogleJwksCache(
+            OAuthProperties oAuthProperties,
+            @Qualifier("oAuthRestClient") RestClient restClient,
+            @Value("${oauth.google.jwks.default-max-age-seconds:3600}") long defaultMaxAgeSeconds,
+            @Value("${oauth.google.jwks.refresh-ahead-seconds:300}") long refreshAheadSeconds,
+            @Value("${oauth.google.jwks.min-refresh-interval-seconds:30}")
+                    long minRefreshIntervalSeconds) {
+        this.jwksUri = oAuthProperties.getJwksUri();
+        this.restClient = restClient;
+        this.defaultMaxAge = Duration.ofSeconds(defaultMaxAgeSeconds);
+        this.refreshAhead = Duration.ofSeconds(refreshAheadSeconds);
+        this.minRefreshInterval = Duration.ofSeconds(minRefreshIntervalSeconds);
+    }
+
+    /**
+     * Returns the signing key with the given key ID, fetching the key set if it is missing,
+     * expired, or does not contain the key.
+     *
+     * @param keyId key ID ({@code kid}) from the id_token header
+     * @return signing key, or empty if Google does not publish it
+     */
+    public Optional<Key> find(String keyId) {
+        Snapshot current = snapshot;
+        Key key = current.keys().get(keyId);
+        if (key != null && Instant.now().isBefore(current.expiresAt())) {
+            return Optional.of(key);
+        }
+        refresh(current);
+        return Optional.ofNullable(snapshot.keys().get(keyId));
+    }
+
+    /** Re-fetches a key set that has been used and is about to expire. */
+    @Scheduled(fixedDelayString = "${oauth.google.jwks.refresh-check-interval-ms:60000}")
+    public void refreshIfStale() {
+        Snapshot current = snapshot;
+        // nothing to keep warm until the first login has loaded the keys
+        if (current.keys().isEmpty()) {
+            return;
+        }
+        if (Instant.now().isAfter(current.expiresAt().minus(refreshAhead))) {
+            fetch();
+        }
+    }
+
+    /** Fetches on demand unless another thread already replaced {@code seen} or fetched lately. */
+    private synchronized void refresh(Snapshot seen) {
+        if (snapshot != seen) {
+            return;
+        }
+        if (Instant.now().isBefore(lastFetchAt.plus(minRefreshInterval))) {
+            return;
+        }
+        fetch();
+    }
+
+    private synchronized void fetch() {
+        lastFetchAt = Instant.now();
+        try {
+            ResponseEntity<String> response =
+                    restClient.get().uri(jwksUri).retrieve().toEntity(String.class);
+            String body = response.getBody();
+            if (body == null) {
+                logger.warn("Google JWKS response from {} is empty, keeping current keys", jwksUri);
+                return;
+            }
+            JwkSet jwkSet = Jwks.setParser().build().parse(body);
+            Map<String, Key> keys = new HashMap<>();
+            for (Jwk<?> jwk : jwkSet.getKeys()) {
+                if (jwk.getId() != null) {
+                    keys.put(jwk.getId(), jwk.toKey());
+                }
+            }
+            Duration maxAge = maxAge(response.getHeaders());
+            snapshot = new Snapshot(Map.copyOf(keys), lastFetchAt.plus(maxAge));
+            logger.debug("Loaded Google JWKS: keys={}, maxAge={}", keys.keySet(), maxAge);
+        } catch (RestClientException | JwtException | IllegalArgumentException e) {
+            logger.warn(
+                    "Cannot fetch Google JWKS from {}, keeping current keys: {}",
+                    jwksUri,
+                    e.getMessage());
+        }
+    }
+
+    private Duration maxAge(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null) {
+            Matcher matcher = MAX_AGE.matcher(cacheControl);
+            if (matcher.find()) {
+                return Duration.ofSeconds(Long.parseLong(matcher.group(1)));
+            }
+        }
+        return defaultMaxAge;
+    }
+
+    /** Key set and the time it stops being fresh, swapped atomically on fetch. */
+    private record Snapshot(Map<String, Key> keys, Instant expiresAt) {
+
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Instant.EPOCH);
+    }
+}
@@ -1,22 +1,107 @@
 package com.vocawik.service.auth;
 
+import com.vocawik.common.resilience.Bulkhead;
+import com.vocawik.common.resilience.CircuitBreaker;
 import com.vocawik.web.error.ErrorCode;
 import com.vocawik.web.exception.BusinessException;
-import lombok.RequiredArgsConstructor;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
 
-/** Google OAuth API client for token exchange and user info retrieval. */
+/**
+ * Google OAuth API client for token exchange and user info retrieval.
+ *
+ * <p>Calls go through the pooled {@code oAuthRestClient} with connect/read timeouts, a {@link
+ * Bulkhead} capping concurrent calls, and a {@link CircuitBreaker} that fails logins fast with
+ * {@link ErrorCode#OAUTH_TOKEN_EXCHANGE_FAILED} while Google is failing. Client errors (4xx, e.g.
+ * an expired authorization code) are answers from a healthy provider and do not count as
+ * failures.
+ */
+@Slf4j
 @Component
-@RequiredArgsConstructor
+@SuppressFBWarnings(
+        value = "EI_EXPOSE_REP2",
+        justification =
+                "RestClient and MeterRegistry are Spring-managed infrastructure beans and are not"
+                        + " exposed externally.")
 public class GoogleOAuthClient {
 
+    private static final String OUTCOME_SUCCESS = "success";
+    private static final String OUTCOME_CLIENT_ERROR = "client_error";
+    private static final String OUTCOME_ERROR = "error";
+
     private final OAuthProperties oAuthProperties;
-    private final RestClient restClient = RestClient.create();
+    private final RestClient restClient;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final Counter circuitOpenRejections;
+    private final Counter bulkheadFullRejections;
+
+    /**
+     * Creates a Google OAuth client.
+     *
+     * @param oAuthProperties OAuth provider configuration
+     * @param restClient pooled REST client for OAuth provider calls
+     * @param meterRegistry registry for latency, bulkhead and circuit breaker metrics
+     * @param maxConcurrentCalls bulkhead size
+     * @param maxWaitMs how long a call may wait for a bulkhead permit
+     * @param windowSize calls the circuit breaker failure rate is computed over
+     * @param minimumCalls calls needed before the circuit breaker may open
+     * @param failureRateThreshold failure rate (percent) that opens the circuit breaker
+     * @param openDurationMs how long the circuit breaker stays open
+     */
+    public GoogleOAuthClient(
+            OAuthProperties oAuthProperties,
+            @Qualifier("oAuthRestClient") RestClient restClient,
+            MeterRegistry meterRegistry,
+            @Value("${oauth.http.bulkhead.max-concurrent-calls:20}") int maxConcurrentCalls,
+            @Value("${oauth.http.bulkhead.max-wait-ms:100}") long maxWaitMs,
+            @Value("${oauth.http.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${oauth.http.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${oauth.http.circuit-breaker.failure-rate-threshold:50}")
+                    int failureRateThreshold,
+            @Value("${oauth.http.circuit-breaker.open-duration-ms:30000}") long openDurationMs) {
+        this.oAuthProperties = oAuthProperties;
+        this.restClient = restClient;
+        this.meterRegistry = meterRegistry;
+        this.bulkhead = new Bulkhead(maxConcurrentCalls, Duration.ofMillis(maxWaitMs));
+        this.circuitBreaker =
+                new CircuitBreaker(
+                        windowSize,
+                        minimumCalls,
+                        failureRateThreshold,
+                        Duration.ofMillis(openDurationMs));
+        this.circuitOpenRejections = rejectionCounter(meterRegistry, "circuit_open");
+        this.bulkheadFullRejections = rejectionCounter(meterRegistry, "bulkhead_full");
+        Gauge.builder("oauth.google.bulkhead.active", bulkhead, Bulkhead::inFlightCalls)
+                .description("Google OAuth calls in flight")
+                .strongReference(true)
+                .register(meterRegistry);
+        Gauge.builder("oauth.google.bulkhead.max", bulkhead, Bulkhead::maxConcurrentCalls)
+                .description("Maximum concurrent Google OAuth calls")
+                .strongReference(true)
+                .register(meterRegistry);
+        Gauge.builder("oauth.google.circuit.state", circuitBreaker, b -> b.state().ordinal())
+                .description("Google OAuth circuit breaker state (0 closed, 1 half-open, 2 open)")
+                .strongReference(true)
+                .register(meterRegistry);
+    }
 
     /**
      * Exchanges authorization code for Google access token.
@@ -31,24 +116,24 @@ public class GoogleOAuthClient {
         form.add("client_secret", oAuthProperties.getClientSecret());
         form.add("redirect_uri", oAuthProperties.getRedirectUri());
         form.add("grant_type", "authorization_code");
-        try {
-            GoogleTokenResponse tokenResponse =
-                    restClient
-                            .post()
-                            .uri(oAuthProperties.getTokenUri())
-                            .contentType(MediaType.APPLICATION_FORM_URLENCODED)
-                            .body(form)
-                            .retrieve()
-                            .body(GoogleTokenResponse.class);
+        GoogleTokenResponse tokenResponse =
+                execute(
+                        "token",
+                        ErrorCode.OAUTH_TOKEN_EXCHANGE_FAILED,
+                        "OAuth token exchange failed.",
+                        () ->
+                                restClient
+                                        .post()
+                                        .uri(oAuthProperties.getTokenUri())
+                                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                                        .body(form)
+                                        .retrieve()
+                                        .body(GoogleTokenResponse.class));
 
-            if (tokenResponse == null || tokenResponse.accessToken() == null) {
-                throw new BusinessException(ErrorCode.OAUTH_TOKEN_EXCHANGE_FAILED);
-            }
-            return tokenResponse;
-        } catch (RestClientException ex) {
-            throw new BusinessException(
-                    ErrorCode.OAUTH_TOKEN_EXCHANGE_FAILED, "OAuth token exchange failed.");
+        if (tokenResponse == null || tokenResponse.accessToken() == null) {
+            throw new BusinessException(ErrorCode.OAUTH_TOKEN_EXCHANGE_FAILED);
         }
+        return tokenResponse;
     }
 
     /**
@@ -58,21 +143,76 @@ public class GoogleOAuthClient {
      * @return normalized user profile
      */
     public GoogleUserInfo fetchUserInfo(String accessToken) {
+        GoogleUserInfo userInfo =
+                execute(
+                        "userinfo",
+                        ErrorCode.OAUTH_USERINFO_FETCH_FAILED,
+                        "OAuth user info fetch failed.",
+                        () ->
+                                restClient
+                                        .get()
+                                        .uri(oAuthProperties.getUserInfoUri())
+                                        .header("Authorization", "Bearer " + accessToken)
+                                        .retrieve()
+                                        .body(GoogleUserInfo.class));
+        if (userInfo == null || userInfo.sub() == null || userInfo.email() == null) {
+            throw new BusinessException(ErrorCode.OAUTH_USERINFO_FETCH_FAILED);
+        }
+        return userInfo;
+    }
+
+    /**
+     * Runs a provider call under the circuit breaker and bulkhead and records its latency.
+     *
+     * @throws BusinessException with {@code errorCode} if the call fails, or with {@link
+     *     ErrorCode#OAUTH_TOKEN_EXCHANGE_FAILED} if it is rejected without being made
+     */
+    private <T> T execute(
+            String operation, ErrorCode errorCode, String failureMessage, Supplier<T> call) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            circuitOpenRejections.increment();
+            throw new BusinessException(
+                    ErrorCode.OAUTH_TOKEN_EXCHANGE_FAILED, "OAuth provider is unavailable.");
+        }
+        if (!bulkhead.tryAcquire()) {
+            circuitBreaker.releasePermission();
+            bulkheadFullRejections.increment();
+            throw new BusinessException(
+                    ErrorCode.OAUTH_TOKEN_EXCHANGE_FAILED, "OAuth provider is busy.");
+        }
+
+        long startedAt = System.nanoTime();
+        String outcome = OUTCOME_ERROR;
         try {
-            GoogleUserInfo userInfo =
-                    restClient
-                            .get()
-                            .uri(oAuthProperties.getUserInfoUri())
-                            .header("Authorization", "Bearer " + accessToken)
-                            .retrieve()
-                            .body(GoogleUserInfo.class);
-            if (userInfo == null || userInfo.sub() == null || userInfo.email() == null) {
-                throw new BusinessException(ErrorCode.OAUTH_USERINFO_FETCH_FAILED);
-            }
-            return userInfo;
+            T result = call.get();
+            outcome = OUTCOME_SUCCESS;
+            return result;
+        } catch (HttpClientErrorException ex) {
+            outcome = OUTCOME_CLIENT_ERROR;
+            throw new BusinessException(errorCode, failureMessage);
         } catch (RestClientException ex) {
-            throw new BusinessException(
-                    ErrorCode.OAUTH_USERINFO_FETCH_FAILED, "OAuth user info fetch failed.");
+            logger.warn("Google OAuth {} call failed: {}", operation, ex.getMessage());
+            throw new BusinessException(errorCode, failureMessage);
+        } finally {
+            bulkhead.release();
+            if (OUTCOME_ERROR.equals(outcome)) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+            Timer.builder("oauth.google.request")
+                    .description("Google OAuth call latency")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
         }
     }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("oauth.google.rejected")
+                .description("Google OAuth calls rejected without being made")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
 }
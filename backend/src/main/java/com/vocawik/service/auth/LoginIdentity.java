@@ -0,0 +1,9 @@
+package com.vocawik.service.auth;
+
+/**
+ * User identity resolved at login, detached from the persistence context.
+ *
+ * @param userUuid user identifier used as token subject
+ * @param role user role name
+ */
+public record LoginIdentity(String userUuid, String role) {}
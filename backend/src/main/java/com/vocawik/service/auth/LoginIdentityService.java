@@ -0,0 +1,162 @@
+package com.vocawik.service.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vocawik.common.auth.AuthProvider;
+import com.vocawik.domain.user.User;
+import com.vocawik.domain.user.UserAuthProvider;
+import com.vocawik.repository.user.ProviderLinkedUser;
+import com.vocawik.repository.user.UserAuthProviderRepository;
+import com.vocawik.repository.user.UserRepository;
+import com.vocawik.security.jwt.UserTokensRevokedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Links or creates the local user for an OAuth login.
+ *
+ * <p>Only the database work of a login runs here, so the transaction (and its pooled connection)
+ * is held for a few queries rather than for the provider round trips that precede it.
+ *
+ * <p>A returning user is resolved with one projection query, and the result is cached per
+ * provider identity, so repeated logins only issue the {@code last_login_at} update. Cached
+ * entries expire after a TTL and are evicted when the user's tokens are revoked (which every
+ * instance observes) or through {@link #evictUser(String)} when a user changes.
+ */
+@Service
+public class LoginIdentityService {
+
+    private static final String LINKED_USER_CACHE_NAME = "auth.linked-users";
+    private static final int NICKNAME_MAX_LENGTH = 100;
+
+    private final UserRepository userRepository;
+    private final UserAuthProviderRepository userAuthProviderRepository;
+    private final Cache<ProviderIdentity, ProviderLinkedUser> linkedUsers;
+
+    /**
+     * Creates a login identity service.
+     *
+     * @param userRepository user repository
+     * @param userAuthProviderRepository provider mapping repository
+     * @param meterRegistry registry for cache metrics
+     * @param cacheMaximumSize maximum number of cached provider identities
+     * @param cacheTtlSeconds how long a cached provider identity is trusted
+     */
+    public LoginIdentityService(
+            UserRepository userRepository,
+            UserAuthProviderRepository userAuthProviderRepository,
+            MeterRegistry meterRegistry,
+            @Value("${auth.linked-user-cache.maximum-size:10000}") long cacheMaximumSize,
+            @Value("${auth.linked-user-cache.ttl-seconds:600}") long cacheTtlSeconds) {
+        this.userRepository = userRepository;
+        this.userAuthProviderRepository = userAuthProviderRepository;
+        this.linkedUsers =
+                Caffeine.newBuilder()
+                        .maximumSize(cacheMaximumSize)
+                        .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                        .recordStats()
+                        .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, linkedUsers, LINKED_USER_CACHE_NAME);
+    }
+
+    /**
+     * Resolves the user linked to a Google account, linking or creating one if needed, and records
+     * the login time.
+     *
+     * @param userInfo verified Google profile
+     * @return identity of the logged-in user
+     */
+    @Transactional
+    public LoginIdentity resolveGoogleUser(GoogleUserInfo userInfo) {
+        ProviderIdentity key = new ProviderIdentity(AuthProvider.GOOGLE, userInfo.sub());
+        LocalDateTime now = LocalDateTime.now();
+
+        ProviderLinkedUser cached = linkedUsers.getIfPresent(key);
+        if (cached != null) {
+            if (userRepository.updateLastLoginAt(cached.userId(), now) > 0) {
+                return toLoginIdentity(cached);
+            }
+            // the cached user is gone; resolve the identity again
+            linkedUsers.invalidate(key);
+        }
+
+        ProviderLinkedUser linked =
+                userAuthProviderRepository
+                        .findLinkedUser(AuthProvider.GOOGLE, userInfo.sub())
+                        .orElse(null);
+        if (linked != null) {
+            userRepository.updateLastLoginAt(linked.userId(), now);
+            linkedUsers.put(key, linked);
+            return toLoginIdentity(linked);
+        }
+
+        // not cached yet: the new mapping only becomes visible once this transaction commits
+        User user = linkOrCreateGoogleUser(userInfo);
+        user.touchLastLoginAt();
+        return new LoginIdentity(user.getUuid(), user.getRole().name());
+    }
+
+    /**
+     * Drops cached provider identities of a user, e.g. after its role or status changed.
+     *
+     * @param userUuid user identifier
+     */
+    public void evictUser(String userUuid) {
+        linkedUsers.asMap().values().removeIf(linked -> userUuid.equals(linked.userUuid()));
+    }
+
+    /**
+     * Drops cached provider identities of a user whose tokens were revoked.
+     *
+     * @param event revocation event
+     */
+    @EventListener
+    public void onUserTokensRevoked(UserTokensRevokedEvent event) {
+        evictUser(event.subject());
+    }
+
+    private User linkOrCreateGoogleUser(GoogleUserInfo userInfo) {
+        User user =
+                userRepository
+                        .findByEmail(userInfo.email())
+                        .orElseGet(
+                                () ->
+                                        userRepository.save(
+                                                User.create(
+                                                        userInfo.email(),
+                                                        resolveNickname(
+                                                                userInfo.name(),
+                                                                userInfo.email()))));
+
+        UserAuthProvider mapping =
+                UserAuthProvider.link(user, AuthProvider.GOOGLE, userInfo.sub(), userInfo.email());
+        userAuthProviderRepository.save(mapping);
+        return user;
+    }
+
+    private static LoginIdentity toLoginIdentity(ProviderLinkedUser linked) {
+        return new LoginIdentity(linked.userUuid(), linked.role().name());
+    }
+
+    private String resolveNickname(String name, String email) {
+        if (name != null && !name.isBlank()) {
+            return truncate(name.trim(), NICKNAME_MAX_LENGTH);
+        }
+        int at = email.indexOf('@');
+        String localPart = at > 0 ? email.substring(0, at) : email;
+        return truncate(localPart, NICKNAME_MAX_LENGTH);
+    }
+
+    private String truncate(String value, int max) {
+        return value.length() <= max ? value : value.substring(0, max);
+    }
+
+    /** Cache key: a provider-side identity. */
+    private record ProviderIdentity(AuthProvider provider, String providerUserId) {}
+}
@@ -13,6 +13,7 @@ public class OAuthProperties {
     private final String authUri;
     private final String tokenUri;
     private final String userInfoUri;
+    private final String jwksUri;
     private final String redirectUri;
 
     /**
@@ -23,6 +24,7 @@ public class OAuthProperties {
      * @param authUri google authorize endpoint
      * @param tokenUri google token endpoint
      * @param userInfoUri google userinfo endpoint
+     * @param jwksUri google id_token signing keys (JWKS) endpoint
      * @param redirectUri oauth callback redirect uri
      */
     public OAuthProperties(
@@ -33,12 +35,15 @@ public class OAuthProperties {
             @Value("${oauth.google.token-uri:https://oauth2.googleapis.com/token}") String tokenUri,
             @Value("${oauth.google.user-info-uri:https://openidconnect.googleapis.com/v1/userinfo}")
                     String userInfoUri,
+            @Value("${oauth.google.jwks-uri:https://www.googleapis.com/oauth2/v3/certs}")
+                    String jwksUri,
             @Value("${oauth.google.redirect-uri:}") String redirectUri) {
         this.clientId = clientId;
         this.clientSecret = clientSecret;
         this.authUri = authUri;
         this.tokenUri = tokenUri;
         this.userInfoUri = userInfoUri;
+        this.jwksUri = jwksUri;
         this.redirectUri = redirectUri;
     }
 }
@@ -0,0 +1,18 @@
+package com.vocawik.service.auth;
+
+import java.time.Instant;
+
+/**
+ * Claims of the token bundle issued by a refresh rotation, enough to sign that bundle again.
+ *
+ * <p>Kept for the grace period in place of the tokens themselves, so a duplicate refresh gets the
+ * same bundle while a read of Redis never yields usable credentials.
+ *
+ * @param familyId refresh token family of the next refresh token
+ * @param generation generation of the next refresh token
+ * @param tokenId ID (jti) of the next refresh token
+ * @param epoch subject's token epoch the bundle is bound to
+ * @param issuedAt issue time of the bundle
+ */
+public record RefreshGrant(
+        String familyId, long generation, String tokenId, long epoch, Instant issuedAt) {}
@@ -0,0 +1,10 @@
+package com.vocawik.service.auth;
+
+/**
+ * Result of a refresh token rotation.
+ *
+ * @param verdict rotation verdict
+ * @param grant claims of the bundle to sign for {@link RefreshRotationVerdict#OK} and {@link
+ *     RefreshRotationVerdict#DUPLICATE}, otherwise {@code null}
+ */
+public record RefreshRotation(RefreshRotationVerdict verdict, RefreshGrant grant) {}
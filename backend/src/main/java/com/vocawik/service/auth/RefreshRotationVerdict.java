@@ -0,0 +1,20 @@
+package com.vocawik.service.auth;
+
+/** Outcome of rotating a refresh token in {@link RefreshTokenStore}. */
+public enum RefreshRotationVerdict {
+
+    /** First use of the token; a new token may be issued. */
+    OK,
+
+    /**
+     * The token was rotated moments ago, within the grace period; the bundle issued then is
+     * returned again.
+     */
+    DUPLICATE,
+
+    /** The token was already used; its family has been revoked. */
+    REUSED,
+
+    /** The token's family was revoked earlier. */
+    REVOKED
+}
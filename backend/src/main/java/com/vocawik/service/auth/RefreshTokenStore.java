@@ -0,0 +1,209 @@
+package com.vocawik.service.auth;
+
+import com.vocawik.security.jwt.JwtProvider;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis-backed refresh token rotation state.
+ *
+ * <p>Each family has one generation record holding the generation its next refresh must carry.
+ * Rotation is a compare-and-increment on that record; presenting any other generation means an
+ * older token was replayed, and the family is revoked. Redis memory therefore grows with the
+ * number of active families, not with refresh volume.
+ *
+ * <p>Tokens issued before generations existed are rotated through per-token "used" markers until
+ * they expire. Each path is one Lua script ({@code redis/refresh-rotate*.lua}), so a rotation
+ * costs one round trip and concurrent refreshes cannot interleave between its steps. Scripts are
+ * sent by SHA ({@code EVALSHA}) and only uploaded again when the server does not have them.
+ *
+ * <p>Callers pick the claims of the next bundle, a {@link RefreshGrant}, before rotating, and sign
+ * it only once the rotation succeeded. On success the script keeps the grant for {@code
+ * auth.refresh.grace-period-ms} under the presented token's jti, and a second refresh of the same
+ * token within that window (parallel tabs sharing one cookie) gets the grant back and signs the
+ * same bundle again instead of revoking the family. Only claims are stored, never tokens. Outside
+ * the window a repeated token is still treated as reuse.
+ *
+ * <p>Each call is recorded in the {@code auth.refresh.rotation} timer, tagged with its verdict.
+ */
+@Component
+@SuppressFBWarnings(
+        value = "EI_EXPOSE_REP2",
+        justification =
+                "StringRedisTemplate is a Spring-managed infrastructure bean and is not exposed externally.")
+public class RefreshTokenStore {
+
+    private static final String REFRESH_GENERATION_KEY_PREFIX = "auth:refresh:gen:";
+    private static final String REFRESH_USED_KEY_PREFIX = "auth:refresh:used:";
+    private static final String REFRESH_REVOKED_FAMILY_KEY_PREFIX = "auth:refresh:family:revoked:";
+    private static final String REFRESH_GRACE_KEY_PREFIX = "auth:refresh:grace:";
+    private static final RedisScript<List<String>> ROTATE_SCRIPT =
+            listScript("redis/refresh-rotate.lua");
+    private static final RedisScript<List<String>> ROTATE_LEGACY_SCRIPT =
+            listScript("redis/refresh-rotate-legacy.lua");
+    // Outlives the token minted right after the record is written, so a record never expires
+    // while a token of its current generation is still valid.
+    private static final Duration GENERATION_RECORD_TTL_MARGIN = Duration.ofMinutes(1);
+    private static final String ROTATION_TIMER = "auth.refresh.rotation";
+    private static final String GRANT_SEPARATOR = " ";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final long gracePeriodMs;
+    private final Map<RefreshRotationVerdict, Timer> verdictTimers;
+    private final Timer errorTimer;
+
+    /**
+     * Creates a refresh token store.
+     *
+     * @param stringRedisTemplate Redis template
+     * @param meterRegistry registry for rotation latency
+     * @param gracePeriodMs how long a rotated token may be refreshed again with the same result,
+     *     or {@code 0} to disable
+     */
+    public RefreshTokenStore(
+            StringRedisTemplate stringRedisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${auth.refresh.grace-period-ms:10000}") long gracePeriodMs) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.gracePeriodMs = Math.max(0L, gracePeriodMs);
+        this.verdictTimers = new EnumMap<>(RefreshRotationVerdict.class);
+        for (RefreshRotationVerdict verdict : RefreshRotationVerdict.values()) {
+            verdictTimers.put(
+                    verdict, rotationTimer(meterRegistry, verdict.name().toLowerCase(Locale.ROOT)));
+        }
+        this.errorTimer = rotationTimer(meterRegistry, "error");
+    }
+
+    /**
+     * Advances a family from the given generation to the next one unless the family is revoked or
+     * the generation is not the current one.
+     *
+     * @param familyId refresh token family
+     * @param generation generation carried by the presented token
+     * @param tokenId presented token ID (jti)
+     * @param ttl refresh token lifetime
+     * @param next claims of the bundle to issue if the rotation succeeds
+     * @return rotation result
+     */
+    public RefreshRotation rotate(
+            String familyId, long generation, String tokenId, Duration ttl, RefreshGrant next) {
+        return execute(
+                ROTATE_SCRIPT,
+                List.of(
+                        REFRESH_GENERATION_KEY_PREFIX + familyId,
+                        REFRESH_REVOKED_FAMILY_KEY_PREFIX + familyId,
+                        REFRESH_GRACE_KEY_PREFIX + tokenId),
+                next,
+                Long.toString(generation),
+                Long.toString(JwtProvider.INITIAL_REFRESH_GENERATION),
+                Long.toString(ttl.plus(GENERATION_RECORD_TTL_MARGIN).toMillis()),
+                Long.toString(gracePeriodMs),
+                encodeGrant(next));
+    }
+
+    /**
+     * Marks a refresh token without a generation as used unless it was used before or its family
+     * is revoked.
+     *
+     * @param familyId refresh token family
+     * @param tokenId refresh token ID (jti)
+     * @param ttl lifetime of the used and revoked markers
+     * @param next claims of the bundle to issue if the rotation succeeds
+     * @return rotation result
+     */
+    public RefreshRotation rotateLegacy(
+            String familyId, String tokenId, Duration ttl, RefreshGrant next) {
+        return execute(
+                ROTATE_LEGACY_SCRIPT,
+                List.of(
+                        REFRESH_REVOKED_FAMILY_KEY_PREFIX + familyId,
+                        REFRESH_USED_KEY_PREFIX + tokenId,
+                        REFRESH_GRACE_KEY_PREFIX + tokenId),
+                next,
+                Long.toString(ttl.toMillis()),
+                Long.toString(gracePeriodMs),
+                encodeGrant(next));
+    }
+
+    private RefreshRotation execute(
+            RedisScript<List<String>> script,
+            List<String> keys,
+            RefreshGrant next,
+            Object... args) {
+        long start = System.nanoTime();
+        List<String> result;
+        try {
+            result = stringRedisTemplate.execute(script, keys, args);
+        } catch (RuntimeException e) {
+            errorTimer.record(Duration.ofNanos(System.nanoTime() - start));
+            throw e;
+        }
+        RefreshRotation rotation = parseResult(result, next);
+        verdictTimers.get(rotation.verdict()).record(Duration.ofNanos(System.nanoTime() - start));
+        return rotation;
+    }
+
+    private static RefreshRotation parseResult(List<String> result, RefreshGrant next) {
+        if (result == null || result.isEmpty()) {
+            throw new IllegalStateException("Refresh rotation script returned no verdict");
+        }
+        RefreshRotationVerdict verdict;
+        try {
+            verdict = RefreshRotationVerdict.valueOf(result.get(0));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException(
+                    "Unexpected refresh rotation verdict: " + result.get(0), e);
+        }
+        return switch (verdict) {
+            case OK -> new RefreshRotation(verdict, next);
+            case DUPLICATE -> new RefreshRotation(verdict, decodeGrant(result.get(1)));
+            case REUSED, REVOKED -> new RefreshRotation(verdict, null);
+        };
+    }
+
+    private static String encodeGrant(RefreshGrant grant) {
+        return grant.familyId()
+                + GRANT_SEPARATOR
+                + grant.generation()
+                + GRANT_SEPARATOR
+                + grant.tokenId()
+                + GRANT_SEPARATOR
+                + grant.epoch()
+                + GRANT_SEPARATOR
+                + grant.issuedAt().toEpochMilli();
+    }
+
+    private static RefreshGrant decodeGrant(String value) {
+        String[] parts = value.split(GRANT_SEPARATOR, 5);
+        return new RefreshGrant(
+                parts[0],
+                Long.parseLong(parts[1]),
+                parts[2],
+                Long.parseLong(parts[3]),
+                Instant.ofEpochMilli(Long.parseLong(parts[4])));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static RedisScript<List<String>> listScript(String location) {
+        return (RedisScript) RedisScript.of(new ClassPathResource(location), List.class);
+    }
+
+    private static Timer rotationTimer(MeterRegistry meterRegistry, String verdict) {
+        return Timer.builder(ROTATION_TIMER)
+                .description("Latency of the refresh token rotation round trip to Redis")
+                .tag("verdict", verdict)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,240 @@
+package com.vocawik.web;
+
+/**
+ * One access log entry, allocated once by {@link AccessLogPipeline} and reused for many requests.
+ *
+ * <p>A request thread fills the event with references it already holds and hands it over; the drain
+ * thread renders it as one JSON line and clears it for the next request. Nothing is formatted on
+ * the request thread.
+ */
+final class AccessLogEvent {
+
+    private static final RequestTimings.Phase[] PHASES = RequestTimings.Phase.values();
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final long[] phaseNanos = new long[PHASES.length];
+    private final String[] headerNames;
+    private final String[] headerValues;
+
+    private long timestamp;
+    private String requestId;
+    private String method;
+    private String uri;
+    private String query;
+    private String clientIp;
+    private int status;
+    private long elapsedNanos;
+    private String error;
+    private int headerCount;
+
+    AccessLogEvent(int maxHeaders) {
+        this.headerNames = new String[maxHeaders];
+        this.headerValues = new String[maxHeaders];
+    }
+
+    void request(
+            long timestamp,
+            String requestId,
+            String method,
+            String uri,
+            String query,
+            String clientIp) {
+        this.timestamp = timestamp;
+        this.requestId = requestId;
+        this.method = method;
+        this.uri = uri;
+        this.query = query;
+        this.clientIp = clientIp;
+    }
+
+    void response(int status, RequestTimings timings, String error) {
+        this.status = status;
+        this.elapsedNanos = timings.elapsedNanos();
+        this.error = error;
+        timings.copyTo(phaseNanos);
+    }
+
+    /**
+     * Makes this event a copy of another, sharing its strings.
+     *
+     * @param other event to copy
+     */
+    void copyFrom(AccessLogEvent other) {
+        clear();
+        timestamp = other.timestamp;
+        requestId = other.requestId;
+        method = other.method;
+        uri = other.uri;
+        query = other.query;
+        clientIp = other.clientIp;
+        status = other.status;
+        elapsedNanos = other.elapsedNanos;
+        error = other.error;
+        System.arraycopy(other.phaseNanos, 0, phaseNanos, 0, phaseNanos.length);
+        for (int i = 0; i < other.headerCount; i++) {
+            header(other.headerNames[i], other.headerValues[i]);
+        }
+    }
+
+    int status() {
+        return status;
+    }
+
+    long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    boolean failed() {
+        return error != null;
+    }
+
+    /** Adds a header if there is room left; extra headers are left out. */
+    void header(String name, String value) {
+        if (headerCount < headerNames.length) {
+            headerNames[headerCount] = name;
+            headerValues[headerCount] = value;
+            headerCount++;
+        }
+    }
+
+    /** Drops the references held, so a pooled event does not keep request data alive. */
+    void clear() {
+        requestId = null;
+        method = null;
+        uri = null;
+        query = null;
+        clientIp = null;
+        error = null;
+        for (int i = 0; i < headerCount; i++) {
+            headerNames[i] = null;
+            headerValues[i] = null;
+        }
+        headerCount = 0;
+    }
+
+    /**
+     * Renders the event as a single-line JSON object, masking sensitive values.
+     *
+     * @param out buffer to append to
+     * @param masker masker for the path, query and header values
+     * @param scratch reusable buffer for masked values before they are escaped
+     * @param detail why the entry is written, e.g. {@code error}
+     */
+    void writeJson(StringBuilder out, LogMasker masker, StringBuilder scratch, String detail) {
+        out.append("{\"timestamp\":\"");
+        appendTimestamp(out, timestamp);
+        out.append('"');
+        field(out, "detail", detail);
+        field(out, "requestId", requestId);
+        field(out, "method", method);
+        if (uri != null) {
+            scratch.setLength(0);
+            field(out, "uri", masker.appendPath(scratch, uri));
+        }
+        if (query != null) {
+            scratch.setLength(0);
+            field(out, "query", masker.appendQuery(scratch, query));
+        }
+        field(out, "clientIp", clientIp);
+        out.append(",\"status\":").append(status).append(",\"durationMs\":");
+        RequestTimings.appendMillis(out, elapsedNanos);
+        out.append(",\"phasesMs\":{");
+        boolean first = true;
+        for (RequestTimings.Phase phase : PHASES) {
+            long nanos = phaseNanos[phase.ordinal()];
+            if (nanos > 0) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                out.append('"').append(phase.metricName()).append("\":");
+                RequestTimings.appendMillis(out, nanos);
+            }
+        }
+        out.append("},\"headers\":{");
+        for (int i = 0; i < headerCount; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            string(out, headerNames[i]).append(':');
+            scratch.setLength(0);
+            string(out, masker.appendHeader(scratch, headerNames[i], headerValues[i]));
+        }
+        out.append('}');
+        field(out, "error", error);
+        out.append('}');
+    }
+
+    /**
+     * Appends epoch milliseconds as an ISO-8601 UTC timestamp, e.g. {@code
+     * 2024-02-29T13:05:09.042Z}.
+     *
+     * <p>Written by hand rather than through {@code DateTimeFormatter} so that rendering an entry
+     * does not allocate an {@code Instant}. Years are assumed to have four digits.
+     *
+     * @param out buffer to append to
+     * @param epochMillis milliseconds since the epoch
+     */
+    static void appendTimestamp(StringBuilder out, long epochMillis) {
+        long days = Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+        long millisOfDay = Math.floorMod(epochMillis, MILLIS_PER_DAY);
+        // civil date from days since 1970-01-01, counting eras of 400 years from 0000-03-01
+        long shifted = days + 719_468;
+        long era = Math.floorDiv(shifted, 146_097);
+        long dayOfEra = shifted - era * 146_097;
+        long yearOfEra =
+                (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthFromMarch = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * monthFromMarch + 2) / 5 + 1;
+        long month = monthFromMarch < 10 ? monthFromMarch + 3 : monthFromMarch - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        digits(out, year, 4).append('-');
+        digits(out, month, 2).append('-');
+        digits(out, day, 2).append('T');
+        digits(out, millisOfDay / 3_600_000, 2).append(':');
+        digits(out, millisOfDay / 60_000 % 60, 2).append(':');
+        digits(out, millisOfDay / 1_000 % 60, 2).append('.');
+        digits(out, millisOfDay % 1_000, 3).append('Z');
+    }
+
+    private static StringBuilder digits(StringBuilder out, long value, int width) {
+        for (long bound = 10; width > 1; width--, bound *= 10) {
+            if (value < bound) {
+                out.append('0');
+            }
+        }
+        return out.append(value);
+    }
+
+    private static void field(StringBuilder out, String name, CharSequence value) {
+        if (value != null) {
+            out.append(",\"").append(name).append("\":");
+            string(out, value);
+        }
+    }
+
+    private static StringBuilder string(StringBuilder out, CharSequence value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append("\\u00").append(Character.forDigit(c >> 4, 16));
+                        out.append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        return out.append('"');
+    }
+}
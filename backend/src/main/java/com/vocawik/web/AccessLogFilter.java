@@ -0,0 +1,239 @@
+package com.vocawik.web;
+
+import com.github.f4b6a3.uuid.UuidCreator;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Outermost filter timing every HTTP request and logging it through the {@link AccessLogPipeline}.
+ *
+ * <p>Runs ahead of the security filter chain, so the logged duration covers authentication, guest
+ * resolution, rate limiting, the handler, exception handling and response serialization. Each
+ * request becomes one JSON entry with the method, URI/query, client IP, the headers listed in
+ * {@code logging.http.logged-headers}, the status, the total time and the {@link RequestTimings}
+ * phases. The request thread only fills a pooled entry; formatting and I/O happen on the
+ * pipeline's drain thread. Exceptions escaping the chain are also logged with their stack trace.
+ *
+ * <p>The request ID is taken from the {@code logging.http.request-id-header} header when the
+ * caller sent a well-formed one, or generated as a time-ordered UUID otherwise. It is put in the
+ * MDC for the whole request and echoed in the same response header, so clients can quote it.
+ *
+ * <p>With {@code logging.http.server-timing} enabled the phases are also sent in a {@code
+ * Server-Timing} header. Headers cannot change once the body is being written, so the header is
+ * set when the response starts and carries the phases finished by then, without serialization.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final String SERVER_TIMING_HEADER = "Server-Timing";
+    private static final int MAX_REQUEST_ID_LENGTH = 128;
+
+    private final String requestIdHeader;
+    private final boolean serverTiming;
+    private final String[] loggedHeaders;
+    private final ClientIpResolver clientIpResolver;
+    private final AccessLogPipeline pipeline;
+    private final LogMasker masker;
+
+    /**
+     * Creates an access log filter with runtime-configurable HTTP logging policies.
+     *
+     * @param requestIdHeader header name used for request correlation ID
+     * @param serverTiming whether to send phase timings in a {@code Server-Timing} header
+     * @param loggedHeaders names of the request headers to include in the access log
+     * @param clientIpResolver client IP resolver with trusted proxy policy
+     * @param pipeline buffer handing entries to the access log writer
+     * @param masker masker for paths logged outside the access log
+     */
+    public AccessLogFilter(
+            @Value("${logging.http.request-id-header:X-Request-Id}") String requestIdHeader,
+            @Value("${logging.http.server-timing:false}") boolean serverTiming,
+            @Value("${logging.http.logged-headers:user-agent,x-request-id}")
+                    String[] loggedHeaders,
+            ClientIpResolver clientIpResolver,
+            AccessLogPipeline pipeline,
+            LogMasker masker) {
+        this.requestIdHeader = requestIdHeader;
+        this.serverTiming = serverTiming;
+        this.loggedHeaders = loggedHeaders.clone();
+        this.clientIpResolver = clientIpResolver;
+        this.pipeline = pipeline;
+        this.masker = masker;
+    }
+
+    /**
+     * Times the request through the rest of the chain and logs it.
+     *
+     * <ul>
+     *   <li>uses trusted-proxy policy for client IP extraction
+     *   <li>adds/removes request correlation ID to/from MDC
+     *   <li>echoes the request correlation ID in the response
+     * </ul>
+     *
+     * @param request HTTP request
+     * @param response HTTP response
+     * @param filterChain filter chain
+     * @throws ServletException if a servlet exception occurs
+     * @throws IOException if an I/O exception occurs
+     */
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RequestTimings timings = RequestTimings.start(request);
+        String requestId = resolveRequestId(request);
+        MDC.put("requestId", requestId);
+        response.setHeader(requestIdHeader, requestId);
+
+        ServerTimingResponse timedResponse =
+                serverTiming ? new ServerTimingResponse(response, timings) : null;
+        String error = null;
+        try {
+            filterChain.doFilter(request, timedResponse != null ? timedResponse : response);
+        } catch (IOException | ServletException | RuntimeException ex) {
+            error = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getName();
+            logger.error(
+                    "Request failed: {} {} | {}",
+                    request.getMethod(),
+                    masker.maskPath(request.getRequestURI()),
+                    ex.getMessage(),
+                    ex);
+            throw ex;
+        } finally {
+            timings.finish();
+            if (timedResponse != null) {
+                // responses without a body never asked for a writer
+                timedResponse.writeServerTiming();
+            }
+            log(request, response.getStatus(), requestId, timings, error);
+            MDC.remove("requestId");
+        }
+    }
+
+    private void log(
+            HttpServletRequest request,
+            int status,
+            String requestId,
+            RequestTimings timings,
+            String error) {
+        AccessLogEvent event = pipeline.claim();
+        if (event == null) {
+            return;
+        }
+        event.request(
+                System.currentTimeMillis(),
+                requestId,
+                request.getMethod(),
+                request.getRequestURI(),
+                request.getQueryString(),
+                clientIpResolver.resolve(request));
+        for (String name : loggedHeaders) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                event.header(name, value);
+            }
+        }
+        event.response(status, timings, error);
+        pipeline.publish(event);
+    }
+
+    String resolveRequestId(HttpServletRequest request) {
+        String requestId = request.getHeader(requestIdHeader);
+        if (requestId != null) {
+            requestId = requestId.trim();
+            if (isValidRequestId(requestId)) {
+                return requestId;
+            }
+        }
+        // time-ordered and drawn from a non-blocking generator, unlike UUID.randomUUID()
+        return UuidCreator.getTimeOrderedEpochFast().toString();
+    }
+
+    /** Accepts IDs that are safe to echo in a header and log: short, printable, no separators. */
+    private static boolean isValidRequestId(String requestId) {
+        int length = requestId.length();
+        if (length == 0 || length > MAX_REQUEST_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = requestId.charAt(i);
+            boolean valid =
+                    (c >= 'a' && c <= 'z')
+                            || (c >= 'A' && c <= 'Z')
+                            || (c >= '0' && c <= '9')
+                            || c == '-'
+                            || c == '_'
+                            || c == '.'
+                            || c == ':';
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Sets the {@code Server-Timing} header once, just before the response is committed. */
+    private static final class ServerTimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestTimings timings;
+        private boolean written;
+
+        ServerTimingResponse(HttpServletResponse response, RequestTimings timings) {
+            super(response);
+            this.timings = timings;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        void writeServerTiming() {
+            if (!written && !isCommitted()) {
+                written = true;
+                setHeader(SERVER_TIMING_HEADER, timings.serverTiming());
+            }
+        }
+    }
+}
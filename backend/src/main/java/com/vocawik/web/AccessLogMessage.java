@@ -0,0 +1,79 @@
+package com.vocawik.web;
+
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ReusableMessage;
+import org.apache.logging.log4j.message.SimpleMessage;
+
+/**
+ * One rendered access log line, reused by the drain thread of {@link AccessLogPipeline} for every
+ * entry it writes.
+ *
+ * <p>Layouts that support it copy the line straight from the buffer through {@link
+ * #formatTo(StringBuilder)}, so writing an entry does not build a {@code String}. Log4j takes a
+ * {@link #memento()} whenever the message has to outlive the logging call.
+ */
+final class AccessLogMessage implements ReusableMessage {
+
+    private static final Object[] NO_PARAMETERS = new Object[0];
+
+    private final StringBuilder line;
+
+    AccessLogMessage(int capacity) {
+        this.line = new StringBuilder(capacity);
+    }
+
+    /**
+     * Empties the line for the next entry.
+     *
+     * @return buffer to render the entry into
+     */
+    StringBuilder clear() {
+        line.setLength(0);
+        return line;
+    }
+
+    @Override
+    public void formatTo(StringBuilder buffer) {
+        buffer.append(line);
+    }
+
+    @Override
+    public String getFormattedMessage() {
+        return line.toString();
+    }
+
+    @Override
+    public String getFormat() {
+        return getFormattedMessage();
+    }
+
+    @Override
+    public Object[] getParameters() {
+        return NO_PARAMETERS;
+    }
+
+    @Override
+    public Throwable getThrowable() {
+        return null;
+    }
+
+    @Override
+    public Object[] swapParameters(Object[] emptyReplacement) {
+        return emptyReplacement;
+    }
+
+    @Override
+    public short getParameterCount() {
+        return 0;
+    }
+
+    @Override
+    public Message memento() {
+        return new SimpleMessage(line.toString());
+    }
+
+    @Override
+    public String toString() {
+        return line.toString();
+    }
+}
@@ -0,0 +1,11 @@
+package com.vocawik.web;
+
+/** What a request thread does when the access log buffer is full. */
+public enum AccessLogOverflow {
+
+    /** Skip the entry and count it as dropped: request latency over a complete log. */
+    DROP,
+
+    /** Wait up to the configured timeout for a free slot, then drop the entry. */
+    BLOCK
+}
@@ -0,0 +1,231 @@
+package com.vocawik.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded, allocation-free hand-off of access log entries from request threads to one writer.
+ *
+ * <p>All {@link AccessLogEvent}s are allocated up front. A request thread takes a free event, fills
+ * it and publishes it; the drain thread passes published events to the {@link AccessLogSampler},
+ * renders the ones it keeps as JSON lines to the {@code access} logger, masking sensitive values
+ * with the {@link LogMasker}, and returns them to the pool. Both queues are array-backed, so
+ * neither side allocates per entry, and the only I/O happens on the drain thread.
+ *
+ * <p>The drain thread renders every line into one reused {@link AccessLogMessage}, formatting the
+ * timestamp by hand, and logs it through the Log4j API so the {@code %m} layout copies it from the
+ * buffer. With {@code log4j2.enableThreadlocals} set in {@code log4j2.component.properties}, Log4j
+ * reuses its log event as well, and a written entry allocates nothing beyond growing the reused
+ * buffers for an unusually long line.
+ *
+ * <p>When every event is in use the {@link AccessLogOverflow} policy decides whether the request
+ * drops its entry or waits briefly for one. Queue depth and dropped entries are published as
+ * {@code logging.access.queue.depth} and {@code logging.access.dropped}.
+ */
+@Slf4j
+@Component
+public class AccessLogPipeline implements DisposableBean {
+
+    private static final Logger ACCESS_LOG = LogManager.getLogger("access");
+    private static final int BATCH_SIZE = 256;
+    static final int MAX_HEADERS = 16;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 2_000;
+
+    private final BlockingQueue<AccessLogEvent> free;
+    private final BlockingQueue<AccessLogEvent> published;
+    private final AccessLogOverflow overflow;
+    private final long blockTimeoutNanos;
+    private final LogMasker masker;
+    private final AccessLogSampler sampler;
+    private final Consumer<AccessLogMessage> sink;
+    private final AccessLogSampler.Writer writer = this::write;
+    private final AccessLogMessage line = new AccessLogMessage(1_024);
+    private final StringBuilder scratch = new StringBuilder(256);
+    private final Counter dropped;
+    private final Thread drainer;
+    private volatile boolean running = true;
+
+    /**
+     * Creates the pipeline and starts its drain thread.
+     *
+     * @param capacity number of entries that can wait to be written
+     * @param overflow what to do when every entry is in use
+     * @param blockTimeoutMillis longest wait for a free entry under {@link AccessLogOverflow#BLOCK}
+     * @param slowThresholdMillis duration above which a request is written in full
+     * @param sampleRate share of other requests written in full, from 0 to 1
+     * @param flightBufferSize number of recent entries kept to give context to an incident
+     * @param contextAfter number of entries written as context after an incident
+     * @param masker masker applied to entries as they are written
+     * @param meterRegistry registry for queue and request metrics
+     */
+    @Autowired
+    public AccessLogPipeline(
+            @Value("${logging.access.capacity:8192}") int capacity,
+            @Value("${logging.access.overflow:DROP}") AccessLogOverflow overflow,
+            @Value("${logging.access.block-timeout-ms:50}") long blockTimeoutMillis,
+            @Value("${logging.access.slow-threshold-ms:1000}") long slowThresholdMillis,
+            @Value("${logging.access.sample-rate:0}") double sampleRate,
+            @Value("${logging.access.flight-buffer-size:256}") int flightBufferSize,
+            @Value("${logging.access.context-after:16}") int contextAfter,
+            LogMasker masker,
+            MeterRegistry meterRegistry) {
+        this(
+                capacity,
+                overflow,
+                blockTimeoutMillis,
+                masker,
+                meterRegistry,
+                new AccessLogSampler(
+                        flightBufferSize,
+                        contextAfter,
+                        Duration.ofMillis(slowThresholdMillis),
+                        sampleRate,
+                        () -> ThreadLocalRandom.current().nextDouble(),
+                        meterRegistry),
+                ACCESS_LOG::info);
+    }
+
+    AccessLogPipeline(
+            int capacity,
+            AccessLogOverflow overflow,
+            long blockTimeoutMillis,
+            LogMasker masker,
+            MeterRegistry meterRegistry,
+            AccessLogSampler sampler,
+            Consumer<AccessLogMessage> sink) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Access log capacity must be positive");
+        }
+        this.free = new ArrayBlockingQueue<>(capacity);
+        this.published = new ArrayBlockingQueue<>(capacity);
+        for (int i = 0; i < capacity; i++) {
+            free.add(new AccessLogEvent(MAX_HEADERS));
+        }
+        this.overflow = overflow;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+        this.masker = masker;
+        this.sampler = sampler;
+        this.sink = sink;
+        this.dropped =
+                Counter.builder("logging.access.dropped")
+                        .description("Access log entries dropped because the buffer was full")
+                        .register(meterRegistry);
+        Gauge.builder("logging.access.queue.depth", published, BlockingQueue::size)
+                .description("Access log entries waiting to be written")
+                .strongReference(true)
+                .register(meterRegistry);
+        Gauge.builder("logging.access.queue.capacity", () -> capacity)
+                .description("Access log entries that can wait to be written")
+                .register(meterRegistry);
+        this.drainer = Thread.ofPlatform().name("access-log-drain").daemon().start(this::drain);
+    }
+
+    /**
+     * Takes a free entry to fill, or none if the buffer is full and the policy gives up.
+     *
+     * @return entry to fill and {@link #publish(AccessLogEvent)}, or {@code null} if dropped
+     */
+    AccessLogEvent claim() {
+        AccessLogEvent event = free.poll();
+        if (event == null && overflow == AccessLogOverflow.BLOCK) {
+            try {
+                event = free.poll(blockTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (event == null) {
+            dropped.increment();
+        }
+        return event;
+    }
+
+    /**
+     * Hands a filled entry to the drain thread.
+     *
+     * @param event entry taken with {@link #claim()}
+     */
+    void publish(AccessLogEvent event) {
+        // never full: there are only as many events as slots
+        published.add(event);
+    }
+
+    /**
+     * Returns the number of entries dropped so far.
+     *
+     * @return dropped entries
+     */
+    public long dropped() {
+        return (long) dropped.count();
+    }
+
+    private void drain() {
+        List<AccessLogEvent> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || !published.isEmpty()) {
+            try {
+                AccessLogEvent first = published.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                published.drainTo(batch, BATCH_SIZE - 1);
+                for (AccessLogEvent event : batch) {
+                    handle(event);
+                }
+            } catch (InterruptedException e) {
+                if (!running) {
+                    // stopping: write what is left without waiting
+                    published.drainTo(batch);
+                    batch.forEach(this::handle);
+                    return;
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void handle(AccessLogEvent event) {
+        try {
+            sampler.accept(event, writer);
+        } finally {
+            event.clear();
+            free.add(event);
+        }
+    }
+
+    private void write(AccessLogEvent event, AccessLogSampler.Detail detail) {
+        try {
+            event.writeJson(line.clear(), masker, scratch, detail.jsonName());
+            sink.accept(line);
+        } catch (RuntimeException e) {
+            logger.warn("Cannot write access log entry: {}", e.getMessage());
+        }
+    }
+
+    /** Stops the drain thread once the entries already published are written. */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        drainer.join(SHUTDOWN_TIMEOUT_MILLIS);
+        if (drainer.isAlive()) {
+            drainer.interrupt();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.vocawik.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Tail-based sampling of access log entries, run on the drain thread of {@link AccessLogPipeline}.
+ *
+ * <p>Every request is counted once in {@code logging.access.requests}, tagged by status class
+ * and by the {@link Detail} it was first handled with; by default that counter is all that is
+ * kept. An entry is written in full only once the outcome of its request is known:
+ *
+ * <ul>
+ *   <li><b>error</b> - the status is 5xx or the request threw
+ *   <li><b>slow</b> - the request took longer than the slow threshold
+ *   <li><b>sampled</b> - a random draw fell under the sample rate
+ * </ul>
+ *
+ * <p>The last entries seen are copied into a fixed ring, the flight buffer. An error or a slow
+ * request writes the entries in the ring that were not written yet, and the next few entries after
+ * it, as {@code context} so the requests around an incident can be correlated. The ring is owned
+ * by the single drain thread and is not synchronized.
+ */
+final class AccessLogSampler {
+
+    /** Why an entry is written, named as it appears in the {@code detail} field. */
+    enum Detail {
+        /** 5xx response or failed request. */
+        ERROR,
+        /** Request slower than the threshold. */
+        SLOW,
+        /** Picked by the sample rate. */
+        SAMPLED,
+        /** Written because it was near an error or slow request. */
+        CONTEXT,
+        /** Counted only. */
+        NONE;
+
+        private final String jsonName = name().toLowerCase(Locale.ROOT);
+
+        /**
+         * Returns the name used in the {@code detail} field.
+         *
+         * @return detail name
+         */
+        String jsonName() {
+            return jsonName;
+        }
+    }
+
+    /** Writes one entry in full. */
+    @FunctionalInterface
+    interface Writer {
+        void write(AccessLogEvent event, Detail detail);
+    }
+
+    private static final Detail[] DETAILS = Detail.values();
+    private static final String[] STATUS_CLASSES = {"unknown", "1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private final AccessLogEvent[] ring;
+    private final boolean[] written;
+    private final int contextAfter;
+    private final long slowThresholdNanos;
+    private final double sampleRate;
+    private final DoubleSupplier random;
+    private final Counter[][] requests;
+    private int next;
+    private int size;
+    private int trailing;
+
+    /**
+     * Creates a sampler with an empty flight buffer.
+     *
+     * @param flightBufferSize number of recent entries kept for context
+     * @param contextAfter number of entries written as context after an error or slow request
+     * @param slowThreshold duration above which a request is written as slow
+     * @param sampleRate share of other requests written in full, from 0 to 1
+     * @param random source of uniform draws in {@code [0, 1)}
+     * @param meterRegistry registry for the request counter
+     */
+    AccessLogSampler(
+            int flightBufferSize,
+            int contextAfter,
+            Duration slowThreshold,
+            double sampleRate,
+            DoubleSupplier random,
+            MeterRegistry meterRegistry) {
+        if (flightBufferSize < 0 || contextAfter < 0) {
+            throw new IllegalArgumentException("Access log context sizes must not be negative");
+        }
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Access log sample rate must be between 0 and 1");
+        }
+        this.ring = new AccessLogEvent[flightBufferSize];
+        this.written = new boolean[flightBufferSize];
+        for (int i = 0; i < flightBufferSize; i++) {
+            ring[i] = new AccessLogEvent(AccessLogPipeline.MAX_HEADERS);
+        }
+        this.contextAfter = contextAfter;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.sampleRate = sampleRate;
+        this.random = random;
+        this.requests = new Counter[STATUS_CLASSES.length][DETAILS.length];
+        for (int s = 0; s < STATUS_CLASSES.length; s++) {
+            for (Detail detail : DETAILS) {
+                requests[s][detail.ordinal()] =
+                        Counter.builder("logging.access.requests")
+                                .description("Requests seen by the access log")
+                                .tag("status", STATUS_CLASSES[s])
+                                .tag("detail", detail.jsonName())
+                                .register(meterRegistry);
+            }
+        }
+    }
+
+    /**
+     * Counts an entry, writes it if it is sampled or near an incident, and keeps a copy of it.
+     *
+     * @param event finished entry; not retained after the call
+     * @param writer writer for entries written in full
+     */
+    void accept(AccessLogEvent event, Writer writer) {
+        Detail detail = decide(event);
+        if (detail == Detail.ERROR || detail == Detail.SLOW) {
+            flushContext(writer);
+            trailing = contextAfter;
+        } else if (detail == Detail.NONE && trailing > 0) {
+            trailing--;
+            detail = Detail.CONTEXT;
+        }
+        requests[statusClass(event.status())][detail.ordinal()].increment();
+        if (detail != Detail.NONE) {
+            writer.write(event, detail);
+        }
+        remember(event, detail != Detail.NONE);
+    }
+
+    private Detail decide(AccessLogEvent event) {
+        if (event.status() >= 500 || event.failed()) {
+            return Detail.ERROR;
+        }
+        if (event.elapsedNanos() > slowThresholdNanos) {
+            return Detail.SLOW;
+        }
+        if (sampleRate > 0 && random.getAsDouble() < sampleRate) {
+            return Detail.SAMPLED;
+        }
+        return Detail.NONE;
+    }
+
+    /** Writes the entries in the ring that were not written yet, oldest first. */
+    private void flushContext(Writer writer) {
+        int oldest = next - size;
+        for (int i = 0; i < size; i++) {
+            int index = Math.floorMod(oldest + i, ring.length);
+            if (!written[index]) {
+                written[index] = true;
+                writer.write(ring[index], Detail.CONTEXT);
+            }
+        }
+    }
+
+    private void remember(AccessLogEvent event, boolean alreadyWritten) {
+        if (ring.length == 0) {
+            return;
+        }
+        ring[next].copyFrom(event);
+        written[next] = alreadyWritten;
+        next = (next + 1) % ring.length;
+        size = Math.min(size + 1, ring.length);
+    }
+
+    private static int statusClass(int status) {
+        int statusClass = status / 100;
+        return statusClass >= 1 && statusClass <= 5 ? statusClass : 0;
+    }
+}
@@ -0,0 +1,295 @@
+package com.vocawik.web;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Masks sensitive query parameters, headers and path segments before they are logged.
+ *
+ * <p>The masked query, header and path keys are compiled at startup into one trie whose nodes
+ * carry a bit per {@link Target}, stored as a flat transition table over the few characters the
+ * keys use. Looking up a key is one table step per character with no backtracking; a character
+ * outside the keys' alphabet ends the lookup at once. Keys match whole names, ASCII
+ * case-insensitively. Query and path names are percent-decoded as they are walked, and {@code +}
+ * is read as a space in query names, so {@code access%5Ftoken} is masked like the {@code
+ * access_token} the application binds it to.
+ *
+ * <p>Every input is scanned once and copied into a caller-supplied buffer, so masking allocates
+ * nothing:
+ *
+ * <ul>
+ *   <li><b>Query</b> - {@code token=abc&page=2} becomes {@code token=***&page=2}
+ *   <li><b>Header</b> - the whole value of a masked header is replaced
+ *   <li><b>Path</b> - the segment after a masked segment, and masked matrix parameters, are
+ *       replaced: {@code /reset/token/abc;email=a@b.c} becomes {@code /reset/token/***}
+ * </ul>
+ */
+@Component
+public class LogMasker {
+
+    /** Replacement written for masked values. */
+    public static final String MASK = "***";
+
+    /** Part of a request a key is masked in. */
+    public enum Target {
+        /** Query parameter names. */
+        QUERY,
+        /** Header names. */
+        HEADER,
+        /** Path segments and matrix parameter names. */
+        PATH;
+
+        private int bit() {
+            return 1 << ordinal();
+        }
+    }
+
+    private static final int NO_NODE = 0;
+
+    /** Alphabet index of each ASCII character, or -1 if no key uses it. */
+    private final byte[] charClasses = new byte[128];
+
+    private final int alphabetSize;
+
+    /** Next node per node and character class; {@link #NO_NODE} where no key continues. */
+    private final int[] transitions;
+
+    /** {@link Target} bits of the key ending at each node. */
+    private final int[] accepts;
+
+    /**
+     * Compiles the masked keys of every target.
+     *
+     * @param queryKeys query parameter names to mask
+     * @param headerKeys header names whose values are masked
+     * @param pathKeys path segments whose following segment is masked
+     */
+    @Autowired
+    public LogMasker(
+            @Value(
+                            "${logging.http.masked-query-keys:password,passwd,pwd,token,access_token,refresh_token,authorization,auth,secret,api_key,apikey,email,code}")
+                    String[] queryKeys,
+            @Value(
+                            "${logging.http.masked-header-keys:authorization,cookie,set-cookie,x-api-key,proxy-authorization}")
+                    String[] headerKeys,
+            @Value(
+                            "${logging.http.masked-path-keys:password,passwd,pwd,token,access_token,refresh_token,authorization,secret,api_key,apikey,email}")
+                    String[] pathKeys) {
+        List<String> keys = new ArrayList<>();
+        List<Integer> bits = new ArrayList<>();
+        collect(queryKeys, Target.QUERY, keys, bits);
+        collect(headerKeys, Target.HEADER, keys, bits);
+        collect(pathKeys, Target.PATH, keys, bits);
+
+        Arrays.fill(charClasses, (byte) -1);
+        int classes = 0;
+        for (String key : keys) {
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                if (charClasses[c] < 0) {
+                    charClasses[c] = (byte) classes++;
+                }
+            }
+        }
+        alphabetSize = Math.max(classes, 1);
+
+        // node 0 is the root; no transition leads back to it, so 0 doubles as "none"
+        List<int[]> nodes = new ArrayList<>();
+        List<Integer> nodeAccepts = new ArrayList<>();
+        nodes.add(new int[alphabetSize]);
+        nodeAccepts.add(0);
+        for (int k = 0; k < keys.size(); k++) {
+            String key = keys.get(k);
+            int node = 0;
+            for (int i = 0; i < key.length(); i++) {
+                int cls = charClasses[key.charAt(i)];
+                int next = nodes.get(node)[cls];
+                if (next == NO_NODE) {
+                    next = nodes.size();
+                    nodes.add(new int[alphabetSize]);
+                    nodeAccepts.add(0);
+                    nodes.get(node)[cls] = next;
+                }
+                node = next;
+            }
+            nodeAccepts.set(node, nodeAccepts.get(node) | bits.get(k));
+        }
+
+        transitions = new int[nodes.size() * alphabetSize];
+        accepts = new int[nodes.size()];
+        for (int n = 0; n < nodes.size(); n++) {
+            System.arraycopy(nodes.get(n), 0, transitions, n * alphabetSize, alphabetSize);
+            accepts[n] = nodeAccepts.get(n);
+        }
+    }
+
+    private static void collect(
+            String[] raw, Target target, List<String> keys, List<Integer> bits) {
+        for (String key : raw) {
+            String normalized = key.trim().toLowerCase(Locale.ROOT);
+            if (normalized.isEmpty()) {
+                continue;
+            }
+            for (int i = 0; i < normalized.length(); i++) {
+                if (normalized.charAt(i) >= 128) {
+                    throw new IllegalArgumentException("Masked key must be ASCII: " + key);
+                }
+            }
+            keys.add(normalized);
+            bits.add(target.bit());
+        }
+    }
+
+    /**
+     * Tells whether {@code text[start, end)} is a masked key of the target.
+     *
+     * <p>Query and path names are decoded on the fly as the server would: {@code %XX} escapes, and
+     * {@code +} in query names. A malformed escape is read as a literal {@code %}.
+     *
+     * @param target part of the request the name comes from
+     * @param text text holding the name
+     * @param start index of the first character of the name
+     * @param end index after the last character of the name
+     * @return whether the name is masked
+     */
+    public boolean matches(Target target, CharSequence text, int start, int end) {
+        boolean decode = target != Target.HEADER;
+        int node = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (decode && c == '%' && i + 2 < end) {
+                int high = Character.digit(text.charAt(i + 1), 16);
+                int low = Character.digit(text.charAt(i + 2), 16);
+                if (high >= 0 && low >= 0) {
+                    c = (char) (high << 4 | low);
+                    i += 2;
+                }
+            } else if (c == '+' && target == Target.QUERY) {
+                c = ' ';
+            }
+            if (c >= 128) {
+                return false;
+            }
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            int cls = charClasses[c];
+            if (cls < 0) {
+                return false;
+            }
+            node = transitions[node * alphabetSize + cls];
+            if (node == NO_NODE) {
+                return false;
+            }
+        }
+        return (accepts[node] & target.bit()) != 0;
+    }
+
+    /**
+     * Appends a query string with the values of masked parameters replaced.
+     *
+     * @param out buffer to append to
+     * @param query raw query string, without the leading {@code ?}
+     * @return {@code out}
+     */
+    public StringBuilder appendQuery(StringBuilder out, String query) {
+        int length = query.length();
+        int start = 0;
+        while (start <= length) {
+            int end = indexOf(query, '&', start, length);
+            int eq = indexOf(query, '=', start, end);
+            if (eq < end && matches(Target.QUERY, query, start, eq)) {
+                out.append(query, start, eq + 1).append(MASK);
+            } else {
+                out.append(query, start, end);
+            }
+            if (end < length) {
+                out.append('&');
+            }
+            start = end + 1;
+        }
+        return out;
+    }
+
+    /**
+     * Appends a header value, or the mask if the header is masked.
+     *
+     * @param out buffer to append to
+     * @param name header name
+     * @param value header value
+     * @return {@code out}
+     */
+    public StringBuilder appendHeader(StringBuilder out, String name, String value) {
+        return out.append(matches(Target.HEADER, name, 0, name.length()) ? MASK : value);
+    }
+
+    /**
+     * Appends a path with the segment after each masked segment and masked matrix parameters
+     * replaced.
+     *
+     * @param out buffer to append to
+     * @param path request path
+     * @return {@code out}
+     */
+    public StringBuilder appendPath(StringBuilder out, String path) {
+        int length = path.length();
+        int start = 0;
+        boolean maskNext = false;
+        while (start <= length) {
+            int end = indexOf(path, '/', start, length);
+            int nameEnd = indexOf(path, ';', start, end);
+            if (maskNext && nameEnd > start) {
+                out.append(MASK);
+                maskNext = false;
+            } else {
+                out.append(path, start, nameEnd);
+                maskNext = matches(Target.PATH, path, start, nameEnd);
+                appendMatrixParameters(out, path, nameEnd, end);
+            }
+            if (end < length) {
+                out.append('/');
+            }
+            start = end + 1;
+        }
+        return out;
+    }
+
+    /**
+     * Masks a path into a new string, for the rare log lines written outside the access log.
+     *
+     * @param path request path
+     * @return path with sensitive segments masked
+     */
+    public String maskPath(String path) {
+        return appendPath(new StringBuilder(path.length()), path).toString();
+    }
+
+    /** Appends {@code ;name=value} parameters in {@code path[start, end)}, masking their values. */
+    private void appendMatrixParameters(StringBuilder out, String path, int start, int end) {
+        while (start < end) {
+            // path[start] is ';'
+            int next = indexOf(path, ';', start + 1, end);
+            int eq = indexOf(path, '=', start + 1, next);
+            if (eq < next && matches(Target.PATH, path, start + 1, eq)) {
+                out.append(path, start, eq + 1).append(MASK);
+            } else {
+                out.append(path, start, next);
+            }
+            start = next;
+        }
+    }
+
+    private static int indexOf(String text, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == c) {
+                return i;
+            }
+        }
+        return to;
+    }
+}
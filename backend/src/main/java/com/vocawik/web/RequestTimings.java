@@ -0,0 +1,158 @@
+package com.vocawik.web;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Durations of the phases of one request, collected as it passes through the filters and handler.
+ *
+ * <p>Started by {@link AccessLogFilter} and kept as a request attribute. Filters and aspects add
+ * the time they spend with {@link #record(ServletRequest, Phase, long)}, which does nothing for
+ * requests that are not being timed, e.g. in unit tests. A request is handled by one thread, so
+ * the timings are not synchronized.
+ */
+public final class RequestTimings {
+
+    /** Request attribute holding the timings of the current request. */
+    public static final String ATTRIBUTE = RequestTimings.class.getName();
+
+    private static final Phase[] PHASES = Phase.values();
+
+    /** Phase of a request, named as it appears in logs and the {@code Server-Timing} header. */
+    public enum Phase {
+        /** Access token verification. */
+        AUTH("auth"),
+        /** Guest lookup or creation for anonymous callers. */
+        GUEST("guest"),
+        /** Rate limit checks in the filter and aspect. */
+        RATE_LIMIT("ratelimit"),
+        /** Controller method execution. */
+        HANDLER("handler"),
+        /** Writing the response after the handler returned, including exception handling. */
+        SERIALIZATION("serialization");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+
+        /**
+         * Returns the name used in logs and the {@code Server-Timing} header.
+         *
+         * @return phase name
+         */
+        public String metricName() {
+            return metricName;
+        }
+    }
+
+    private final long startNanos;
+    private final long[] nanos = new long[PHASES.length];
+    private long handlerEndNanos;
+    private long endNanos;
+
+    RequestTimings(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Starts timing a request and attaches the timings to it.
+     *
+     * @param request request to time
+     * @return timings of the request
+     */
+    public static RequestTimings start(HttpServletRequest request) {
+        RequestTimings timings = new RequestTimings(System.nanoTime());
+        request.setAttribute(ATTRIBUTE, timings);
+        return timings;
+    }
+
+    /**
+     * Adds the time since {@code startNanos} to a phase of the request, if it is being timed.
+     *
+     * @param request current request
+     * @param phase phase that started at {@code startNanos}
+     * @param startNanos {@link System#nanoTime()} when the phase started
+     */
+    public static void record(ServletRequest request, Phase phase, long startNanos) {
+        if (request.getAttribute(ATTRIBUTE) instanceof RequestTimings timings) {
+            timings.record(phase, startNanos, System.nanoTime());
+        }
+    }
+
+    void record(Phase phase, long startNanos, long now) {
+        nanos[phase.ordinal()] += now - startNanos;
+        if (phase == Phase.HANDLER) {
+            handlerEndNanos = now;
+        }
+    }
+
+    /** Stops timing; the time after the handler returned is counted as serialization. */
+    void finish() {
+        finish(System.nanoTime());
+    }
+
+    void finish(long now) {
+        endNanos = now;
+        if (handlerEndNanos != 0) {
+            nanos[Phase.SERIALIZATION.ordinal()] = now - handlerEndNanos;
+        }
+    }
+
+    /**
+     * Returns the time spent in a phase.
+     *
+     * @param phase phase of the request
+     * @return nanoseconds spent in the phase, 0 if it did not run
+     */
+    public long nanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    /** Copies the time spent in each phase, indexed by {@link Phase#ordinal()}. */
+    void copyTo(long[] target) {
+        System.arraycopy(nanos, 0, target, 0, nanos.length);
+    }
+
+    /**
+     * Returns the time from the start of the request until it finished, or until now if it has not.
+     *
+     * @return elapsed nanoseconds
+     */
+    public long elapsedNanos() {
+        return (endNanos != 0 ? endNanos : System.nanoTime()) - startNanos;
+    }
+
+    /**
+     * Formats the phases that ran as a {@code Server-Timing} header value, ending with the total.
+     *
+     * @return header value, e.g. {@code auth;dur=0.412, handler;dur=12.030, total;dur=13.101}
+     */
+    public String serverTiming() {
+        StringBuilder value = new StringBuilder(128);
+        for (Phase phase : PHASES) {
+            long phaseNanos = nanos[phase.ordinal()];
+            if (phaseNanos > 0) {
+                value.append(phase.metricName).append(";dur=");
+                appendMillis(value, phaseNanos).append(", ");
+            }
+        }
+        value.append("total;dur=");
+        return appendMillis(value, elapsedNanos()).toString();
+    }
+
+    /** Appends nanoseconds as milliseconds with three decimals, without String.format. */
+    static StringBuilder appendMillis(StringBuilder value, long nanos) {
+        long micros = nanos / 1_000;
+        long fraction = micros % 1_000;
+        value.append(micros / 1_000).append('.');
+        if (fraction < 100) {
+            value.append('0');
+        }
+        if (fraction < 10) {
+            value.append('0');
+        }
+        return value.append(fraction);
+    }
+}
@@ -0,0 +1,27 @@
+package com.vocawik.web.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a call is shed because its endpoint is at its concurrency limit.
+ *
+ * @see com.vocawik.aop.ConcurrencyLimit
+ * @see com.vocawik.aop.ConcurrencyLimitAspect
+ */
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+
+    /** Seconds until the call may be retried. */
+    private final long retryAfterSeconds;
+
+    /**
+     * Creates a new exception.
+     *
+     * @param message the detail message
+     * @param retryAfterSeconds seconds until the call may be retried
+     */
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
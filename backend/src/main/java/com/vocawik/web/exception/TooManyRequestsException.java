@@ -1,19 +1,50 @@
 package com.vocawik.web.exception;
 
+import lombok.Getter;
+
 /**
  * Thrown when a client exceeds the rate limit.
  *
+ * <p>Optionally carries the quota the client is told about in the {@code RateLimit-*} and {@code
+ * Retry-After} response headers.
+ *
  * @see com.vocawik.aop.RateLimit
  * @see com.vocawik.aop.RateLimitAspect
  */
+@Getter
 public class TooManyRequestsException extends RuntimeException {
 
+    /** Permits per window, or {@code -1} if not reported. */
+    private final long limit;
+
+    /** Seconds until the quota is fully available again. */
+    private final long resetSeconds;
+
+    /** Seconds until the call may be retried. */
+    private final long retryAfterSeconds;
+
     /**
      * Creates a new exception with the given message.
      *
      * @param message the detail message
      */
     public TooManyRequestsException(String message) {
+        this(message, -1, 0, 0);
+    }
+
+    /**
+     * Creates a new exception with the quota to report to the client.
+     *
+     * @param message the detail message
+     * @param limit permits per window
+     * @param resetSeconds seconds until the quota is fully available again
+     * @param retryAfterSeconds seconds until the call may be retried
+     */
+    public TooManyRequestsException(
+            String message, long limit, long resetSeconds, long retryAfterSeconds) {
         super(message);
+        this.limit = limit;
+        this.resetSeconds = resetSeconds;
+        this.retryAfterSeconds = retryAfterSeconds;
     }
 }
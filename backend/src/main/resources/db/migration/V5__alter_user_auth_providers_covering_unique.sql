@@ -0,0 +1,4 @@
+ALTER TABLE user_auth_providers
+    DROP CONSTRAINT uk_user_auth_provider_provider_provider_user_id,
+    ADD CONSTRAINT uk_user_auth_provider_provider_provider_user_id
+        UNIQUE (provider, provider_user_id) INCLUDE (user_id);
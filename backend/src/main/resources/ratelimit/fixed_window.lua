@@ -0,0 +1,20 @@
+-- Fixed window counter. KEYS[1]: count of the current window, expiring with it.
+-- ARGV[1]: permits per window, ARGV[2]: window in milliseconds.
+-- Returns {allowed, remaining, reset_ms, retry_after_ms}.
+local limit = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+
+local count = redis.call('INCR', KEYS[1])
+if count == 1 then
+    redis.call('PEXPIRE', KEYS[1], window)
+end
+local ttl = redis.call('PTTL', KEYS[1])
+if ttl < 0 then
+    redis.call('PEXPIRE', KEYS[1], window)
+    ttl = window
+end
+
+if count > limit then
+    return {0, 0, ttl, ttl}
+end
+return {1, limit - count, ttl, 0}
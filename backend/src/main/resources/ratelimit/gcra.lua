@@ -0,0 +1,23 @@
+-- GCRA. KEYS[1]: theoretical arrival time in microseconds.
+-- ARGV[1]: permits per period, ARGV[2]: period in milliseconds.
+-- Returns {allowed, remaining, reset_ms, retry_after_ms}.
+local limit = tonumber(ARGV[1])
+local period = tonumber(ARGV[2]) * 1000
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+local interval = period / limit
+
+local tat = tonumber(redis.call('GET', KEYS[1])) or now
+if tat < now then
+    tat = now
+end
+local new_tat = tat + interval
+local allow_at = new_tat - period
+
+if allow_at > now then
+    return {0, 0, math.ceil((tat - now) / 1000), math.ceil((allow_at - now) / 1000)}
+end
+
+local reset = math.ceil((new_tat - now) / 1000)
+redis.call('SET', KEYS[1], string.format('%.0f', new_tat), 'PX', reset)
+return {1, math.floor((now + period - new_tat) / interval), reset, 0}
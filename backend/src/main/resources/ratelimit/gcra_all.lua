@@ -0,0 +1,45 @@
+-- GCRA over several keys, all or nothing. KEYS[i]: theoretical arrival time of rule i in
+-- microseconds. ARGV[2i-1]: permits per period of rule i, ARGV[2i]: its period in milliseconds.
+-- Returns {allowed, rule, remaining, reset_ms, retry_after_ms} for the rule that decided: the one
+-- with the longest wait when rejected, otherwise the one with the fewest permits left.
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+
+local new_tats = {}
+local rejected, rejected_reset, rejected_retry = 0, 0, -1
+local tightest, tightest_remaining, tightest_reset = 0, -1, 0
+for i = 1, #KEYS do
+    local limit = tonumber(ARGV[2 * i - 1])
+    local period = tonumber(ARGV[2 * i]) * 1000
+    local interval = period / limit
+
+    local tat = tonumber(redis.call('GET', KEYS[i])) or now
+    if tat < now then
+        tat = now
+    end
+    local new_tat = tat + interval
+    local allow_at = new_tat - period
+
+    if allow_at > now then
+        local retry = math.ceil((allow_at - now) / 1000)
+        if retry > rejected_retry then
+            rejected, rejected_reset, rejected_retry = i, math.ceil((tat - now) / 1000), retry
+        end
+    else
+        new_tats[i] = new_tat
+        local remaining = math.floor((now + period - new_tat) / interval)
+        if tightest == 0 or remaining < tightest_remaining then
+            tightest, tightest_remaining = i, remaining
+            tightest_reset = math.ceil((new_tat - now) / 1000)
+        end
+    end
+end
+
+if rejected > 0 then
+    return {0, rejected, 0, rejected_reset, rejected_retry}
+end
+for i = 1, #KEYS do
+    local reset = math.ceil((new_tats[i] - now) / 1000)
+    redis.call('SET', KEYS[i], string.format('%.0f', new_tats[i]), 'PX', reset)
+end
+return {1, tightest, tightest_remaining, tightest_reset, 0}
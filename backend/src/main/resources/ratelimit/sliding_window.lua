@@ -0,0 +1,35 @@
+-- Sliding window counter. KEYS[1]: hash of the window index and the current and previous counts.
+-- ARGV[1]: permits per window, ARGV[2]: window in milliseconds.
+-- Returns {allowed, remaining, reset_ms, retry_after_ms}.
+local limit = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local index = math.floor(now / window)
+local elapsed = now - index * window
+
+local state = redis.call('HMGET', KEYS[1], 'index', 'current', 'previous')
+local stored = tonumber(state[1])
+local current = tonumber(state[2]) or 0
+local previous = tonumber(state[3]) or 0
+if stored == nil or stored < index - 1 then
+    current, previous = 0, 0
+elseif stored == index - 1 then
+    current, previous = 0, current
+end
+
+local used = previous * (window - elapsed) / window + current
+local reset = window - elapsed
+if used + 1 > limit then
+    local retry = reset
+    if current + 1 <= limit and previous > 0 then
+        -- wait until the previous window's share has decayed far enough
+        retry = math.ceil((used + 1 - limit) / previous * window)
+    end
+    return {0, 0, reset, retry}
+end
+
+current = current + 1
+redis.call('HSET', KEYS[1], 'index', index, 'current', current, 'previous', previous)
+redis.call('PEXPIRE', KEYS[1], window * 2)
+return {1, math.floor(limit - used - 1), reset, 0}
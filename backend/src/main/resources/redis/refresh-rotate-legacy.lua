@@ -0,0 +1,33 @@
+-- Atomically rotates a refresh token without a generation claim, in one round trip.
+--
+-- Only used for tokens issued before refresh generations existed; see refresh-rotate.lua.
+--
+-- KEYS[1]  revoked-family marker  (auth:refresh:family:revoked:<family>)
+-- KEYS[2]  used-token marker      (auth:refresh:used:<jti>)
+-- KEYS[3]  grace entry            (auth:refresh:grace:<jti>), grant issued for this token
+-- ARGV[1]  marker TTL in milliseconds (refresh token lifetime)
+-- ARGV[2]  grace period in milliseconds, 0 to disable
+-- ARGV[3]  grant (claims of the next bundle, no tokens) to issue if the rotation succeeds
+--
+-- Returns {'REVOKED'} if the family is already revoked, {'OK'} if this is the first use of the
+-- token, {'DUPLICATE', grant} if it was first used within the grace period, or {'REUSED'}
+-- otherwise (the family is revoked).
+
+if redis.call('EXISTS', KEYS[1]) == 1 then
+    return {'REVOKED'}
+end
+
+if redis.call('SET', KEYS[2], '1', 'NX', 'PX', ARGV[1]) then
+    if tonumber(ARGV[2]) > 0 then
+        redis.call('SET', KEYS[3], ARGV[3], 'PX', ARGV[2])
+    end
+    return {'OK'}
+end
+
+local grant = redis.call('GET', KEYS[3])
+if grant then
+    return {'DUPLICATE', grant}
+end
+
+redis.call('SET', KEYS[1], '1', 'PX', ARGV[1])
+return {'REUSED'}
@@ -0,0 +1,49 @@
+-- Atomically rotates a refresh token by compare-and-increment on its family generation.
+--
+-- KEYS[1]  generation record      (auth:refresh:gen:<family>), holds the next expected
+--                                 generation or 'revoked'
+-- KEYS[2]  legacy revoked marker  (auth:refresh:family:revoked:<family>), read-only
+-- KEYS[3]  grace entry            (auth:refresh:grace:<jti>), grant issued for this token
+-- ARGV[1]  generation carried by the token
+-- ARGV[2]  initial generation, expected when the family has no record yet
+-- ARGV[3]  record TTL in milliseconds
+-- ARGV[4]  grace period in milliseconds, 0 to disable
+-- ARGV[5]  grant (claims of the next bundle, no tokens) to issue if the rotation succeeds
+--
+-- Returns {'REVOKED'} if the family is already revoked, {'OK'} if the token is the current
+-- generation (the record moves to the next one and the grant is kept for the grace period),
+-- {'DUPLICATE', grant} if the token was rotated within the grace period, or {'REUSED'} otherwise
+-- (the family is revoked).
+
+if redis.call('EXISTS', KEYS[2]) == 1 then
+    return {'REVOKED'}
+end
+
+local current = redis.call('GET', KEYS[1])
+if current == 'revoked' then
+    return {'REVOKED'}
+end
+
+local presented = tonumber(ARGV[1])
+local expected = tonumber(ARGV[2])
+if current then
+    expected = tonumber(current)
+end
+
+if presented == expected then
+    redis.call('SET', KEYS[1], string.format('%d', presented + 1), 'PX', ARGV[3])
+    if tonumber(ARGV[4]) > 0 then
+        redis.call('SET', KEYS[3], ARGV[5], 'PX', ARGV[4])
+    end
+    return {'OK'}
+end
+
+if presented == expected - 1 then
+    local grant = redis.call('GET', KEYS[3])
+    if grant then
+        return {'DUPLICATE', grant}
+    end
+end
+
+redis.call('SET', KEYS[1], 'revoked', 'PX', ARGV[3])
+return {'REUSED'}
@@ -0,0 +1,20 @@
+-- Advances the token epoch of a user and drops epochs older than the retention.
+--
+-- KEYS[1]  epochs sorted set  (auth:token-epochs), member = subject, score = epoch
+-- ARGV[1]  subject
+-- ARGV[2]  retention in milliseconds, at least the lifetime of the longest-lived token
+--
+-- The new epoch is the Redis time in milliseconds, or one more than the current epoch if that is
+-- larger, so it is above the epoch of every token issued so far. Once an epoch is older than the
+-- retention every token below it has expired, so its entry can go and the user is back at 0.
+--
+-- Returns the new epoch.
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local current = tonumber(redis.call('ZSCORE', KEYS[1], ARGV[1]) or '0')
+local epoch = math.max(current + 1, now)
+
+redis.call('ZADD', KEYS[1], epoch, ARGV[1])
+redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', '(' .. (now - tonumber(ARGV[2])))
+return epoch
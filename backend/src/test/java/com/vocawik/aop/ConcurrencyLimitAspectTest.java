@@ -0,0 +1,114 @@
+package com.vocawik.aop;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.vocawik.ratelimit.ConcurrencyLimitAlgorithm;
+import com.vocawik.ratelimit.ConcurrencyLimitFilter;
+import com.vocawik.ratelimit.ConcurrencyLimiter;
+import com.vocawik.ratelimit.ConcurrencyLimiters;
+import com.vocawik.web.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+class ConcurrencyLimitAspectTest {
+
+    private static final String ENDPOINT = "GET:/api/v1/words/{id}";
+
+    private ConcurrencyLimiters concurrencyLimiters;
+    private ConcurrencyLimitAspect aspect;
+    private ProceedingJoinPoint joinPoint;
+    private ConcurrencyLimit concurrencyLimit;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        concurrencyLimiters = new ConcurrencyLimiters(new SimpleMeterRegistry());
+        aspect = new ConcurrencyLimitAspect(concurrencyLimiters);
+        joinPoint = mock(ProceedingJoinPoint.class);
+        concurrencyLimit = mock(ConcurrencyLimit.class);
+
+        when(concurrencyLimit.initialLimit()).thenReturn(1);
+        when(concurrencyLimit.minLimit()).thenReturn(1);
+        when(concurrencyLimit.maxLimit()).thenReturn(1);
+        when(concurrencyLimit.algorithm()).thenReturn(ConcurrencyLimitAlgorithm.AIMD);
+        when(concurrencyLimit.slowCallMillis()).thenReturn(1_000L);
+
+        Signature signature = mock(Signature.class);
+        when(signature.toShortString()).thenReturn("WordController.word(..)");
+        when(joinPoint.getSignature()).thenReturn(signature);
+
+        request = new MockHttpServletRequest("GET", "/api/v1/words/42");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/words/{id}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Call within the limit should hold a slot of its route until it returns")
+    void checkConcurrencyLimit_withinLimit_shouldHoldAndReleaseSlot() throws Throwable {
+        when(joinPoint.proceed())
+                .thenAnswer(
+                        invocation -> {
+                            assertThat(limiter().inFlight()).isEqualTo(1);
+                            return "ok";
+                        });
+
+        Object result = aspect.checkConcurrencyLimit(joinPoint, concurrencyLimit);
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(limiter().inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Call over the limit should be shed with ServiceUnavailableException")
+    void checkConcurrencyLimit_overLimit_shouldThrowServiceUnavailable() throws Throwable {
+        ConcurrencyLimiter limiter = limiter();
+        assertThat(limiter.tryAcquire()).isEqualTo(1);
+
+        assertThatThrownBy(() -> aspect.checkConcurrencyLimit(joinPoint, concurrencyLimit))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .extracting("retryAfterSeconds")
+                .isEqualTo(ConcurrencyLimiters.RETRY_AFTER_SECONDS);
+        verify(joinPoint, never()).proceed();
+        assertThat(limiter.shed()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Request already limited by the filter should not take a second slot")
+    void checkConcurrencyLimit_whenFilterEnforced_shouldSkip() throws Throwable {
+        request.setAttribute(ConcurrencyLimitFilter.ENFORCED_ATTRIBUTE, Boolean.TRUE);
+        when(joinPoint.proceed())
+                .thenAnswer(
+                        invocation -> {
+                            assertThat(concurrencyLimiters.all()).isEmpty();
+                            return "ok";
+                        });
+
+        aspect.checkConcurrencyLimit(joinPoint, concurrencyLimit);
+
+        verify(joinPoint).proceed();
+        assertThat(concurrencyLimiters.all()).isEmpty();
+    }
+
+    private ConcurrencyLimiter limiter() {
+        return concurrencyLimiters.limiter(ENDPOINT, concurrencyLimit);
+    }
+}
@@ -2,13 +2,22 @@ package com.vocawik.aop;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.vocawik.ratelimit.RateLimitAlgorithm;
+import com.vocawik.ratelimit.RateLimitDecision;
+import com.vocawik.ratelimit.RateLimitDimension;
+import com.vocawik.ratelimit.RateLimitFilter;
+import com.vocawik.ratelimit.RateLimitRule;
+import com.vocawik.ratelimit.RateLimiter;
 import com.vocawik.web.ClientIpResolver;
 import com.vocawik.web.exception.TooManyRequestsException;
+import java.time.Duration;
 import java.util.List;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.Signature;
@@ -17,18 +26,22 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
-import org.redisson.api.RRateLimiter;
-import org.redisson.api.RedissonClient;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
 
 class RateLimitAspectTest {
 
-    private RedissonClient redissonClient;
-    private RRateLimiter rateLimiter;
+    private static final RateLimitDecision ALLOWED =
+            RateLimitDecision.allowed(10, 9, Duration.ofSeconds(6));
+    private static final RateLimitDecision REJECTED =
+            RateLimitDecision.rejected(10, Duration.ofSeconds(60), Duration.ofSeconds(6));
+
+    private RateLimiter rateLimiter;
     private ClientIpResolver clientIpResolver;
     private RateLimitAspect aspect;
     private ProceedingJoinPoint joinPoint;
@@ -36,16 +49,16 @@ class RateLimitAspectTest {
 
     @BeforeEach
     void setUp() {
-        redissonClient = mock(RedissonClient.class);
-        rateLimiter = mock(RRateLimiter.class);
+        rateLimiter = mock(RateLimiter.class);
         clientIpResolver = mock(ClientIpResolver.class);
-        aspect = new RateLimitAspect(redissonClient, clientIpResolver);
+        aspect = new RateLimitAspect(rateLimiter, clientIpResolver);
         joinPoint = mock(ProceedingJoinPoint.class);
         rateLimit = mock(RateLimit.class);
 
-        when(redissonClient.getRateLimiter(anyString())).thenReturn(rateLimiter);
         when(rateLimit.requests()).thenReturn(10);
         when(rateLimit.seconds()).thenReturn(60);
+        when(rateLimit.algorithm()).thenReturn(RateLimitAlgorithm.TOKEN_BUCKET);
+        when(rateLimit.quotas()).thenReturn(new RateLimit.Quota[0]);
 
         Signature signature = mock(Signature.class);
         when(signature.toShortString()).thenReturn("TestController.testMethod()");
@@ -68,7 +81,7 @@ class RateLimitAspectTest {
     @Test
     @DisplayName("Should allow request when rate limit is not exceeded")
     void checkRateLimit_withinLimit_shouldProceed() throws Throwable {
-        when(rateLimiter.tryAcquire()).thenReturn(true);
+        when(rateLimiter.tryAcquire(any(RateLimitRule.class))).thenReturn(ALLOWED);
         when(joinPoint.proceed()).thenReturn("ok");
 
         Object result = aspect.checkRateLimit(joinPoint, rateLimit);
@@ -79,10 +92,15 @@ class RateLimitAspectTest {
     @Test
     @DisplayName("Should throw TooManyRequestsException when rate limit is exceeded")
     void checkRateLimit_exceedsLimit_shouldThrow() {
-        when(rateLimiter.tryAcquire()).thenReturn(false);
+        when(rateLimiter.tryAcquire(any(RateLimitRule.class))).thenReturn(REJECTED);
 
         assertThatThrownBy(() -> aspect.checkRateLimit(joinPoint, rateLimit))
-                .isInstanceOf(TooManyRequestsException.class)
+                .isInstanceOfSatisfying(
+                        TooManyRequestsException.class,
+                        ex -> {
+                            assertThat(ex.getLimit()).isEqualTo(10);
+                            assertThat(ex.getRetryAfterSeconds()).isEqualTo(6);
+                        })
                 .hasMessageContaining("Too many requests");
     }
 
@@ -91,14 +109,19 @@ class RateLimitAspectTest {
     void checkRateLimit_withAuthenticatedUser_shouldUseUserKey() throws Throwable {
         SecurityContextHolder.getContext()
                 .setAuthentication(new UsernamePasswordAuthenticationToken("42", "N/A", List.of()));
-        when(rateLimiter.tryAcquire()).thenReturn(true);
+        when(rateLimiter.tryAcquire(any(RateLimitRule.class))).thenReturn(ALLOWED);
         when(joinPoint.proceed()).thenReturn("ok");
 
         aspect.checkRateLimit(joinPoint, rateLimit);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(redissonClient).getRateLimiter(captor.capture());
-        assertThat(captor.getValue()).isEqualTo("rate_limit:GET:/api/v1/test:user:42:auth");
+        ArgumentCaptor<RateLimitRule> captor = ArgumentCaptor.forClass(RateLimitRule.class);
+        verify(rateLimiter).tryAcquire(captor.capture());
+        assertThat(captor.getValue())
+                .isEqualTo(
+                        new RateLimitRule(
+                                "rate_limit:GET:/api/v1/test:user:42:auth",
+                                10,
+                                Duration.ofSeconds(60)));
     }
 
     @Test
@@ -110,15 +133,91 @@ class RateLimitAspectTest {
         RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
         when(clientIpResolver.resolve(request)).thenReturn("203.0.113.50");
 
-        when(rateLimiter.tryAcquire()).thenReturn(true);
+        when(rateLimiter.tryAcquire(any(RateLimitRule.class))).thenReturn(ALLOWED);
         when(joinPoint.proceed()).thenReturn("ok");
 
         Object result = aspect.checkRateLimit(joinPoint, rateLimit);
 
         assertThat(result).isEqualTo("ok");
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(redissonClient).getRateLimiter(captor.capture());
-        assertThat(captor.getValue()).isEqualTo("rate_limit:GET:/api/v1/test:ip:203.0.113.50:anon");
+        ArgumentCaptor<RateLimitRule> captor = ArgumentCaptor.forClass(RateLimitRule.class);
+        verify(rateLimiter).tryAcquire(captor.capture());
+        assertThat(captor.getValue().key())
+                .isEqualTo("rate_limit:GET:/api/v1/test:ip:203.0.113.50:anon");
+    }
+
+    @Test
+    @DisplayName("Should key the limit by route template rather than the request URI")
+    void checkRateLimit_withMatchedPattern_shouldUseRouteTemplate() throws Throwable {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/words/42");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/words/{id}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        when(clientIpResolver.resolve(request)).thenReturn("203.0.113.50");
+        when(rateLimiter.tryAcquire(any(RateLimitRule.class))).thenReturn(ALLOWED);
+
+        aspect.checkRateLimit(joinPoint, rateLimit);
+
+        ArgumentCaptor<RateLimitRule> captor = ArgumentCaptor.forClass(RateLimitRule.class);
+        verify(rateLimiter).tryAcquire(captor.capture());
+        assertThat(captor.getValue().key())
+                .isEqualTo("rate_limit:GET:/api/v1/words/{id}:ip:203.0.113.50:anon");
+    }
+
+    @Test
+    @DisplayName("Should report the remaining quota in response headers")
+    void checkRateLimit_withinLimit_shouldSetRateLimitHeaders() throws Throwable {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/test");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        when(rateLimit.algorithm()).thenReturn(RateLimitAlgorithm.GCRA);
+        when(rateLimiter.tryAcquire(any(RateLimitRule.class))).thenReturn(ALLOWED);
+
+        aspect.checkRateLimit(joinPoint, rateLimit);
+
+        ArgumentCaptor<RateLimitRule> captor = ArgumentCaptor.forClass(RateLimitRule.class);
+        verify(rateLimiter).tryAcquire(captor.capture());
+        assertThat(captor.getValue().algorithm()).isEqualTo(RateLimitAlgorithm.GCRA);
+        assertThat(response.getHeader("RateLimit-Limit")).isEqualTo("10");
+        assertThat(response.getHeader("RateLimit-Remaining")).isEqualTo("9");
+        assertThat(response.getHeader("RateLimit-Reset")).isEqualTo("6");
+    }
+
+    @Test
+    @DisplayName("Should check declared quotas together with the per-user limit")
+    void checkRateLimit_withQuotas_shouldAcquireAllDimensions() throws Throwable {
+        SecurityContextHolder.getContext()
+                .setAuthentication(
+                        new UsernamePasswordAuthenticationToken("user-1", null, List.of()));
+        RateLimit.Quota userQuota = quota(RateLimitDimension.USER, 100);
+        RateLimit.Quota subnetQuota = quota(RateLimitDimension.SUBNET, 1_000);
+        when(rateLimit.quotas()).thenReturn(new RateLimit.Quota[] {userQuota, subnetQuota});
+        when(rateLimiter.tryAcquireAll(anyList())).thenReturn(ALLOWED);
+
+        aspect.checkRateLimit(joinPoint, rateLimit);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RateLimitRule>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rateLimiter).tryAcquireAll(captor.capture());
+        assertThat(captor.getValue())
+                .extracting(RateLimitRule::key)
+                .containsExactly(
+                        "rate_limit:GET:/api/v1/test:user:user-1:auth",
+                        "rate_limit:GET:/api/v1/test:user:user-1",
+                        "rate_limit:GET:/api/v1/test:subnet:127.0.0.0/24");
+        verify(rateLimiter, never()).tryAcquire(any(RateLimitRule.class));
+    }
+
+    @Test
+    @DisplayName("Should not count a request already limited by the filter again")
+    void checkRateLimit_whenEnforcedByFilter_shouldSkipLimiter() throws Throwable {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/test");
+        request.setAttribute(RateLimitFilter.ENFORCED_ATTRIBUTE, Boolean.TRUE);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        when(joinPoint.proceed()).thenReturn("ok");
+
+        Object result = aspect.checkRateLimit(joinPoint, rateLimit);
+
+        assertThat(result).isEqualTo("ok");
+        verify(rateLimiter, never()).tryAcquire(any(RateLimitRule.class));
     }
 
     @Test
@@ -126,11 +225,19 @@ class RateLimitAspectTest {
     void checkRateLimit_noRequestContext_shouldProceed() throws Throwable {
         RequestContextHolder.resetRequestAttributes();
 
-        when(rateLimiter.tryAcquire()).thenReturn(true);
+        when(rateLimiter.tryAcquire(any(RateLimitRule.class))).thenReturn(ALLOWED);
         when(joinPoint.proceed()).thenReturn("ok");
 
         Object result = aspect.checkRateLimit(joinPoint, rateLimit);
 
         assertThat(result).isEqualTo("ok");
     }
+
+    private static RateLimit.Quota quota(RateLimitDimension dimension, int requests) {
+        RateLimit.Quota quota = mock(RateLimit.Quota.class);
+        when(quota.dimension()).thenReturn(dimension);
+        when(quota.requests()).thenReturn(requests);
+        when(quota.seconds()).thenReturn(60);
+        return quota;
+    }
 }
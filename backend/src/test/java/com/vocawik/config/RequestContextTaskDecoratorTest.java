@@ -0,0 +1,73 @@
+package com.vocawik.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+class RequestContextTaskDecoratorTest {
+
+    private final RequestContextTaskDecorator decorator = new RequestContextTaskDecorator();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        MDC.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Task should see the submitter's MDC and authentication")
+    void decorate_shouldPropagateMdcAndSecurityContext() throws Exception {
+        Authentication authentication = new TestingAuthenticationToken("user", null);
+        MDC.put("requestId", "req-1");
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        AtomicReference<String> requestId = new AtomicReference<>();
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+
+        Runnable task =
+                decorator.decorate(
+                        () -> {
+                            requestId.set(MDC.get("requestId"));
+                            seen.set(SecurityContextHolder.getContext().getAuthentication());
+                        });
+        CompletableFuture.runAsync(task, executor).get(5, TimeUnit.SECONDS);
+
+        assertThat(requestId.get()).isEqualTo("req-1");
+        assertThat(seen.get()).isSameAs(authentication);
+    }
+
+    @Test
+    @DisplayName("Worker thread should be left without the task's context")
+    void decorate_shouldRestoreWorkerContext() throws Exception {
+        MDC.put("requestId", "req-1");
+        SecurityContextHolder.getContext()
+                .setAuthentication(new TestingAuthenticationToken("user", null));
+        CompletableFuture.runAsync(decorator.decorate(() -> {}), executor)
+                .get(5, TimeUnit.SECONDS);
+        AtomicReference<String> requestId = new AtomicReference<>("unset");
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+
+        CompletableFuture.runAsync(
+                        () -> {
+                            requestId.set(MDC.get("requestId"));
+                            seen.set(SecurityContextHolder.getContext().getAuthentication());
+                        },
+                        executor)
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(requestId.get()).isNull();
+        assertThat(seen.get()).isNull();
+    }
+}
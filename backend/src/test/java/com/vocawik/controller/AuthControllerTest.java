@@ -0,0 +1,76 @@
+package com.vocawik.controller;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.vocawik.exception.GlobalExceptionHandler;
+import com.vocawik.security.CurrentUserArgumentResolver;
+import com.vocawik.security.jwt.AuthPrincipal;
+import com.vocawik.service.auth.AuthService;
+import com.vocawik.service.auth.OAuthStateService;
+import java.util.List;
+import java.util.UUID;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class AuthControllerTest {
+
+    private AuthService authService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        authService = mock(AuthService.class);
+        mockMvc =
+                MockMvcBuilders.standaloneSetup(
+                                new AuthController(authService, mock(OAuthStateService.class)))
+                        .setCustomArgumentResolvers(new CurrentUserArgumentResolver())
+                        .setControllerAdvice(new GlobalExceptionHandler())
+                        .build();
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Sign out everywhere should revoke the current user's tokens and clear the cookie")
+    void logoutAll_withUser_shouldRevokeTokens() throws Exception {
+        UUID userUuid = UUID.randomUUID();
+        SecurityContextHolder.getContext()
+                .setAuthentication(
+                        new UsernamePasswordAuthenticationToken(
+                                new AuthPrincipal(userUuid, "USER"), null, List.of()));
+
+        mockMvc.perform(post("/auth/logout/all"))
+                .andExpect(status().isNoContent())
+                .andExpect(
+                        header().string(
+                                        HttpHeaders.SET_COOKIE,
+                                        Matchers.startsWith("refresh_token=;")));
+
+        verify(authService).revokeAllTokens(userUuid);
+    }
+
+    @Test
+    @DisplayName("Sign out everywhere without a user should be rejected without revoking")
+    void logoutAll_withoutUser_shouldReturn401() throws Exception {
+        mockMvc.perform(post("/auth/logout/all")).andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(authService);
+    }
+}
@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.vocawik.web.error.ErrorCode;
 import com.vocawik.web.error.ErrorResponse;
 import com.vocawik.web.exception.BusinessException;
+import com.vocawik.web.exception.ServiceUnavailableException;
 import com.vocawik.web.exception.TooManyRequestsException;
 import com.vocawik.web.exception.UnauthorizedException;
 import org.junit.jupiter.api.BeforeEach;
@@ -98,6 +99,36 @@ class GlobalExceptionHandlerTest {
         assertThat(response.getBody().message()).contains("Too many requests");
     }
 
+    @Test
+    @DisplayName("ServiceUnavailableException should return 503 with Retry-After")
+    void handleServiceUnavailableException_shouldReturn503() {
+        ServiceUnavailableException ex =
+                new ServiceUnavailableException("Server is busy. Please try again shortly.", 1);
+
+        ResponseEntity<ErrorResponse> response = handler.handleServiceUnavailableException(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst("Retry-After")).isEqualTo("1");
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().code()).isEqualTo(503);
+    }
+
+    @Test
+    @DisplayName("TooManyRequestsException with a quota should return rate limit headers")
+    void handleTooManyRequestsException_withQuota_shouldReturnRateLimitHeaders() {
+        TooManyRequestsException ex =
+                new TooManyRequestsException(
+                        "Too many requests. Please try again in 6 seconds.", 10, 60, 6);
+
+        ResponseEntity<ErrorResponse> response = handler.handleTooManyRequestsException(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst("RateLimit-Limit")).isEqualTo("10");
+        assertThat(response.getHeaders().getFirst("RateLimit-Remaining")).isEqualTo("0");
+        assertThat(response.getHeaders().getFirst("RateLimit-Reset")).isEqualTo("60");
+        assertThat(response.getHeaders().getFirst("Retry-After")).isEqualTo("6");
+    }
+
     @Test
     @DisplayName("BusinessException should return status from ErrorCode")
     void handleBusinessException_shouldReturnErrorCodeStatus() {
@@ -0,0 +1,71 @@
+package com.vocawik.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    @DisplayName("AIMD should grow by one per fast call while the limit is in use")
+    void aimd_withFastBusyCalls_shouldIncreaseAdditively() {
+        AimdLimit limit = new AimdLimit(10, 2, 100, SLOW);
+
+        for (int i = 0; i < 5; i++) {
+            limit.onSample(FAST, 10);
+        }
+
+        assertThat(limit.limit()).isEqualTo(15);
+    }
+
+    @Test
+    @DisplayName("AIMD should cut the limit by a tenth on a slow call, down to the minimum")
+    void aimd_withSlowCalls_shouldDecreaseMultiplicatively() {
+        AimdLimit limit = new AimdLimit(20, 15, 100, SLOW);
+
+        limit.onSample(SLOW + 1, 20);
+        assertThat(limit.limit()).isEqualTo(18);
+
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(SLOW + 1, 20);
+        }
+        assertThat(limit.limit()).isEqualTo(15);
+    }
+
+    @Test
+    @DisplayName("Limits should not grow while most of them is unused")
+    void limits_withIdleEndpoint_shouldNotGrow() {
+        AimdLimit aimd = new AimdLimit(20, 2, 100, SLOW);
+        GradientLimit gradient = new GradientLimit(20, 2, 100);
+
+        for (int i = 0; i < 100; i++) {
+            aimd.onSample(FAST, 1);
+            gradient.onSample(FAST, 1);
+        }
+
+        assertThat(aimd.limit()).isEqualTo(20);
+        assertThat(gradient.limit()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Gradient should grow while latency is steady and shrink once it rises")
+    void gradient_shouldFollowLatency() {
+        GradientLimit limit = new GradientLimit(20, 2, 200);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(FAST, limit.limit());
+        }
+        int grown = limit.limit();
+        assertThat(grown).isGreaterThan(20);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(FAST * 4, limit.limit());
+        }
+        assertThat(limit.limit()).isLessThan(grown);
+    }
+}
@@ -0,0 +1,114 @@
+package com.vocawik.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.vocawik.aop.ConcurrencyLimit;
+import com.vocawik.ratelimit.RateLimitRouteIndex.ConcurrencyLimitedRoute;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ConcurrencyLimitFilterTest {
+
+    private static final String ENDPOINT = "GET:/api/v1/words/{id}";
+
+    private RateLimitRouteIndex routeIndex;
+    private ConcurrencyLimiters concurrencyLimiters;
+    private ConcurrencyLimitFilter filter;
+    private FilterChain filterChain;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        routeIndex = mock(RateLimitRouteIndex.class);
+        concurrencyLimiters = new ConcurrencyLimiters(new SimpleMeterRegistry());
+        filter =
+                new ConcurrencyLimitFilter(
+                        routeIndex,
+                        concurrencyLimiters,
+                        JsonMapper.builder().findAndAddModules().build());
+        filterChain = mock(FilterChain.class);
+        request = new MockHttpServletRequest("GET", "/api/v1/words/42");
+        response = new MockHttpServletResponse();
+
+        ConcurrencyLimit concurrencyLimit = mock(ConcurrencyLimit.class);
+        when(concurrencyLimit.initialLimit()).thenReturn(1);
+        when(concurrencyLimit.minLimit()).thenReturn(1);
+        when(concurrencyLimit.maxLimit()).thenReturn(1);
+        when(concurrencyLimit.algorithm()).thenReturn(ConcurrencyLimitAlgorithm.AIMD);
+        when(concurrencyLimit.slowCallMillis()).thenReturn(1_000L);
+        when(routeIndex.matchConcurrencyLimit(any()))
+                .thenReturn(
+                        Optional.of(
+                                new ConcurrencyLimitedRoute(
+                                        "/api/v1/words/{id}", concurrencyLimit)));
+    }
+
+    @Test
+    @DisplayName("Request within the limit should hold a slot until the chain completes")
+    void doFilter_withinLimit_shouldHoldSlotDuringChain() throws Exception {
+        doAnswer(
+                        invocation -> {
+                            assertThat(limiter().inFlight()).isEqualTo(1);
+                            return null;
+                        })
+                .when(filterChain)
+                .doFilter(request, response);
+
+        filter.doFilter(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        assertThat(request.getAttribute(ConcurrencyLimitFilter.ENFORCED_ATTRIBUTE))
+                .isEqualTo(true);
+        assertThat(limiter().inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Request over the limit should be shed with 503 and Retry-After")
+    void doFilter_overLimit_shouldShedWith503() throws Exception {
+        filter.doFilter(request, response, filterChain);
+        ConcurrencyLimiter limiter = limiter();
+        int held = limiter.tryAcquire();
+        MockHttpServletResponse shedResponse = new MockHttpServletResponse();
+
+        filter.doFilter(request, shedResponse, filterChain);
+        limiter.release(0, held);
+
+        assertThat(shedResponse.getStatus()).isEqualTo(503);
+        assertThat(shedResponse.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(shedResponse.getContentAsString()).contains("Server is busy");
+        assertThat(limiter.shed()).isEqualTo(1);
+        verify(filterChain, never()).doFilter(request, shedResponse);
+    }
+
+    @Test
+    @DisplayName("Request to a route without a limit should pass untouched")
+    void doFilter_withUnlimitedRoute_shouldSkipLimiter() throws Exception {
+        when(routeIndex.matchConcurrencyLimit(request)).thenReturn(Optional.empty());
+
+        filter.doFilter(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        assertThat(concurrencyLimiters.all()).isEmpty();
+    }
+
+    private ConcurrencyLimiter limiter() {
+        return concurrencyLimiters.all().stream()
+                .filter(limiter -> limiter.endpoint().equals(ENDPOINT))
+                .findFirst()
+                .orElseThrow();
+    }
+}
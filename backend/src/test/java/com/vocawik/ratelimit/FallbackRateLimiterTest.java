@@ -0,0 +1,110 @@
+package com.vocawik.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class FallbackRateLimiterTest {
+
+    private static final Duration WINDOW = Duration.ofSeconds(60);
+    private static final RateLimitRule RULE = new RateLimitRule("rate_limit:key", 100, WINDOW);
+
+    private final AtomicLong now = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateLimiter delegate;
+    private RateLimitRedisGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(RateLimiter.class);
+        guard = new RateLimitRedisGuard(meterRegistry, 20L, 20, 10, 50, 5_000L);
+        when(delegate.tryAcquire(any(RateLimitRule.class)))
+                .thenThrow(new RateLimiterUnavailableException("Redis is down"));
+        when(delegate.tryAcquireAll(anyList()))
+                .thenThrow(new RateLimiterUnavailableException("Redis is down"));
+    }
+
+    @Test
+    @DisplayName("Available Redis should decide every call")
+    void tryAcquire_withRedisAvailable_shouldUseDelegate() {
+        RateLimitDecision decision = RateLimitDecision.allowed(100, 42, Duration.ofSeconds(1));
+        RateLimiter available = mock(RateLimiter.class);
+        when(available.tryAcquire(RULE)).thenReturn(decision);
+
+        FallbackRateLimiter limiter =
+                new FallbackRateLimiter(
+                        available, guard, meterRegistry, RateLimitFallback.FAIL_CLOSED, local());
+
+        assertThat(limiter.tryAcquire(RULE)).isEqualTo(decision);
+        assertThat(limiter.fallbackDecisions()).isZero();
+    }
+
+    @Test
+    @DisplayName("Fail-open policy should admit calls while Redis is unavailable")
+    void tryAcquire_failOpen_shouldAdmit() {
+        FallbackRateLimiter limiter = limiter(RateLimitFallback.FAIL_OPEN);
+
+        assertThat(limiter.tryAcquire(RULE).allowed()).isTrue();
+        assertThat(limiter.fallbackDecisions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Fail-closed policy should reject calls until the breaker probes Redis again")
+    void tryAcquire_failClosed_shouldRejectUntilProbe() {
+        FallbackRateLimiter limiter = limiter(RateLimitFallback.FAIL_CLOSED);
+
+        RateLimitDecision decision = limiter.tryAcquire(RULE);
+
+        assertThat(decision.allowed()).isFalse();
+        assertThat(decision.retryAfter()).isEqualTo(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Local policy should admit the configured share of the limit per window")
+    void tryAcquire_local_shouldEnforceShareOfLimit() {
+        FallbackRateLimiter limiter = limiter(RateLimitFallback.LOCAL);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire(RULE).allowed()).isTrue();
+        }
+        RateLimitDecision rejected = limiter.tryAcquire(RULE);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.limit()).isEqualTo(10);
+        assertThat(rejected.retryAfter()).isEqualTo(Duration.ofSeconds(6));
+
+        now.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertThat(limiter.tryAcquire(RULE).allowed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Local policy should take no permit when one of several rules is spent")
+    void tryAcquireAll_local_shouldConsumeNothingOnRejection() {
+        FallbackRateLimiter limiter = limiter(RateLimitFallback.LOCAL);
+        RateLimitRule caller = new RateLimitRule("rate_limit:caller", 100, WINDOW);
+        RateLimitRule endpoint = new RateLimitRule("rate_limit:endpoint", 20, WINDOW);
+
+        assertThat(limiter.tryAcquireAll(List.of(caller, endpoint)).allowed()).isTrue();
+        assertThat(limiter.tryAcquireAll(List.of(caller, endpoint)).allowed()).isTrue();
+        assertThat(limiter.tryAcquireAll(List.of(caller, endpoint)).allowed()).isFalse();
+
+        assertThat(limiter.tryAcquire(caller).remaining()).isEqualTo(7);
+    }
+
+    private FallbackRateLimiter limiter(RateLimitFallback policy) {
+        return new FallbackRateLimiter(delegate, guard, meterRegistry, policy, local());
+    }
+
+    private LocalRateLimiter local() {
+        return new LocalRateLimiter(0.1, 1_000L, now::get);
+    }
+}
@@ -0,0 +1,187 @@
+package com.vocawik.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/** Limiter behaviour when several instances share one Redis. */
+@Testcontainers(disabledWithoutDocker = true)
+class LeasingRateLimiterRedisTest {
+
+    private static final int NODES = 3;
+    private static final int THREADS_PER_NODE = 4;
+    private static final long LIMIT = 600;
+    private static final double LEASE_FRACTION = 0.05;
+
+    @Container
+    private static final GenericContainer<?> REDIS =
+            new GenericContainer<>(DockerImageName.parse("redis:8-alpine")).withExposedPorts(6379);
+
+    private final List<RedissonClient> clients = new ArrayList<>();
+    private final List<LeasingRateLimiter> nodes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < NODES; i++) {
+            Config config = new Config();
+            config.useSingleServer()
+                    .setAddress("redis://" + REDIS.getHost() + ":" + REDIS.getMappedPort(6379));
+            RedissonClient client = Redisson.create(config);
+            clients.add(client);
+            RateLimitRedisGuard guard =
+                    new RateLimitRedisGuard(new SimpleMeterRegistry(), 1_000L, 20, 10, 50, 30_000L);
+            nodes.add(
+                    new LeasingRateLimiter(
+                            new RedissonSharedQuota(
+                                    client, guard, new SimpleMeterRegistry(), 1_000L),
+                            new ScriptedRateLimiter(client, guard),
+                            new SimpleMeterRegistry(),
+                            true,
+                            LEASE_FRACTION,
+                            0,
+                            1_000L));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(LeasingRateLimiter::destroy);
+        clients.forEach(RedissonClient::shutdown);
+    }
+
+    @Test
+    @DisplayName("Instances together should admit the limit within the configured error")
+    void tryAcquire_acrossNodes_shouldHoldGlobalLimitWithinError() throws Exception {
+        RateLimitRule rule =
+                new RateLimitRule(
+                        "rate_limit:test:" + UUID.randomUUID(), LIMIT, Duration.ofMinutes(5));
+
+        long admitted = hammer(rule, (int) LIMIT * 3);
+
+        long batch = (long) (LIMIT * LEASE_FRACTION);
+        assertThat(admitted)
+                .isLessThanOrEqualTo(LIMIT)
+                .isGreaterThanOrEqualTo(LIMIT - 2L * NODES * batch);
+    }
+
+    @Test
+    @DisplayName("Limiter keys should expire two windows after their last use")
+    void tryAcquire_shouldGiveLimiterKeysWindowBoundTtl() {
+        Duration window = Duration.ofMinutes(5);
+        RateLimitRule rule = new RateLimitRule("rate_limit:test:" + UUID.randomUUID(), 2, window);
+
+        nodes.get(0).tryAcquire(rule);
+
+        long ttlMillis = clients.get(0).getKeys().remainTimeToLive(rule.key());
+        assertThat(ttlMillis).isPositive().isLessThanOrEqualTo(window.multipliedBy(2).toMillis());
+    }
+
+    @ParameterizedTest
+    @EnumSource(
+            value = RateLimitAlgorithm.class,
+            names = {"GCRA", "SLIDING_WINDOW", "FIXED_WINDOW"})
+    @DisplayName("Scripted algorithms should count down the quota and reject once it is spent")
+    void tryAcquire_withScriptedAlgorithm_shouldReportQuota(RateLimitAlgorithm algorithm) {
+        RateLimitRule rule =
+                new RateLimitRule(
+                        "rate_limit:test:" + UUID.randomUUID(),
+                        3,
+                        Duration.ofMinutes(1),
+                        algorithm);
+
+        List<RateLimitDecision> decisions = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            decisions.add(nodes.get(i % NODES).tryAcquire(rule));
+        }
+
+        assertThat(decisions)
+                .extracting(RateLimitDecision::allowed)
+                .containsExactly(true, true, true, false);
+        assertThat(decisions)
+                .extracting(RateLimitDecision::remaining)
+                .containsExactly(2L, 1L, 0L, 0L);
+        RateLimitDecision rejected = decisions.get(3);
+        assertThat(rejected.retryAfter()).isPositive().isLessThanOrEqualTo(Duration.ofMinutes(1));
+        assertThat(rejected.resetAfter()).isPositive().isLessThanOrEqualTo(Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Rules checked together should take no permit when any of them is spent")
+    void tryAcquireAll_whenOneRuleIsSpent_shouldConsumeNothing() {
+        String prefix = "rate_limit:test:" + UUID.randomUUID();
+        RateLimitRule caller =
+                new RateLimitRule(
+                        prefix + ":caller", 10, Duration.ofMinutes(1), RateLimitAlgorithm.GCRA);
+        RateLimitRule endpoint =
+                new RateLimitRule(
+                        prefix + ":endpoint", 2, Duration.ofMinutes(1), RateLimitAlgorithm.GCRA);
+        List<RateLimitRule> rules = List.of(caller, endpoint);
+
+        RateLimitDecision first = nodes.get(0).tryAcquireAll(rules);
+        RateLimitDecision second = nodes.get(1).tryAcquireAll(rules);
+        RateLimitDecision third = nodes.get(2).tryAcquireAll(rules);
+
+        assertThat(first.allowed()).isTrue();
+        assertThat(first.limit()).isEqualTo(2);
+        assertThat(first.remaining()).isEqualTo(1);
+        assertThat(second.allowed()).isTrue();
+        assertThat(third.allowed()).isFalse();
+        assertThat(third.limit()).isEqualTo(2);
+        assertThat(third.retryAfter()).isPositive();
+        // the rejected call left the caller's quota untouched
+        assertThat(nodes.get(0).tryAcquire(caller).remaining()).isEqualTo(7);
+    }
+
+    private long hammer(RateLimitRule rule, int callsPerNode) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(NODES * THREADS_PER_NODE);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (LeasingRateLimiter node : nodes) {
+                for (int t = 0; t < THREADS_PER_NODE; t++) {
+                    results.add(
+                            executor.submit(
+                                    () -> {
+                                        start.await();
+                                        long admitted = 0;
+                                        for (int i = 0; i < callsPerNode / THREADS_PER_NODE; i++) {
+                                            if (node.tryAcquire(rule).allowed()) {
+                                                admitted++;
+                                            }
+                                        }
+                                        return admitted;
+                                    }));
+                }
+            }
+            start.countDown();
+            long admitted = 0;
+            for (Future<Long> result : results) {
+                admitted += result.get();
+            }
+            return admitted;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
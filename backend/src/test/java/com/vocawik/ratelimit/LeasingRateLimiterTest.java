@@ -0,0 +1,273 @@
+package com.vocawik.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LeasingRateLimiterTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+
+    private final ScriptedRateLimiter scriptedRateLimiter = mock(ScriptedRateLimiter.class);
+    private LeasingRateLimiter limiter;
+
+    @AfterEach
+    void tearDown() {
+        if (limiter != null) {
+            limiter.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent callers should never be admitted beyond the shared quota")
+    void tryAcquire_concurrently_shouldStayWithinSharedQuota() throws Exception {
+        InMemoryQuota quota = new InMemoryQuota(1_000);
+        limiter = limiter(quota, 0.05);
+        RateLimitRule rule = new RateLimitRule("key", 1_000, WINDOW);
+
+        long admitted = hammer(rule, 8, 500);
+
+        // at most two unused batches of 50 are left on the instance
+        assertThat(admitted).isLessThanOrEqualTo(1_000).isGreaterThanOrEqualTo(1_000 - 2 * 50);
+        // one lease per batch, plus a prefetch and a synchronous lease that found the quota spent
+        assertThat(quota.leases()).isLessThanOrEqualTo(1_000 / 50 + 2);
+    }
+
+    @Test
+    @DisplayName("Most decisions should be served locally without a shared quota call")
+    void tryAcquire_withinBatch_shouldNotCallSharedQuota() {
+        InMemoryQuota quota = new InMemoryQuota(1_000);
+        limiter = limiter(quota, 0.1);
+        RateLimitRule rule = new RateLimitRule("key", 1_000, WINDOW);
+
+        for (int i = 0; i < 40; i++) {
+            assertThat(limiter.tryAcquire(rule).allowed()).isTrue();
+        }
+
+        assertThat(quota.leases()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Running low should lease the next batch in the background")
+    void tryAcquire_belowLowWater_shouldPrefetchNextBatch() throws InterruptedException {
+        InMemoryQuota quota = new InMemoryQuota(1_000);
+        limiter = limiter(quota, 0.1);
+        RateLimitRule rule = new RateLimitRule("key", 100, WINDOW);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire(rule);
+        }
+
+        awaitLeases(quota, 2);
+        assertThat(quota.remaining()).isEqualTo(1_000 - 20);
+    }
+
+    @Test
+    @DisplayName("Permits leased in an ended window should not be used in the next one")
+    void tryAcquire_afterWindow_shouldDropLeasedPermits() throws InterruptedException {
+        InMemoryQuota quota = new InMemoryQuota(1_000);
+        limiter = limiter(quota, 0.1);
+        RateLimitRule rule = new RateLimitRule("key", 100, Duration.ofMillis(50));
+        limiter.tryAcquire(rule);
+
+        Thread.sleep(80);
+        limiter.tryAcquire(rule);
+
+        assertThat(quota.leases()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("A batch leased later should not extend the window of an earlier batch")
+    void tryAcquire_afterPrefetch_shouldExpireEarlierBatchOnItsOwn() throws InterruptedException {
+        InMemoryQuota quota = new InMemoryQuota(20);
+        limiter = limiter(quota, 0.1);
+        RateLimitRule rule = new RateLimitRule("key", 100, Duration.ofMillis(400));
+        limiter.tryAcquire(rule);
+        Thread.sleep(250);
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire(rule);
+        }
+        awaitLeases(quota, 2);
+
+        // the first batch, 5 permits left, has expired; the prefetched one has 10 for 250 ms more
+        Thread.sleep(200);
+        quota.refill(20);
+        long admitted = 0;
+        while (limiter.tryAcquire(rule).allowed()) {
+            admitted++;
+        }
+
+        assertThat(admitted).isEqualTo(10 + 20);
+    }
+
+    @Test
+    @DisplayName("Spent shared quota should reject further calls locally")
+    void tryAcquire_whenSharedQuotaSpent_shouldRejectWithoutRetryingLease() {
+        InMemoryQuota quota = new InMemoryQuota(0);
+        limiter = limiter(quota, 0.1);
+        RateLimitRule rule = new RateLimitRule("key", 100, WINDOW);
+
+        for (int i = 0; i < 10; i++) {
+            RateLimitDecision decision = limiter.tryAcquire(rule);
+            assertThat(decision.allowed()).isFalse();
+            // a batch of 10 out of 100 per minute refills in 6 seconds
+            assertThat(decision.retryAfter()).isEqualTo(Duration.ofSeconds(6));
+        }
+
+        assertThat(quota.leases()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Limits too small for a batch should be decided by the shared quota")
+    void tryAcquire_withSmallLimit_shouldCallSharedQuotaEveryTime() {
+        InMemoryQuota quota = new InMemoryQuota(2);
+        limiter = limiter(quota, 0.05);
+        RateLimitRule rule = new RateLimitRule("key", 2, WINDOW);
+
+        assertThat(limiter.tryAcquire(rule).allowed()).isTrue();
+        assertThat(limiter.tryAcquire(rule).allowed()).isTrue();
+        RateLimitDecision rejected = limiter.tryAcquire(rule);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfter()).isEqualTo(Duration.ofSeconds(30));
+        assertThat(quota.leases()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Token-bucket decisions should report the limit but not a remaining quota")
+    void tryAcquire_withTokenBucket_shouldLeaveRemainingUnknown() {
+        limiter = limiter(new InMemoryQuota(1_000), 0.1);
+
+        RateLimitDecision decision = limiter.tryAcquire(new RateLimitRule("key", 100, WINDOW));
+
+        assertThat(decision.limit()).isEqualTo(100);
+        assertThat(decision.hasRemaining()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Rules with a scripted algorithm should bypass the local tier")
+    void tryAcquire_withScriptedAlgorithm_shouldDelegate() {
+        InMemoryQuota quota = new InMemoryQuota(1_000);
+        limiter = limiter(quota, 0.1);
+        RateLimitRule rule = new RateLimitRule("key", 100, WINDOW, RateLimitAlgorithm.GCRA);
+        RateLimitDecision scripted = RateLimitDecision.allowed(100, 99, Duration.ofMillis(600));
+        when(scriptedRateLimiter.tryAcquire(rule)).thenReturn(scripted);
+
+        assertThat(limiter.tryAcquire(rule)).isEqualTo(scripted);
+        assertThat(quota.leases()).isZero();
+    }
+
+    @Test
+    @DisplayName("Rules checked together should be handed to the scripted limiter")
+    void tryAcquireAll_shouldDelegateToScriptedLimiter() {
+        InMemoryQuota quota = new InMemoryQuota(1_000);
+        limiter = limiter(quota, 0.1);
+        List<RateLimitRule> rules =
+                List.of(
+                        new RateLimitRule("caller", 10, WINDOW, RateLimitAlgorithm.GCRA),
+                        new RateLimitRule("endpoint", 1_000, WINDOW, RateLimitAlgorithm.GCRA));
+        RateLimitDecision scripted = RateLimitDecision.allowed(10, 9, Duration.ofMillis(100));
+        when(scriptedRateLimiter.tryAcquireAll(rules)).thenReturn(scripted);
+
+        assertThat(limiter.tryAcquireAll(rules)).isEqualTo(scripted);
+        assertThat(quota.leases()).isZero();
+    }
+
+    private LeasingRateLimiter limiter(SharedQuota quota, double leaseFraction) {
+        return new LeasingRateLimiter(
+                quota,
+                scriptedRateLimiter,
+                new SimpleMeterRegistry(),
+                true,
+                leaseFraction,
+                4,
+                1_000L);
+    }
+
+    private long hammer(RateLimitRule rule, int threads, int callsPerThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(
+                        executor.submit(
+                                () -> {
+                                    start.await();
+                                    long admitted = 0;
+                                    for (int i = 0; i < callsPerThread; i++) {
+                                        if (limiter.tryAcquire(rule).allowed()) {
+                                            admitted++;
+                                        }
+                                    }
+                                    return admitted;
+                                }));
+            }
+            start.countDown();
+            long admitted = 0;
+            for (Future<Long> result : results) {
+                admitted += result.get();
+            }
+            return admitted;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitLeases(InMemoryQuota quota, int expected)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (quota.leases() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(quota.leases()).isEqualTo(expected);
+    }
+
+    /** Shared quota that hands out a fixed number of permits until it is refilled. */
+    private static final class InMemoryQuota implements SharedQuota {
+
+        private final AtomicLong remaining;
+        private final AtomicInteger leases = new AtomicInteger();
+
+        InMemoryQuota(long permits) {
+            this.remaining = new AtomicLong(permits);
+        }
+
+        @Override
+        public long lease(RateLimitRule rule, long permits) {
+            while (true) {
+                long current = remaining.get();
+                long granted = Math.min(current, permits);
+                if (remaining.compareAndSet(current, current - granted)) {
+                    leases.incrementAndGet();
+                    return granted;
+                }
+            }
+        }
+
+        void refill(long permits) {
+            remaining.set(permits);
+        }
+
+        int leases() {
+            return leases.get();
+        }
+
+        long remaining() {
+            return remaining.get();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.vocawik.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.vocawik.aop.RateLimit;
+import com.vocawik.ratelimit.RateLimitRouteIndex.RateLimitedRoute;
+import com.vocawik.web.ClientIpResolver;
+import jakarta.servlet.FilterChain;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RateLimitFilterTest {
+
+    private RateLimitRouteIndex routeIndex;
+    private RateLimit rateLimit;
+    private RateLimiter rateLimiter;
+    private RateLimitFilter filter;
+    private FilterChain filterChain;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        routeIndex = mock(RateLimitRouteIndex.class);
+        rateLimiter = mock(RateLimiter.class);
+        ClientIpResolver clientIpResolver = mock(ClientIpResolver.class);
+        filter =
+                new RateLimitFilter(
+                        routeIndex,
+                        rateLimiter,
+                        clientIpResolver,
+                        JsonMapper.builder().findAndAddModules().build());
+        filterChain = mock(FilterChain.class);
+        request = new MockHttpServletRequest("GET", "/api/v1/words/42");
+        response = new MockHttpServletResponse();
+
+        rateLimit = mock(RateLimit.class);
+        when(rateLimit.requests()).thenReturn(10);
+        when(rateLimit.seconds()).thenReturn(60);
+        when(rateLimit.algorithm()).thenReturn(RateLimitAlgorithm.TOKEN_BUCKET);
+        when(rateLimit.quotas()).thenReturn(new RateLimit.Quota[0]);
+        when(routeIndex.match(request))
+                .thenReturn(Optional.of(new RateLimitedRoute("/api/v1/words/{id}", rateLimit)));
+        when(clientIpResolver.resolve(request)).thenReturn("203.0.113.50");
+    }
+
+    @Test
+    @DisplayName("Anonymous request within the limit should continue, keyed by route template")
+    void doFilter_withinLimit_shouldContinueChain() throws Exception {
+        when(rateLimiter.tryAcquire(any(RateLimitRule.class)))
+                .thenReturn(RateLimitDecision.allowed(10, 9, Duration.ofSeconds(6)));
+
+        filter.doFilter(request, response, filterChain);
+
+        ArgumentCaptor<RateLimitRule> captor = ArgumentCaptor.forClass(RateLimitRule.class);
+        verify(rateLimiter).tryAcquire(captor.capture());
+        assertThat(captor.getValue())
+                .isEqualTo(
+                        new RateLimitRule(
+                                "rate_limit:GET:/api/v1/words/{id}:ip:203.0.113.50:anon",
+                                10,
+                                Duration.ofSeconds(60)));
+        assertThat(request.getAttribute(RateLimitFilter.ENFORCED_ATTRIBUTE)).isEqualTo(true);
+        assertThat(response.getHeader("RateLimit-Remaining")).isEqualTo("9");
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    @DisplayName("Over-limit request should get 429 without reaching later filters")
+    void doFilter_overLimit_shouldRejectWith429() throws Exception {
+        when(rateLimiter.tryAcquire(any(RateLimitRule.class)))
+                .thenReturn(
+                        RateLimitDecision.rejected(
+                                10, Duration.ofSeconds(60), Duration.ofSeconds(6)));
+
+        filter.doFilter(request, response, filterChain);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getContentAsString()).contains("try again in 6 seconds");
+        assertThat(response.getHeader("RateLimit-Limit")).isEqualTo("10");
+        assertThat(response.getHeader("RateLimit-Remaining")).isEqualTo("0");
+        assertThat(response.getHeader("RateLimit-Reset")).isEqualTo("60");
+        assertThat(response.getHeader("Retry-After")).isEqualTo("6");
+        verify(filterChain, never()).doFilter(request, response);
+    }
+
+    @Test
+    @DisplayName("Declared quotas should be checked together, skipping the user dimension")
+    void doFilter_withQuotas_shouldAcquireAnonymousDimensions() throws Exception {
+        RateLimit.Quota userQuota = quota(RateLimitDimension.USER);
+        RateLimit.Quota endpointQuota = quota(RateLimitDimension.ENDPOINT);
+        when(rateLimit.quotas()).thenReturn(new RateLimit.Quota[] {userQuota, endpointQuota});
+        when(rateLimiter.tryAcquireAll(anyList()))
+                .thenReturn(RateLimitDecision.allowed(1_000, 999, Duration.ofSeconds(1)));
+
+        filter.doFilter(request, response, filterChain);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RateLimitRule>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rateLimiter).tryAcquireAll(captor.capture());
+        assertThat(captor.getValue())
+                .extracting(RateLimitRule::key)
+                .containsExactly(
+                        "rate_limit:GET:/api/v1/words/{id}:ip:203.0.113.50:anon",
+                        "rate_limit:GET:/api/v1/words/{id}:all");
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    @DisplayName("Request with a token should be left to the per-user limit")
+    void doFilter_withAuthorizationHeader_shouldSkipLimiter() throws Exception {
+        request.addHeader("Authorization", "Bearer token");
+
+        filter.doFilter(request, response, filterChain);
+
+        verify(rateLimiter, never()).tryAcquire(any(RateLimitRule.class));
+        assertThat(request.getAttribute(RateLimitFilter.ENFORCED_ATTRIBUTE)).isNull();
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    @DisplayName("Request to a route without a limit should pass untouched")
+    void doFilter_withUnlimitedRoute_shouldSkipLimiter() throws Exception {
+        when(routeIndex.match(request)).thenReturn(Optional.empty());
+
+        filter.doFilter(request, response, filterChain);
+
+        verify(rateLimiter, never()).tryAcquire(any(RateLimitRule.class));
+        verify(filterChain).doFilter(request, response);
+    }
+
+    private static RateLimit.Quota quota(RateLimitDimension dimension) {
+        RateLimit.Quota quota = mock(RateLimit.Quota.class);
+        when(quota.dimension()).thenReturn(dimension);
+        when(quota.requests()).thenReturn(1_000);
+        when(quota.seconds()).thenReturn(60);
+        return quota;
+    }
+}
@@ -0,0 +1,90 @@
+package com.vocawik.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.vocawik.aop.RateLimit;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RateLimitQuotasTest {
+
+    private static final String ENDPOINT = "POST:/api/v1/words";
+    private static final RateLimitRule CALLER =
+            new RateLimitRule(
+                    "rate_limit:POST:/api/v1/words:ip:203.0.113.50:anon",
+                    10,
+                    Duration.ofSeconds(60));
+
+    @Test
+    @DisplayName("Caller rule should come first and every rule should use GCRA")
+    void withCaller_shouldPrependCallerRuleAsGcra() {
+        List<RateLimitRule> rules =
+                RateLimitQuotas.withCaller(
+                        CALLER,
+                        new RateLimit.Quota[] {
+                            quota(RateLimitDimension.IP, 20, 10),
+                            quota(RateLimitDimension.ENDPOINT, 5_000, 60)
+                        },
+                        ENDPOINT,
+                        "203.0.113.50",
+                        null);
+
+        assertThat(rules)
+                .containsExactly(
+                        new RateLimitRule(
+                                CALLER.key(), 10, Duration.ofSeconds(60), RateLimitAlgorithm.GCRA),
+                        new RateLimitRule(
+                                "rate_limit:POST:/api/v1/words:ip:203.0.113.50",
+                                20,
+                                Duration.ofSeconds(10),
+                                RateLimitAlgorithm.GCRA),
+                        new RateLimitRule(
+                                "rate_limit:POST:/api/v1/words:all",
+                                5_000,
+                                Duration.ofSeconds(60),
+                                RateLimitAlgorithm.GCRA));
+    }
+
+    @Test
+    @DisplayName("User quotas should apply to authenticated calls only")
+    void withCaller_withUserQuota_shouldSkipAnonymousCalls() {
+        RateLimit.Quota[] quotas = {quota(RateLimitDimension.USER, 100, 60)};
+
+        assertThat(RateLimitQuotas.withCaller(CALLER, quotas, ENDPOINT, "203.0.113.50", null))
+                .hasSize(1);
+        assertThat(RateLimitQuotas.withCaller(CALLER, quotas, ENDPOINT, "203.0.113.50", "42"))
+                .extracting(RateLimitRule::key)
+                .endsWith("rate_limit:POST:/api/v1/words:user:42");
+    }
+
+    @Test
+    @DisplayName("Subnet should be the /24 of an IPv4 address")
+    void subnet_withIpv4_shouldKeepThreeOctets() {
+        assertThat(RateLimitDimension.subnet("203.0.113.50")).isEqualTo("203.0.113.0/24");
+    }
+
+    @Test
+    @DisplayName("Subnet should be the /64 of an IPv6 address")
+    void subnet_withIpv6_shouldKeepNetworkPrefix() {
+        assertThat(RateLimitDimension.subnet("2001:db8:85a3:8d3:1319:8a2e:370:7348"))
+                .isEqualTo("2001:db8:85a3:8d3:0:0:0:0/64");
+    }
+
+    @Test
+    @DisplayName("Subnet of a value that is not an IP should be the value itself")
+    void subnet_withHostName_shouldNotResolveIt() {
+        assertThat(RateLimitDimension.subnet("unknown")).isEqualTo("unknown");
+    }
+
+    private static RateLimit.Quota quota(RateLimitDimension dimension, int requests, int seconds) {
+        RateLimit.Quota quota = mock(RateLimit.Quota.class);
+        when(quota.dimension()).thenReturn(dimension);
+        when(quota.requests()).thenReturn(requests);
+        when(quota.seconds()).thenReturn(seconds);
+        return quota;
+    }
+}
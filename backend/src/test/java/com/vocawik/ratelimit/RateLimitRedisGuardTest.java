@@ -0,0 +1,81 @@
+package com.vocawik.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.vocawik.common.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RateLimitRedisGuardTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateLimitRedisGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        guard = new RateLimitRedisGuard(meterRegistry, 20L, 4, 4, 50, 30_000L);
+    }
+
+    @Test
+    @DisplayName("Completed call should return its result")
+    void await_withCompletedCall_shouldReturnResult() {
+        assertThat(guard.await(() -> CompletableFuture.completedFuture(5L))).isEqualTo(5L);
+        assertThat(requests("success")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Call slower than the budget should be given up without waiting for it")
+    void await_withSlowCall_shouldFailWithinBudget() {
+        long startedAt = System.nanoTime();
+
+        assertThatThrownBy(() -> guard.await(CompletableFuture::new))
+                .isInstanceOf(RateLimiterUnavailableException.class)
+                .hasMessageContaining("20 ms");
+
+        assertThat(System.nanoTime() - startedAt).isLessThan(1_000_000_000L);
+        assertThat(requests("timeout")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Repeated failures should open the breaker and stop calling Redis")
+    void await_afterRepeatedFailures_shouldRejectWithoutCalling() {
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(
+                            () ->
+                                    guard.await(
+                                            () ->
+                                                    CompletableFuture.failedFuture(
+                                                            new IllegalStateException("down"))))
+                    .isInstanceOf(RateLimiterUnavailableException.class);
+        }
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(
+                        () ->
+                                guard.await(
+                                        () -> {
+                                            calls.incrementAndGet();
+                                            return CompletableFuture.completedFuture(1L);
+                                        }))
+                .isInstanceOf(RateLimiterUnavailableException.class)
+                .hasMessageContaining("open");
+        assertThat(calls).hasValue(0);
+        assertThat(guard.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        double opened =
+                meterRegistry
+                        .get("ratelimit.redis.circuit.transitions")
+                        .tag("to", "open")
+                        .counter()
+                        .count();
+        assertThat(opened).isEqualTo(1.0);
+    }
+
+    private long requests(String outcome) {
+        return meterRegistry.get("ratelimit.redis.request").tag("outcome", outcome).timer().count();
+    }
+}
@@ -0,0 +1,111 @@
+package com.vocawik.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.vocawik.aop.ConcurrencyLimit;
+import com.vocawik.aop.RateLimit;
+import com.vocawik.ratelimit.RateLimitRouteIndex.ConcurrencyLimitedRoute;
+import com.vocawik.ratelimit.RateLimitRouteIndex.RateLimitedRoute;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+class RateLimitRouteIndexTest {
+
+    private RateLimitRouteIndex routeIndex;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        Map<RequestMappingInfo, HandlerMethod> handlerMethods = new LinkedHashMap<>();
+        handlerMethods.put(
+                RequestMappingInfo.paths("/api/v1/words/{id}").methods(RequestMethod.GET).build(),
+                handler("word"));
+        handlerMethods.put(
+                RequestMappingInfo.paths("/api/v1/words/new").methods(RequestMethod.GET).build(),
+                handler("newWord"));
+        handlerMethods.put(
+                RequestMappingInfo.paths("/api/v1/words/{id}").methods(RequestMethod.PUT).build(),
+                handler("updateWord"));
+        RequestMappingHandlerMapping handlerMapping = mock(RequestMappingHandlerMapping.class);
+        when(handlerMapping.getHandlerMethods()).thenReturn(handlerMethods);
+
+        routeIndex = new RateLimitRouteIndex(handlerMapping);
+        routeIndex.afterSingletonsInstantiated();
+    }
+
+    @Test
+    @DisplayName("Request should resolve to the route template and its limit")
+    void match_withPathVariable_shouldReturnRouteTemplate() {
+        Optional<RateLimitedRoute> route =
+                routeIndex.match(new MockHttpServletRequest("GET", "/api/v1/words/42"));
+
+        assertThat(route).isPresent();
+        assertThat(route.get().template()).isEqualTo("/api/v1/words/{id}");
+        assertThat(route.get().rateLimit().requests()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("More specific route without a limit should not be limited")
+    void match_withMoreSpecificUnlimitedRoute_shouldReturnEmpty() {
+        assertThat(routeIndex.match(new MockHttpServletRequest("GET", "/api/v1/words/new")))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("Route should only match its own HTTP method")
+    void match_withOtherMethod_shouldUseThatMethodsRoute() {
+        assertThat(routeIndex.match(new MockHttpServletRequest("PUT", "/api/v1/words/42")))
+                .isEmpty();
+        assertThat(routeIndex.match(new MockHttpServletRequest("DELETE", "/api/v1/words/42")))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("Request should resolve to the route template and its concurrency limit")
+    void matchConcurrencyLimit_withLimitedRoute_shouldReturnRouteTemplate() {
+        Optional<ConcurrencyLimitedRoute> route =
+                routeIndex.matchConcurrencyLimit(
+                        new MockHttpServletRequest("PUT", "/api/v1/words/42"));
+
+        assertThat(route).isPresent();
+        assertThat(route.get().template()).isEqualTo("/api/v1/words/{id}");
+        assertThat(route.get().concurrencyLimit().maxLimit()).isEqualTo(50);
+        assertThat(
+                        routeIndex.matchConcurrencyLimit(
+                                new MockHttpServletRequest("GET", "/api/v1/words/42")))
+                .isEmpty();
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(
+                new WordController(), WordController.class.getMethod(name, String.class));
+    }
+
+    /** Handlers standing in for a controller. */
+    static class WordController {
+
+        @RateLimit(requests = 5, seconds = 60)
+        public String word(String id) {
+            return id;
+        }
+
+        public String newWord(String ignored) {
+            return "new";
+        }
+
+        @ConcurrencyLimit(maxLimit = 50)
+        public String updateWord(String id) {
+            return id;
+        }
+    }
+}
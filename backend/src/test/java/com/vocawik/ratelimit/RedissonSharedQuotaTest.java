@@ -0,0 +1,111 @@
+package com.vocawik.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RKeys;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RateType;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisTimeoutException;
+import org.redisson.misc.CompletableFutureWrapper;
+
+class RedissonSharedQuotaTest {
+
+    private static final Duration WINDOW = Duration.ofSeconds(60);
+    private static final RateLimitRule RULE = new RateLimitRule("rate_limit:key", 100, WINDOW);
+
+    private final AtomicLong now = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RedissonClient redissonClient;
+    private RRateLimiter limiter;
+    private RedissonSharedQuota quota;
+
+    @BeforeEach
+    void setUp() {
+        redissonClient = mock(RedissonClient.class);
+        limiter = mock(RRateLimiter.class);
+        when(redissonClient.getRateLimiter("rate_limit:key")).thenReturn(limiter);
+        when(limiter.trySetRateAsync(RateType.OVERALL, 100, WINDOW))
+                .thenReturn(new CompletableFutureWrapper<>(true));
+        when(limiter.expireAsync(any(Duration.class)))
+                .thenReturn(new CompletableFutureWrapper<>(true));
+        when(limiter.tryAcquireAsync(anyLong())).thenReturn(new CompletableFutureWrapper<>(true));
+        RateLimitRedisGuard guard =
+                new RateLimitRedisGuard(meterRegistry, 1_000L, 20, 10, 50, 30_000L);
+        quota = new RedissonSharedQuota(redissonClient, guard, meterRegistry, 100L, now::get);
+    }
+
+    @Test
+    @DisplayName("Limiter should be configured once and given a TTL of two windows")
+    void lease_repeatedly_shouldRegisterLimiterOnce() {
+        quota.lease(RULE, 5);
+        quota.lease(RULE, 5);
+        quota.lease(RULE, 5);
+
+        verify(redissonClient, times(1)).getRateLimiter("rate_limit:key");
+        verify(limiter, times(1)).trySetRateAsync(RateType.OVERALL, 100, WINDOW);
+        verify(limiter, times(1)).expireAsync(Duration.ofSeconds(120));
+        verify(limiter, times(3)).tryAcquireAsync(5);
+    }
+
+    @Test
+    @DisplayName("Limiter in use should have its registration and TTL renewed once per window")
+    void lease_afterWindow_shouldRenewRegistration() {
+        quota.lease(RULE, 5);
+
+        now.addAndGet(WINDOW.toNanos());
+        quota.lease(RULE, 5);
+
+        verify(limiter, times(2)).trySetRateAsync(RateType.OVERALL, 100, WINDOW);
+        verify(limiter, times(2)).expireAsync(Duration.ofSeconds(120));
+    }
+
+    @Test
+    @DisplayName("Nearly spent quota should still hand out a single permit")
+    void lease_whenBatchUnavailable_shouldGrantSinglePermit() {
+        when(limiter.tryAcquireAsync(5L)).thenReturn(new CompletableFutureWrapper<>(false));
+        when(limiter.tryAcquireAsync()).thenReturn(new CompletableFutureWrapper<>(true));
+
+        assertThat(quota.lease(RULE, 5)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Failed registration should surface as unavailable and be retried on next lease")
+    void lease_whenRegistrationFails_shouldRetryRegistration() {
+        when(limiter.trySetRateAsync(RateType.OVERALL, 100, WINDOW))
+                .thenReturn(new CompletableFutureWrapper<>(new RedisTimeoutException("slow")))
+                .thenReturn(new CompletableFutureWrapper<>(true));
+
+        assertThatThrownBy(() -> quota.lease(RULE, 5))
+                .isInstanceOf(RateLimiterUnavailableException.class);
+        assertThat(quota.lease(RULE, 5)).isEqualTo(5);
+        verify(limiter, times(2)).trySetRateAsync(RateType.OVERALL, 100, WINDOW);
+    }
+
+    @Test
+    @DisplayName("Key count should report the limiter keys found in Redis")
+    void countLiveKeys_shouldPublishKeyCount() {
+        RKeys keys = mock(RKeys.class);
+        when(redissonClient.getKeys()).thenReturn(keys);
+        when(keys.getKeysByPattern(RedissonSharedQuota.KEY_PATTERN, 1_000))
+                .thenReturn(List.of("rate_limit:a", "rate_limit:b"));
+
+        quota.countLiveKeys();
+
+        assertThat(meterRegistry.get("ratelimit.redis.keys").gauge().value()).isEqualTo(2.0);
+    }
+}
@@ -5,12 +5,15 @@ import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
+import com.vocawik.security.jwt.AccessTokenVerifier;
 import com.vocawik.security.jwt.AuthPrincipal;
 import com.vocawik.security.jwt.JwtFilter;
-import com.vocawik.security.jwt.JwtProvider;
+import com.vocawik.security.jwt.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import java.io.IOException;
+import java.time.Instant;
+import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -23,7 +26,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 class JwtFilterTest {
 
     // Mocks for dependencies
-    private JwtProvider jwtProvider;
+    private AccessTokenVerifier accessTokenVerifier;
     private JwtFilter jwtFilter;
     private FilterChain filterChain;
     private MockHttpServletRequest request;
@@ -32,8 +35,8 @@ class JwtFilterTest {
     @BeforeEach
     void setUp() {
         // Initialize mocks
-        jwtProvider = mock(JwtProvider.class);
-        jwtFilter = new JwtFilter(jwtProvider);
+        accessTokenVerifier = mock(AccessTokenVerifier.class);
+        jwtFilter = new JwtFilter(accessTokenVerifier);
         filterChain = mock(FilterChain.class);
         request = new MockHttpServletRequest();
         response = new MockHttpServletResponse();
@@ -55,9 +58,18 @@ class JwtFilterTest {
         String subject = UUID.randomUUID().toString();
         String token = "valid.jwt.token";
         request.addHeader("Authorization", "Bearer " + token);
-        given(jwtProvider.validateAccessToken(token)).willReturn(true);
-        given(jwtProvider.getSubject(token)).willReturn(subject);
-        given(jwtProvider.getRole(token)).willReturn("USER");
+        given(accessTokenVerifier.verify(token))
+                .willReturn(
+                        Optional.of(
+                                new VerifiedToken(
+                                        subject,
+                                        "USER",
+                                        "ACCESS",
+                                        null,
+                                        null,
+                                        null,
+                                        0L,
+                                        Instant.now().plusSeconds(60))));
 
         jwtFilter.doFilter(request, response, filterChain);
 
@@ -80,7 +92,7 @@ class JwtFilterTest {
     void doFilterInternal_withInvalidToken_shouldNotSetAuthentication()
             throws ServletException, IOException {
         request.addHeader("Authorization", "Bearer invalid.token");
-        given(jwtProvider.validateAccessToken("invalid.token")).willReturn(false);
+        given(accessTokenVerifier.verify("invalid.token")).willReturn(Optional.empty());
 
         jwtFilter.doFilter(request, response, filterChain);
 
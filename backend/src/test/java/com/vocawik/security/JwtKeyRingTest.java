@@ -0,0 +1,160 @@
+package com.vocawik.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.vocawik.security.jwt.JwtKeyRing;
+import com.vocawik.security.jwt.JwtKeysRetiredEvent;
+import com.vocawik.security.jwt.JwtProvider;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JwtKeyRingTest {
+
+    private static final String PRIMARY_SECRET = secret("primary-key");
+    private static final String OLD_SECRET = secret("old-key");
+    private static final String NEW_SECRET = secret("new-key");
+    private static final String ISSUER = "vocawik";
+    private static final String AUDIENCE = "vocawik-api";
+
+    @TempDir Path tempDir;
+
+    private Path keyRingFile;
+    private List<Object> events;
+
+    @BeforeEach
+    void setUp() {
+        keyRingFile = tempDir.resolve("jwt-keys.properties");
+        events = new ArrayList<>();
+    }
+
+    @Test
+    @DisplayName("Issued tokens should carry the active key id")
+    void generateAccessToken_shouldCarryActiveKid() {
+        JwtProvider jwtProvider = provider(JwtKeyRing.of(PRIMARY_SECRET));
+
+        String token = jwtProvider.generateAccessToken(UUID.randomUUID().toString());
+
+        assertThat(header(token)).contains("\"kid\":\"" + JwtKeyRing.DEFAULT_KEY_ID + "\"");
+    }
+
+    @Test
+    @DisplayName("Tokens issued before key ids should still verify with the legacy key")
+    void verifyAccessToken_withoutKid_shouldUseLegacyKey() {
+        JwtProvider jwtProvider = provider(JwtKeyRing.of(PRIMARY_SECRET));
+        String subject = UUID.randomUUID().toString();
+        Date now = new Date();
+        String legacyToken =
+                Jwts.builder()
+                        .subject(subject)
+                        .issuer(ISSUER)
+                        .audience()
+                        .add(AUDIENCE)
+                        .and()
+                        .claim("role", "USER")
+                        .claim("typ", "ACCESS")
+                        .issuedAt(now)
+                        .expiration(new Date(now.getTime() + 60_000L))
+                        .signWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(PRIMARY_SECRET)))
+                        .compact();
+
+        assertThat(jwtProvider.verifyAccessToken(legacyToken))
+                .hasValueSatisfying(verified -> assertThat(verified.subject()).isEqualTo(subject));
+    }
+
+    @Test
+    @DisplayName("Key ring file should override the configured secret")
+    void constructor_withKeyRingFile_shouldLoadFileKeys() throws IOException {
+        writeKeyRing("old", "old", OLD_SECRET, "new", NEW_SECRET);
+
+        JwtKeyRing keyRing = keyRing();
+
+        assertThat(keyRing.activeKeyId()).isEqualTo("old");
+        assertThat(keyRing.keyIds()).containsExactlyInAnyOrder("old", "new");
+    }
+
+    @Test
+    @DisplayName("Rotation should keep old tokens valid until their key is retired")
+    void reload_shouldRotateAndRetireKeys() throws IOException {
+        writeKeyRing("old", "old", OLD_SECRET);
+        JwtKeyRing keyRing = keyRing();
+        JwtProvider jwtProvider = provider(keyRing);
+        String oldToken = jwtProvider.generateAccessToken(UUID.randomUUID().toString());
+
+        writeKeyRing("new", "old", OLD_SECRET, "new", NEW_SECRET);
+        keyRing.reload();
+        String newToken = jwtProvider.generateAccessToken(UUID.randomUUID().toString());
+
+        assertThat(header(newToken)).contains("\"kid\":\"new\"");
+        assertThat(jwtProvider.validateAccessToken(oldToken)).isTrue();
+        assertThat(jwtProvider.validateAccessToken(newToken)).isTrue();
+        assertThat(events).isEmpty();
+
+        writeKeyRing("new", "new", NEW_SECRET);
+        keyRing.reload();
+
+        assertThat(jwtProvider.validateAccessToken(oldToken)).isFalse();
+        assertThat(jwtProvider.validateAccessToken(newToken)).isTrue();
+        assertThat(events).containsExactly(new JwtKeysRetiredEvent(Set.of("old")));
+    }
+
+    @Test
+    @DisplayName("Invalid key ring file should keep the current keys")
+    void reload_withInvalidFile_shouldKeepCurrentKeys() throws IOException {
+        writeKeyRing("old", "old", OLD_SECRET);
+        JwtKeyRing keyRing = keyRing();
+        JwtProvider jwtProvider = provider(keyRing);
+        String token = jwtProvider.generateAccessToken(UUID.randomUUID().toString());
+
+        writeKeyRing("missing", "new", NEW_SECRET);
+        keyRing.reload();
+
+        assertThat(keyRing.activeKeyId()).isEqualTo("old");
+        assertThat(jwtProvider.validateAccessToken(token)).isTrue();
+        assertThat(events).isEmpty();
+    }
+
+    private JwtKeyRing keyRing() {
+        return new JwtKeyRing(
+                PRIMARY_SECRET, JwtKeyRing.DEFAULT_KEY_ID, keyRingFile.toString(), events::add);
+    }
+
+    private static JwtProvider provider(JwtKeyRing keyRing) {
+        return new JwtProvider(keyRing, ISSUER, AUDIENCE, 3_600_000L, 86_400_000L);
+    }
+
+    private void writeKeyRing(String active, String... keyIdsAndSecrets) throws IOException {
+        StringBuilder content = new StringBuilder("active=").append(active).append('\n');
+        for (int i = 0; i < keyIdsAndSecrets.length; i += 2) {
+            content.append("keys.")
+                    .append(keyIdsAndSecrets[i])
+                    .append('=')
+                    .append(keyIdsAndSecrets[i + 1])
+                    .append('\n');
+        }
+        Files.writeString(keyRingFile, content);
+    }
+
+    private static String header(String token) {
+        String segment = token.substring(0, token.indexOf('.'));
+        return new String(Base64.getUrlDecoder().decode(segment), StandardCharsets.UTF_8);
+    }
+
+    private static String secret(String seed) {
+        String material = (seed + "-").repeat(64).substring(0, 64);
+        return Base64.getEncoder().encodeToString(material.getBytes(StandardCharsets.UTF_8));
+    }
+}
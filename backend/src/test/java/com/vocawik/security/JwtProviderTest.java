@@ -3,7 +3,16 @@ package com.vocawik.security;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.vocawik.security.jwt.JwtProvider;
+import com.vocawik.security.jwt.TokenRejectReason;
+import com.vocawik.security.jwt.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
 import java.util.UUID;
+import javax.crypto.SecretKey;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -58,6 +67,102 @@ class JwtProviderTest {
         assertThat(jwtProvider.getRefreshFamily(token)).isEqualTo(familyId);
     }
 
+    @Test
+    @DisplayName("Refresh token should carry its family generation")
+    void refreshToken_shouldContainGeneration() {
+        String subject = UUID.randomUUID().toString();
+
+        String initial = jwtProvider.generateRefreshToken(subject, "USER");
+        String rotated =
+                jwtProvider.generateRefreshToken(
+                        subject, "USER", UUID.randomUUID().toString(), "jti", 5L);
+
+        assertThat(jwtProvider.getRefreshGeneration(initial))
+                .isEqualTo(JwtProvider.INITIAL_REFRESH_GENERATION);
+        assertThat(jwtProvider.verifyRefreshToken(rotated))
+                .hasValueSatisfying(verified -> assertThat(verified.generation()).isEqualTo(5L));
+        assertThat(jwtProvider.getRefreshGeneration(jwtProvider.generateAccessToken(subject)))
+                .isNull();
+    }
+
+    @Test
+    @DisplayName("Verify access token should return all claims from a single parse")
+    void verifyAccessToken_shouldReturnVerifiedClaims() {
+        String subject = UUID.randomUUID().toString();
+        String token = jwtProvider.generateAccessToken(subject, "ADMIN");
+
+        Optional<VerifiedToken> verified = jwtProvider.verifyAccessToken(token);
+
+        assertThat(verified).isPresent();
+        assertThat(verified.get().subject()).isEqualTo(subject);
+        assertThat(verified.get().role()).isEqualTo("ADMIN");
+        assertThat(verified.get().type()).isEqualTo("ACCESS");
+        assertThat(verified.get().expiresAt()).isAfter(Instant.now());
+    }
+
+    @Test
+    @DisplayName("Verify refresh token should expose jti and family")
+    void verifyRefreshToken_shouldReturnJtiAndFamily() {
+        String subject = UUID.randomUUID().toString();
+        String familyId = UUID.randomUUID().toString();
+        String tokenId = UUID.randomUUID().toString();
+        String token = jwtProvider.generateRefreshToken(subject, "USER", familyId, tokenId);
+
+        Optional<VerifiedToken> verified = jwtProvider.verifyRefreshToken(token);
+
+        assertThat(verified).isPresent();
+        assertThat(verified.get().tokenId()).isEqualTo(tokenId);
+        assertThat(verified.get().family()).isEqualTo(familyId);
+        assertThat(verified.get().type()).isEqualTo("REFRESH");
+        assertThat(jwtProvider.verifyAccessToken(token)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Precheck should accept tokens issued by this provider")
+    void precheck_withIssuedToken_shouldPass() {
+        String token = jwtProvider.generateAccessToken(UUID.randomUUID().toString());
+
+        assertThat(jwtProvider.precheck(token)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Precheck should reject structurally invalid tokens without parsing")
+    void precheck_withMalformedTokens_shouldReject() {
+        String valid = jwtProvider.generateAccessToken(UUID.randomUUID().toString());
+        String header = valid.substring(0, valid.indexOf('.'));
+
+        assertThat(jwtProvider.precheck("")).contains(TokenRejectReason.LENGTH);
+        assertThat(jwtProvider.precheck("a.b")).contains(TokenRejectReason.SEGMENTS);
+        assertThat(jwtProvider.precheck("a.b.c.d")).contains(TokenRejectReason.SEGMENTS);
+        assertThat(jwtProvider.precheck("invalid.token.value"))
+                .contains(TokenRejectReason.HEADER);
+        assertThat(jwtProvider.precheck(header + ".payload.short"))
+                .contains(TokenRejectReason.LENGTH);
+        assertThat(jwtProvider.precheck(valid.substring(0, valid.length() - 1) + "!"))
+                .contains(TokenRejectReason.ENCODING);
+    }
+
+    @Test
+    @DisplayName("Issued tokens should be standard JWS readable by the jjwt parser")
+    void generatedToken_shouldBeParsableByJjwt() {
+        SecretKey key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET));
+        String subject = UUID.randomUUID().toString();
+        String token =
+                jwtProvider.generateRefreshToken(subject, "ROLE \"quoted\"", "family", "jti-1");
+
+        Claims claims =
+                Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+
+        assertThat(claims.getSubject()).isEqualTo(subject);
+        assertThat(claims.getIssuer()).isEqualTo(ISSUER);
+        assertThat(claims.getAudience()).containsExactly(AUDIENCE);
+        assertThat(claims.get("role", String.class)).isEqualTo("ROLE \"quoted\"");
+        assertThat(claims.get("typ", String.class)).isEqualTo("REFRESH");
+        assertThat(claims.get("fam", String.class)).isEqualTo("family");
+        assertThat(claims.getId()).isEqualTo("jti-1");
+        assertThat(claims.getExpiration()).isAfter(claims.getIssuedAt());
+    }
+
     @Test
     @DisplayName("Validate valid token")
     void validateToken_withValidToken_shouldReturnTrue() {
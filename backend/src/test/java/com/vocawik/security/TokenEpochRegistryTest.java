@@ -0,0 +1,171 @@
+package com.vocawik.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.vocawik.security.jwt.TokenEpochRegistry;
+import com.vocawik.security.jwt.UserTokensRevokedEvent;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+
+class TokenEpochRegistryTest {
+
+    private static final String EPOCHS_KEY = "auth:token-epochs";
+    private static final String CHANNEL = "auth:token-epoch:changed";
+    private static final long RETENTION_MS = 86_400_000L;
+
+    private StringRedisTemplate stringRedisTemplate;
+    private ZSetOperations<String, String> zSetOperations;
+    private List<Object> events;
+    private MessageListener listener;
+    private TokenEpochRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        zSetOperations = mock(ZSetOperations.class);
+        when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        RedisMessageListenerContainer container = mock(RedisMessageListenerContainer.class);
+        events = new ArrayList<>();
+
+        registry =
+                new TokenEpochRegistry(stringRedisTemplate, container, events::add, RETENTION_MS);
+
+        ArgumentCaptor<MessageListener> captor = ArgumentCaptor.forClass(MessageListener.class);
+        verify(container).addMessageListener(captor.capture(), any(Topic.class));
+        listener = captor.getValue();
+    }
+
+    @Test
+    @DisplayName("Users that were never revoked should be at epoch zero")
+    void currentEpoch_withUnknownUser_shouldBeZero() {
+        assertThat(registry.currentEpoch(UUID.randomUUID().toString())).isZero();
+    }
+
+    @Test
+    @DisplayName("Revoking should advance the epoch locally and broadcast it")
+    void revokeAll_shouldAdvanceAndPublish() {
+        String subject = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+        when(stringRedisTemplate.execute(
+                        any(RedisScript.class),
+                        eq(List.of(EPOCHS_KEY)),
+                        eq(subject),
+                        eq(Long.toString(RETENTION_MS))))
+                .thenReturn(now);
+
+        long epoch = registry.revokeAll(subject);
+
+        assertThat(epoch).isEqualTo(now);
+        assertThat(registry.currentEpoch(subject)).isEqualTo(now);
+        verify(stringRedisTemplate).convertAndSend(CHANNEL, subject + " " + now);
+        assertThat(events).containsExactly(new UserTokensRevokedEvent(subject, now));
+    }
+
+    @Test
+    @DisplayName("Epoch changes from other nodes should apply and never move backwards")
+    void onMessage_shouldApplyNewerEpochsOnly() {
+        String subject = UUID.randomUUID().toString();
+
+        receive(subject + " 2");
+        receive(subject + " 1");
+        receive("malformed");
+
+        assertThat(registry.currentEpoch(subject)).isEqualTo(2L);
+        assertThat(events).containsExactly(new UserTokensRevokedEvent(subject, 2L));
+    }
+
+    @Test
+    @DisplayName("Initial load should apply epochs without publishing revocation events")
+    void reconcile_initialLoad_shouldNotPublish() {
+        String subject = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+        givenStoredEpochs(TypedTuple.of(subject, (double) now));
+
+        registry.reconcile();
+
+        assertThat(registry.currentEpoch(subject)).isEqualTo(now);
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Later reconciles should publish epochs missed on the channel")
+    void reconcile_afterInitialLoad_shouldPublishMissedEpochs() {
+        String subject = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+        givenStoredEpochs();
+        registry.reconcile();
+        givenStoredEpochs(TypedTuple.of(subject, (double) now));
+
+        registry.reconcile();
+
+        assertThat(registry.currentEpoch(subject)).isEqualTo(now);
+        assertThat(events).containsExactly(new UserTokensRevokedEvent(subject, now));
+    }
+
+    @Test
+    @DisplayName("A failed initial load should not make the next load publish")
+    void reconcile_afterFailedInitialLoad_shouldNotPublish() {
+        String subject = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+        when(zSetOperations.rangeByScoreWithScores(
+                        eq(EPOCHS_KEY), anyDouble(), eq(Double.POSITIVE_INFINITY)))
+                .thenThrow(new IllegalStateException("Redis is down"))
+                .thenReturn(Set.of(TypedTuple.of(subject, (double) now)));
+        registry.reconcile();
+
+        registry.reconcile();
+
+        assertThat(registry.currentEpoch(subject)).isEqualTo(now);
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Epochs older than the retention should be forgotten")
+    void reconcile_shouldDropExpiredEpochs() {
+        String subject = UUID.randomUUID().toString();
+        receive(subject + " " + (System.currentTimeMillis() - RETENTION_MS - 1_000));
+        givenStoredEpochs();
+
+        registry.reconcile();
+
+        assertThat(registry.currentEpoch(subject)).isZero();
+    }
+
+    @SafeVarargs
+    private void givenStoredEpochs(TypedTuple<String>... entries) {
+        Set<TypedTuple<String>> stored = new LinkedHashSet<>(List.of(entries));
+        when(zSetOperations.rangeByScoreWithScores(
+                        eq(EPOCHS_KEY), anyDouble(), eq(Double.POSITIVE_INFINITY)))
+                .thenReturn(stored);
+    }
+
+    private void receive(String body) {
+        listener.onMessage(
+                new DefaultMessage(
+                        CHANNEL.getBytes(StandardCharsets.UTF_8),
+                        body.getBytes(StandardCharsets.UTF_8)),
+                null);
+    }
+}
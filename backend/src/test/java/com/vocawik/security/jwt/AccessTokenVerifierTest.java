@@ -0,0 +1,143 @@
+package com.vocawik.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AccessTokenVerifierTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    private JwtProvider jwtProvider;
+    private TokenEpochRegistry tokenEpochRegistry;
+    private SimpleMeterRegistry meterRegistry;
+    private AccessTokenVerifier verifier;
+    private VerifiedToken verifiedToken;
+
+    @BeforeEach
+    void setUp() {
+        jwtProvider = mock(JwtProvider.class);
+        tokenEpochRegistry = mock(TokenEpochRegistry.class);
+        meterRegistry = new SimpleMeterRegistry();
+        verifier =
+                new AccessTokenVerifier(
+                        jwtProvider, tokenEpochRegistry, meterRegistry, true, 100, true, 100, 60);
+        verifiedToken =
+                new VerifiedToken(
+                        UUID.randomUUID().toString(),
+                        "USER",
+                        "ACCESS",
+                        null,
+                        null,
+                        null,
+                        0L,
+                        Instant.now().plusSeconds(60));
+    }
+
+    @Test
+    @DisplayName("Repeated token should be verified only once")
+    void verify_sameTokenTwice_shouldHitCache() {
+        when(jwtProvider.verifyPrecheckedAccessToken(TOKEN)).thenReturn(Optional.of(verifiedToken));
+
+        assertThat(verifier.verify(TOKEN)).contains(verifiedToken);
+        assertThat(verifier.verify(TOKEN)).contains(verifiedToken);
+
+        verify(jwtProvider, times(1)).verifyPrecheckedAccessToken(TOKEN);
+        assertThat(
+                        meterRegistry
+                                .get("cache.gets")
+                                .tags("cache", "jwt.verified", "result", "hit")
+                                .functionCounter()
+                                .count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Rejected token should be served from the negative cache")
+    void verify_invalidTokenTwice_shouldHitNegativeCache() {
+        when(jwtProvider.verifyPrecheckedAccessToken(TOKEN)).thenReturn(Optional.empty());
+
+        assertThat(verifier.verify(TOKEN)).isEmpty();
+        assertThat(verifier.verify(TOKEN)).isEmpty();
+
+        verify(jwtProvider, times(1)).verifyPrecheckedAccessToken(TOKEN);
+        assertThat(rejections("verification")).isEqualTo(1.0);
+        assertThat(rejections("negative_cache")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Malformed token should be rejected before verification")
+    void verify_malformedToken_shouldSkipVerification() {
+        when(jwtProvider.precheck("garbage")).thenReturn(Optional.of(TokenRejectReason.SEGMENTS));
+
+        assertThat(verifier.verify("garbage")).isEmpty();
+
+        verify(jwtProvider, never()).verifyPrecheckedAccessToken("garbage");
+        assertThat(rejections("segments")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Cache miss should run the structural pre-check only once")
+    void verify_cacheMiss_shouldPrecheckOnce() {
+        when(jwtProvider.verifyPrecheckedAccessToken(TOKEN)).thenReturn(Optional.of(verifiedToken));
+
+        assertThat(verifier.verify(TOKEN)).contains(verifiedToken);
+
+        verify(jwtProvider, times(1)).precheck(TOKEN);
+        verify(jwtProvider, never()).verifyAccessToken(TOKEN);
+    }
+
+    @Test
+    @DisplayName("Invalidating a subject should force re-verification")
+    void invalidateSubject_shouldEvictSubjectTokens() {
+        when(jwtProvider.verifyPrecheckedAccessToken(TOKEN)).thenReturn(Optional.of(verifiedToken));
+
+        verifier.verify(TOKEN);
+        verifier.invalidateSubject(verifiedToken.subject());
+        verifier.verify(TOKEN);
+
+        verify(jwtProvider, times(2)).verifyPrecheckedAccessToken(TOKEN);
+    }
+
+    @Test
+    @DisplayName("Disabled cache should delegate every call")
+    void verify_cacheDisabled_shouldAlwaysDelegate() {
+        AccessTokenVerifier uncached =
+                new AccessTokenVerifier(
+                        jwtProvider, tokenEpochRegistry, meterRegistry, false, 100, false, 100, 60);
+        when(jwtProvider.verifyPrecheckedAccessToken(TOKEN)).thenReturn(Optional.of(verifiedToken));
+
+        uncached.verify(TOKEN);
+        uncached.verify(TOKEN);
+
+        verify(jwtProvider, times(2)).verifyPrecheckedAccessToken(TOKEN);
+    }
+
+    @Test
+    @DisplayName("Cached token should be rejected once its subject is revoked")
+    void verify_afterRevocation_shouldRejectCachedToken() {
+        when(jwtProvider.verifyPrecheckedAccessToken(TOKEN)).thenReturn(Optional.of(verifiedToken));
+        assertThat(verifier.verify(TOKEN)).contains(verifiedToken);
+
+        when(tokenEpochRegistry.currentEpoch(verifiedToken.subject())).thenReturn(1L);
+
+        assertThat(verifier.verify(TOKEN)).isEmpty();
+        verify(jwtProvider, times(1)).verifyPrecheckedAccessToken(TOKEN);
+        assertThat(rejections("revoked")).isEqualTo(1.0);
+    }
+
+    private double rejections(String reason) {
+        return meterRegistry.get("jwt.rejections").tag("reason", reason).counter().count();
+    }
+}
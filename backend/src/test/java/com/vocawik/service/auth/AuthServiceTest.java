@@ -3,23 +3,43 @@ package com.vocawik.service.auth;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.vocawik.common.auth.AuthProvider;
+import com.vocawik.domain.user.UserRole;
+import com.vocawik.repository.user.ProviderLinkedUser;
 import com.vocawik.repository.user.UserAuthProviderRepository;
 import com.vocawik.repository.user.UserRepository;
 import com.vocawik.security.jwt.JwtProvider;
+import com.vocawik.security.jwt.TokenEpochRegistry;
 import com.vocawik.web.exception.UnauthorizedException;
-import java.time.Duration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
 
 class AuthServiceTest {
 
@@ -29,17 +49,20 @@ class AuthServiceTest {
     private static final String AUDIENCE = "vocawik-api";
     private static final long ACCESS_EXPIRATION = 3_600_000L;
     private static final long REFRESH_EXPIRATION = 86_400_000L;
+    private static final long GRACE_PERIOD = 10_000L;
+    private static final long PROVIDER_DELAY_MS = 200L;
 
     private StringRedisTemplate stringRedisTemplate;
-    private ValueOperations<String, String> valueOperations;
+    private SimpleMeterRegistry meterRegistry;
+    private TokenEpochRegistry tokenEpochRegistry;
     private JwtProvider jwtProvider;
     private AuthService authService;
 
     @BeforeEach
     void setUp() {
         stringRedisTemplate = mock(StringRedisTemplate.class);
-        valueOperations = mock(ValueOperations.class);
-        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        meterRegistry = new SimpleMeterRegistry();
+        tokenEpochRegistry = mock(TokenEpochRegistry.class);
 
         jwtProvider =
                 new JwtProvider(SECRET, ISSUER, AUDIENCE, ACCESS_EXPIRATION, REFRESH_EXPIRATION);
@@ -47,26 +70,23 @@ class AuthServiceTest {
         authService =
                 new AuthService(
                         mock(GoogleOAuthClient.class),
+                        mock(GoogleIdTokenVerifier.class),
                         mock(OAuthProperties.class),
-                        mock(UserRepository.class),
-                        mock(UserAuthProviderRepository.class),
+                        mock(LoginIdentityService.class),
                         jwtProvider,
-                        stringRedisTemplate);
+                        new RefreshTokenStore(stringRedisTemplate, meterRegistry, GRACE_PERIOD),
+                        tokenEpochRegistry);
     }
 
     @Test
-    @DisplayName("Refresh should rotate token when token is first used")
-    void refresh_withFreshToken_shouldRotateTokens() {
+    @DisplayName("Refresh should rotate token to the next generation of its family")
+    void refresh_withCurrentGeneration_shouldRotateTokens() {
         String subject = UUID.randomUUID().toString();
         String familyId = UUID.randomUUID().toString();
         String tokenId = UUID.randomUUID().toString();
-        String refreshToken = jwtProvider.generateRefreshToken(subject, "USER", familyId, tokenId);
-        Duration ttl = Duration.ofSeconds(jwtProvider.getRefreshExpirationSeconds());
-
-        when(stringRedisTemplate.hasKey("auth:refresh:family:revoked:" + familyId))
-                .thenReturn(false);
-        when(valueOperations.setIfAbsent("auth:refresh:used:" + tokenId, "1", ttl))
-                .thenReturn(true);
+        String refreshToken =
+                jwtProvider.generateRefreshToken(subject, "USER", familyId, tokenId, 3L);
+        givenRotationResult(familyId, 3L, tokenId, List.of("OK"));
 
         AuthTokenBundle result = authService.refresh(refreshToken);
 
@@ -74,45 +94,352 @@ class AuthServiceTest {
         assertThat(jwtProvider.validateRefreshToken(result.refreshToken())).isTrue();
         assertThat(jwtProvider.getSubject(result.accessToken())).isEqualTo(subject);
         assertThat(jwtProvider.getRefreshFamily(result.refreshToken())).isEqualTo(familyId);
+        assertThat(jwtProvider.getRefreshGeneration(result.refreshToken())).isEqualTo(4L);
         assertThat(jwtProvider.getTokenId(result.refreshToken())).isNotEqualTo(tokenId);
+        assertThat(
+                        meterRegistry
+                                .get("auth.refresh.rotation")
+                                .tag("verdict", "ok")
+                                .timer()
+                                .count())
+                .isEqualTo(1L);
     }
 
     @Test
-    @DisplayName("Refresh token reuse should revoke family and throw unauthorized")
-    void refresh_withReusedToken_shouldRevokeFamily() {
+    @DisplayName("Refresh token reuse should throw unauthorized")
+    void refresh_withStaleGeneration_shouldThrowUnauthorized() {
         String subject = UUID.randomUUID().toString();
         String familyId = UUID.randomUUID().toString();
         String tokenId = UUID.randomUUID().toString();
-        String refreshToken = jwtProvider.generateRefreshToken(subject, "USER", familyId, tokenId);
-        Duration ttl = Duration.ofSeconds(jwtProvider.getRefreshExpirationSeconds());
-
-        when(stringRedisTemplate.hasKey("auth:refresh:family:revoked:" + familyId))
-                .thenReturn(false);
-        when(valueOperations.setIfAbsent("auth:refresh:used:" + tokenId, "1", ttl))
-                .thenReturn(false);
+        String refreshToken =
+                jwtProvider.generateRefreshToken(subject, "USER", familyId, tokenId, 2L);
+        givenRotationResult(familyId, 2L, tokenId, List.of("REUSED"));
 
         assertThatThrownBy(() -> authService.refresh(refreshToken))
                 .isInstanceOf(UnauthorizedException.class)
                 .hasMessageContaining("reuse detected");
-
-        verify(valueOperations).set("auth:refresh:family:revoked:" + familyId, "1", ttl);
     }
 
     @Test
-    @DisplayName("Revoked refresh family should fail before reuse check")
+    @DisplayName("Revoked refresh family should throw unauthorized")
     void refresh_withRevokedFamily_shouldThrowUnauthorized() {
         String subject = UUID.randomUUID().toString();
         String familyId = UUID.randomUUID().toString();
         String tokenId = UUID.randomUUID().toString();
-        String refreshToken = jwtProvider.generateRefreshToken(subject, "USER", familyId, tokenId);
-
-        when(stringRedisTemplate.hasKey("auth:refresh:family:revoked:" + familyId))
-                .thenReturn(true);
+        String refreshToken =
+                jwtProvider.generateRefreshToken(subject, "USER", familyId, tokenId, 1L);
+        givenRotationResult(familyId, 1L, tokenId, List.of("REVOKED"));
 
         assertThatThrownBy(() -> authService.refresh(refreshToken))
                 .isInstanceOf(UnauthorizedException.class)
                 .hasMessageContaining("family is revoked");
+    }
+
+    @Test
+    @DisplayName("Refresh token issued before revocation should be rejected without Redis")
+    void refresh_withRevokedEpoch_shouldThrowUnauthorized() {
+        String subject = UUID.randomUUID().toString();
+        String refreshToken = jwtProvider.generateRefreshToken(subject, "USER");
+        when(tokenEpochRegistry.currentEpoch(subject)).thenReturn(1L);
+
+        assertThatThrownBy(() -> authService.refresh(refreshToken))
+                .isInstanceOf(UnauthorizedException.class)
+                .hasMessageContaining("revoked");
+
+        verify(stringRedisTemplate, never())
+                .execute(any(RedisScript.class), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Revoking all tokens should advance the user's token epoch")
+    void revokeAllTokens_shouldRevokeEpoch() {
+        UUID userUuid = UUID.randomUUID();
+
+        authService.revokeAllTokens(userUuid);
+
+        verify(tokenEpochRegistry).revokeAll(userUuid.toString());
+    }
+
+    @Test
+    @DisplayName("Rotated tokens should carry the current epoch")
+    void refresh_shouldIssueTokensAtCurrentEpoch() {
+        String subject = UUID.randomUUID().toString();
+        String familyId = UUID.randomUUID().toString();
+        String tokenId = UUID.randomUUID().toString();
+        String refreshToken =
+                jwtProvider.generateRefreshToken(subject, "USER", familyId, tokenId, 1L, 2L);
+        when(tokenEpochRegistry.currentEpoch(subject)).thenReturn(2L);
+        givenRotationResult(familyId, 1L, tokenId, List.of("OK"));
+
+        AuthTokenBundle result = authService.refresh(refreshToken);
+
+        assertThat(jwtProvider.verifyAccessToken(result.accessToken()))
+                .hasValueSatisfying(verified -> assertThat(verified.epoch()).isEqualTo(2L));
+    }
+
+    @Test
+    @DisplayName("Duplicate refresh within the grace period should re-sign the same bundle")
+    void refresh_withinGracePeriod_shouldResignStoredGrant() {
+        String subject = UUID.randomUUID().toString();
+        String familyId = UUID.randomUUID().toString();
+        String tokenId = UUID.randomUUID().toString();
+        String nextTokenId = UUID.randomUUID().toString();
+        Instant issuedAt = Instant.ofEpochSecond(1_700_000_000L);
+        String refreshToken =
+                jwtProvider.generateRefreshToken(subject, "USER", familyId, tokenId, 1L);
+        givenRotationResult(
+                familyId,
+                1L,
+                tokenId,
+                List.of(
+                        "DUPLICATE",
+                        familyId + " 2 " + nextTokenId + " 0 " + issuedAt.toEpochMilli()));
+
+        AuthTokenBundle result = authService.refresh(refreshToken);
+
+        assertThat(result)
+                .isEqualTo(
+                        new AuthTokenBundle(
+                                jwtProvider.generateAccessToken(subject, "USER", 0L, issuedAt),
+                                jwtProvider.generateRefreshToken(
+                                        subject, "USER", familyId, nextTokenId, 2L, 0L, issuedAt),
+                                3600L));
+    }
+
+    @Test
+    @DisplayName("Rotation should store the next bundle's claims, not its tokens")
+    void refresh_shouldStoreGrantWithoutTokens() {
+        String subject = UUID.randomUUID().toString();
+        String familyId = UUID.randomUUID().toString();
+        String tokenId = UUID.randomUUID().toString();
+        String refreshToken =
+                jwtProvider.generateRefreshToken(subject, "USER", familyId, tokenId, 1L);
+        givenRotationResult(familyId, 1L, tokenId, List.of("OK"));
+
+        AuthTokenBundle result = authService.refresh(refreshToken);
+
+        ArgumentCaptor<String> grant = ArgumentCaptor.forClass(String.class);
+        verify(stringRedisTemplate)
+                .execute(
+                        any(RedisScript.class),
+                        any(),
+                        any(),
+                        any(),
+                        any(),
+                        any(),
+                        grant.capture());
+        assertThat(grant.getValue())
+                .startsWith(familyId + " 2 " + jwtProvider.getTokenId(result.refreshToken()) + " ")
+                .doesNotContain(result.accessToken())
+                .doesNotContain(result.refreshToken());
+    }
+
+    @Test
+    @DisplayName("Refresh should cost a single Redis script call")
+    void refresh_shouldUseSingleScriptCall() {
+        String subject = UUID.randomUUID().toString();
+        String familyId = UUID.randomUUID().toString();
+        String tokenId = UUID.randomUUID().toString();
+        String refreshToken =
+                jwtProvider.generateRefreshToken(subject, "USER", familyId, tokenId, 1L);
+        givenRotationResult(familyId, 1L, tokenId, List.of("OK"));
+
+        authService.refresh(refreshToken);
+
+        verify(stringRedisTemplate, times(1))
+                .execute(any(RedisScript.class), any(), any(), any(), any(), any(), any());
+        verify(stringRedisTemplate, never()).opsForValue();
+    }
+
+    @Test
+    @DisplayName("Token without generation should rotate through the legacy used marker")
+    void refresh_withLegacyToken_shouldStartGenerations() {
+        String subject = UUID.randomUUID().toString();
+        String familyId = UUID.randomUUID().toString();
+        String tokenId = UUID.randomUUID().toString();
+        String refreshToken = jwtProvider.generateRefreshToken(subject, "USER", familyId, tokenId);
+        when(stringRedisTemplate.execute(
+                        any(RedisScript.class),
+                        eq(
+                                List.of(
+                                        "auth:refresh:family:revoked:" + familyId,
+                                        "auth:refresh:used:" + tokenId,
+                                        "auth:refresh:grace:" + tokenId)),
+                        eq(Long.toString(REFRESH_EXPIRATION)),
+                        eq(Long.toString(GRACE_PERIOD)),
+                        anyString()))
+                .thenReturn(List.of("OK"));
+
+        AuthTokenBundle result = authService.refresh(refreshToken);
+
+        assertThat(jwtProvider.getRefreshFamily(result.refreshToken())).isEqualTo(familyId);
+        assertThat(jwtProvider.getRefreshGeneration(result.refreshToken()))
+                .isEqualTo(JwtProvider.INITIAL_REFRESH_GENERATION);
+    }
+
+    @Test
+    @DisplayName("Google login should hold a transaction only for the identity lookup")
+    void authenticateGoogle_withSlowProvider_shouldKeepTransactionShort() {
+        List<String> events = new CopyOnWriteArrayList<>();
+        RecordingTransactionManager transactionManager = new RecordingTransactionManager(events);
+
+        GoogleOAuthClient googleOAuthClient = mock(GoogleOAuthClient.class);
+        when(googleOAuthClient.exchangeCode("code"))
+                .thenAnswer(
+                        invocation -> {
+                            Thread.sleep(PROVIDER_DELAY_MS);
+                            events.add("exchange");
+                            return new GoogleTokenResponse(
+                                    "google-access", "Bearer", 3600L, "", "");
+                        });
+        when(googleOAuthClient.fetchUserInfo("google-access"))
+                .thenAnswer(
+                        invocation -> {
+                            Thread.sleep(PROVIDER_DELAY_MS);
+                            events.add("userinfo");
+                            return new GoogleUserInfo(
+                                    "google-sub", "user@example.com", true, "user");
+                        });
+
+        String subject = UUID.randomUUID().toString();
+        UserRepository userRepository = mock(UserRepository.class);
+        UserAuthProviderRepository userAuthProviderRepository =
+                mock(UserAuthProviderRepository.class);
+        when(userAuthProviderRepository.findLinkedUser(AuthProvider.GOOGLE, "google-sub"))
+                .thenReturn(Optional.of(new ProviderLinkedUser(1L, subject, UserRole.USER)));
+
+        LoginIdentityService loginIdentityService =
+                transactional(
+                        new LoginIdentityService(
+                                userRepository,
+                                userAuthProviderRepository,
+                                meterRegistry,
+                                100L,
+                                600L),
+                        transactionManager);
+        AuthService service =
+                transactional(
+                        new AuthService(
+                                googleOAuthClient,
+                                mock(GoogleIdTokenVerifier.class),
+                                mock(OAuthProperties.class),
+                                loginIdentityService,
+                                jwtProvider,
+                                new RefreshTokenStore(
+                                        stringRedisTemplate, meterRegistry, GRACE_PERIOD),
+                                tokenEpochRegistry),
+                        transactionManager);
+
+        AuthTokenBundle result = service.authenticateGoogle("code");
+
+        assertThat(jwtProvider.getSubject(result.accessToken())).isEqualTo(subject);
+        assertThat(events).containsExactly("exchange", "userinfo", "begin", "commit");
+        assertThat(transactionManager.holdTimesMillis())
+                .singleElement()
+                .satisfies(held -> assertThat(held).isLessThan(PROVIDER_DELAY_MS));
+        verify(userRepository).updateLastLoginAt(eq(1L), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Google login with a verified id_token should not call userinfo")
+    void authenticateGoogle_withVerifiedIdToken_shouldSkipUserInfo() {
+        GoogleOAuthClient googleOAuthClient = mock(GoogleOAuthClient.class);
+        when(googleOAuthClient.exchangeCode("code"))
+                .thenReturn(
+                        new GoogleTokenResponse("google-access", "Bearer", 3600L, "", "id-token"));
+        GoogleUserInfo userInfo =
+                new GoogleUserInfo("google-sub", "user@example.com", true, "user");
+        GoogleIdTokenVerifier googleIdTokenVerifier = mock(GoogleIdTokenVerifier.class);
+        when(googleIdTokenVerifier.verify("id-token")).thenReturn(Optional.of(userInfo));
+        String subject = UUID.randomUUID().toString();
+        LoginIdentityService loginIdentityService = mock(LoginIdentityService.class);
+        when(loginIdentityService.resolveGoogleUser(userInfo))
+                .thenReturn(new LoginIdentity(subject, "USER"));
+        AuthService service =
+                new AuthService(
+                        googleOAuthClient,
+                        googleIdTokenVerifier,
+                        mock(OAuthProperties.class),
+                        loginIdentityService,
+                        jwtProvider,
+                        new RefreshTokenStore(stringRedisTemplate, meterRegistry, GRACE_PERIOD),
+                        tokenEpochRegistry);
+
+        AuthTokenBundle result = service.authenticateGoogle("code");
+
+        assertThat(jwtProvider.getSubject(result.accessToken())).isEqualTo(subject);
+        verify(googleOAuthClient, never()).fetchUserInfo(anyString());
+    }
+
+    private static <T> T transactional(T target, PlatformTransactionManager transactionManager) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(
+                new TransactionInterceptor(
+                        transactionManager, new AnnotationTransactionAttributeSource()));
+        @SuppressWarnings("unchecked")
+        T proxy = (T) proxyFactory.getProxy();
+        return proxy;
+    }
+
+    private void givenRotationResult(
+            String familyId, long generation, String tokenId, List<String> result) {
+        when(stringRedisTemplate.execute(
+                        any(RedisScript.class),
+                        eq(
+                                List.of(
+                                        "auth:refresh:gen:" + familyId,
+                                        "auth:refresh:family:revoked:" + familyId,
+                                        "auth:refresh:grace:" + tokenId)),
+                        eq(Long.toString(generation)),
+                        eq(Long.toString(JwtProvider.INITIAL_REFRESH_GENERATION)),
+                        eq(Long.toString(REFRESH_EXPIRATION + 60_000L)),
+                        eq(Long.toString(GRACE_PERIOD)),
+                        anyString()))
+                .thenReturn(result);
+    }
+
+    /** Transaction manager that records when transactions begin and how long they are held. */
+    private static final class RecordingTransactionManager
+            extends AbstractPlatformTransactionManager {
+
+        private final List<String> events;
+        private final List<Long> holdTimesMillis = new CopyOnWriteArrayList<>();
+
+        RecordingTransactionManager(List<String> events) {
+            this.events = events;
+        }
+
+        List<Long> holdTimesMillis() {
+            return holdTimesMillis;
+        }
+
+        @Override
+        protected Object doGetTransaction() {
+            return new long[1];
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            events.add("begin");
+            ((long[]) transaction)[0] = System.nanoTime();
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            events.add("commit");
+            recordHoldTime(status);
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            events.add("rollback");
+            recordHoldTime(status);
+        }
 
-        verify(valueOperations, never()).setIfAbsent(any(), eq("1"), any(Duration.class));
+        private void recordHoldTime(DefaultTransactionStatus status) {
+            long begunAt = ((long[]) status.getTransaction())[0];
+            holdTimesMillis.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begunAt));
+        }
     }
 }
@@ -0,0 +1,212 @@
+package com.vocawik.service.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+class GoogleIdTokenVerifierTest {
+
+    private static final String CLIENT_ID = "client-id.apps.googleusercontent.com";
+    private static final String ISSUER = "https://accounts.google.com";
+
+    private final KeyPair currentKey = Jwts.SIG.RS256.keyPair().build();
+    private final KeyPair nextKey = Jwts.SIG.RS256.keyPair().build();
+    private final AtomicInteger jwksRequests = new AtomicInteger();
+
+    private HttpServer jwksServer;
+    private volatile String jwks;
+    private volatile String cacheControl = "public, max-age=3600, must-revalidate";
+    private volatile int jwksStatus = 200;
+    private OAuthProperties oAuthProperties;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        jwks = jwks(jwk("k1", currentKey));
+        jwksServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        jwksServer.createContext(
+                "/oauth2/v3/certs",
+                exchange -> {
+                    jwksRequests.incrementAndGet();
+                    byte[] body = jwks.getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().add("Content-Type", "application/json");
+                    exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+                    exchange.sendResponseHeaders(jwksStatus, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                });
+        jwksServer.start();
+        oAuthProperties =
+                new OAuthProperties(
+                        CLIENT_ID,
+                        "secret",
+                        "https://accounts.google.com/o/oauth2/v2/auth",
+                        "https://oauth2.googleapis.com/token",
+                        "https://openidconnect.googleapis.com/v1/userinfo",
+                        "http://127.0.0.1:"
+                                + jwksServer.getAddress().getPort()
+                                + "/oauth2/v3/certs",
+                        "http://localhost:8080/callback");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jwksServer.stop(0);
+    }
+
+    @Test
+    @DisplayName("Valid id_token should be verified locally with one JWKS fetch")
+    void verify_withValidToken_shouldReturnProfileFromCachedKeys() {
+        GoogleIdTokenVerifier verifier =
+                verifier(new GoogleJwksCache(oAuthProperties, RestClient.create(), 3600, 300, 30));
+
+        assertThat(verifier.verify(idToken("k1", currentKey, ISSUER, CLIENT_ID)))
+                .hasValueSatisfying(
+                        userInfo -> {
+                            assertThat(userInfo.sub()).isEqualTo("google-sub");
+                            assertThat(userInfo.email()).isEqualTo("user@example.com");
+                            assertThat(userInfo.emailVerified()).isTrue();
+                            assertThat(userInfo.name()).isEqualTo("User");
+                        });
+        assertThat(verifier.verify(idToken("k1", currentKey, ISSUER, CLIENT_ID))).isPresent();
+        assertThat(jwksRequests).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Token for another client, issuer or signed with another key should be rejected")
+    void verify_withInvalidTokens_shouldReturnEmpty() {
+        GoogleIdTokenVerifier verifier =
+                verifier(new GoogleJwksCache(oAuthProperties, RestClient.create(), 3600, 300, 30));
+
+        assertThat(verifier.verify(idToken("k1", currentKey, ISSUER, "other-client"))).isEmpty();
+        assertThat(verifier.verify(idToken("k1", currentKey, "https://evil.example", CLIENT_ID)))
+                .isEmpty();
+        assertThat(verifier.verify(idToken("k1", nextKey, ISSUER, CLIENT_ID))).isEmpty();
+        assertThat(verifier.verify(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Unknown key ID should re-fetch the JWKS once Google has rotated keys")
+    void verify_afterKeyRotation_shouldRefetchKeys() {
+        GoogleIdTokenVerifier verifier =
+                verifier(new GoogleJwksCache(oAuthProperties, RestClient.create(), 3600, 300, 0));
+        assertThat(verifier.verify(idToken("k1", currentKey, ISSUER, CLIENT_ID))).isPresent();
+
+        jwks = jwks(jwk("k1", currentKey), jwk("k2", nextKey));
+
+        assertThat(verifier.verify(idToken("k2", nextKey, ISSUER, CLIENT_ID))).isPresent();
+        assertThat(jwksRequests).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Unknown key IDs should not re-fetch the JWKS more than once per interval")
+    void verify_withUnknownKeyIds_shouldThrottleFetches() {
+        GoogleIdTokenVerifier verifier =
+                verifier(new GoogleJwksCache(oAuthProperties, RestClient.create(), 3600, 300, 30));
+        assertThat(verifier.verify(idToken("k1", currentKey, ISSUER, CLIENT_ID))).isPresent();
+
+        assertThat(verifier.verify(idToken("unknown-1", nextKey, ISSUER, CLIENT_ID))).isEmpty();
+        assertThat(verifier.verify(idToken("unknown-2", nextKey, ISSUER, CLIENT_ID))).isEmpty();
+        assertThat(jwksRequests).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Background check should re-fetch only a key set close to expiry")
+    void refreshIfStale_shouldFollowCacheControlMaxAge() {
+        GoogleJwksCache jwksCache =
+                new GoogleJwksCache(oAuthProperties, RestClient.create(), 3600, 300, 30);
+        jwksCache.refreshIfStale();
+        assertThat(jwksRequests).hasValue(0);
+
+        verifier(jwksCache).verify(idToken("k1", currentKey, ISSUER, CLIENT_ID));
+        jwksCache.refreshIfStale();
+        assertThat(jwksRequests).hasValue(1);
+
+        cacheControl = "public, max-age=60";
+        jwks = jwks(jwk("k1", currentKey), jwk("k2", nextKey));
+        GoogleJwksCache shortLived =
+                new GoogleJwksCache(oAuthProperties, RestClient.create(), 3600, 300, 30);
+        verifier(shortLived).verify(idToken("k1", currentKey, ISSUER, CLIENT_ID));
+        shortLived.refreshIfStale();
+        assertThat(jwksRequests).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("Failed re-fetch should keep verifying with the previous keys")
+    void verify_whenJwksEndpointFails_shouldKeepPreviousKeys() {
+        cacheControl = "max-age=0";
+        GoogleIdTokenVerifier verifier =
+                verifier(new GoogleJwksCache(oAuthProperties, RestClient.create(), 3600, 300, 0));
+        assertThat(verifier.verify(idToken("k1", currentKey, ISSUER, CLIENT_ID))).isPresent();
+
+        jwksStatus = 503;
+
+        assertThat(verifier.verify(idToken("k1", currentKey, ISSUER, CLIENT_ID))).isPresent();
+        assertThat(jwksRequests).hasValue(2);
+    }
+
+    private GoogleIdTokenVerifier verifier(GoogleJwksCache jwksCache) {
+        return new GoogleIdTokenVerifier(jwksCache, oAuthProperties, 30);
+    }
+
+    private static String idToken(String keyId, KeyPair keyPair, String issuer, String audience) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .header()
+                .keyId(keyId)
+                .and()
+                .issuer(issuer)
+                .audience()
+                .add(audience)
+                .and()
+                .subject("google-sub")
+                .claim("email", "user@example.com")
+                .claim("email_verified", true)
+                .claim("name", "User")
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plusSeconds(3600)))
+                .signWith(keyPair.getPrivate(), Jwts.SIG.RS256)
+                .compact();
+    }
+
+    private static String jwks(String... keys) {
+        return "{\"keys\":[" + String.join(",", keys) + "]}";
+    }
+
+    private static String jwk(String keyId, KeyPair keyPair) {
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        return "{\"kty\":\"RSA\",\"use\":\"sig\",\"alg\":\"RS256\",\"kid\":\""
+                + keyId
+                + "\",\"n\":\""
+                + base64Url(publicKey.getModulus())
+                + "\",\"e\":\""
+                + base64Url(publicKey.getPublicExponent())
+                + "\"}";
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,206 @@
+package com.vocawik.service.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.sun.net.httpserver.HttpServer;
+import com.vocawik.web.error.ErrorCode;
+import com.vocawik.web.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+class GoogleOAuthClientTest {
+
+    private static final Duration READ_TIMEOUT = Duration.ofMillis(300);
+    private static final String TOKEN_RESPONSE =
+            "{\"access_token\":\"google-access\",\"token_type\":\"Bearer\",\"expires_in\":3600}";
+
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ExecutorService serverExecutor;
+    private HttpServer providerServer;
+    private volatile long latencyMs;
+    private volatile int status = 200;
+    private volatile CountDownLatch requestReceived = new CountDownLatch(1);
+    private OAuthProperties oAuthProperties;
+    private RestClient restClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        providerServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        providerServer.setExecutor(serverExecutor);
+        providerServer.createContext(
+                "/token",
+                exchange -> {
+                    tokenRequests.incrementAndGet();
+                    requestReceived.countDown();
+                    try {
+                        Thread.sleep(latencyMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    byte[] body = TOKEN_RESPONSE.getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().add("Content-Type", "application/json");
+                    exchange.sendResponseHeaders(status, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                });
+        providerServer.start();
+
+        String baseUrl = "http://127.0.0.1:" + providerServer.getAddress().getPort();
+        oAuthProperties =
+                new OAuthProperties(
+                        "client-id",
+                        "client-secret",
+                        baseUrl + "/auth",
+                        baseUrl + "/token",
+                        baseUrl + "/userinfo",
+                        baseUrl + "/certs",
+                        "http://localhost:8080/callback");
+        JdkClientHttpRequestFactory requestFactory =
+                new JdkClientHttpRequestFactory(
+                        HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build());
+        requestFactory.setReadTimeout(READ_TIMEOUT);
+        restClient = RestClient.builder().requestFactory(requestFactory).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        providerServer.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Token exchange should return the provider response and record its latency")
+    void exchangeCode_shouldReturnTokenResponse() {
+        GoogleOAuthClient client = client(4, 100, 4);
+
+        GoogleTokenResponse response = client.exchangeCode("code");
+
+        assertThat(response.accessToken()).isEqualTo("google-access");
+        assertThat(requestTimerCount("success")).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Slow provider should fail the call at the read timeout")
+    void exchangeCode_withSlowProvider_shouldFailAtReadTimeout() {
+        GoogleOAuthClient client = client(4, 100, 4);
+        latencyMs = 2_000L;
+
+        long startedAt = System.nanoTime();
+        assertThatThrownBy(() -> client.exchangeCode("code"))
+                .isInstanceOfSatisfying(
+                        BusinessException.class,
+                        ex ->
+                                assertThat(ex.getErrorCode())
+                                        .isEqualTo(ErrorCode.OAUTH_TOKEN_EXCHANGE_FAILED));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt))
+                .isLessThan(Duration.ofMillis(latencyMs));
+        assertThat(requestTimerCount("error")).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Repeated provider failures should open the circuit and fail fast")
+    void exchangeCode_afterRepeatedFailures_shouldFailFastWithoutCallingProvider() {
+        GoogleOAuthClient client = client(4, 100, 2);
+        status = 503;
+        assertThatThrownBy(() -> client.exchangeCode("code")).isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> client.exchangeCode("code")).isInstanceOf(BusinessException.class);
+
+        assertThatThrownBy(() -> client.exchangeCode("code"))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("unavailable");
+
+        assertThat(tokenRequests).hasValue(2);
+        assertThat(meterRegistry.get("oauth.google.circuit.state").gauge().value()).isEqualTo(2.0);
+        assertThat(
+                        meterRegistry
+                                .get("oauth.google.rejected")
+                                .tag("reason", "circuit_open")
+                                .counter()
+                                .count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Client errors from the provider should not open the circuit")
+    void exchangeCode_withClientErrors_shouldKeepCircuitClosed() {
+        GoogleOAuthClient client = client(4, 100, 2);
+        status = 400;
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> client.exchangeCode("expired-code"))
+                    .isInstanceOf(BusinessException.class);
+        }
+
+        assertThat(tokenRequests).hasValue(3);
+        assertThat(meterRegistry.get("oauth.google.circuit.state").gauge().value()).isEqualTo(0.0);
+    }
+
+    @Test
+    @DisplayName("Calls beyond the bulkhead limit should be rejected instead of waiting")
+    void exchangeCode_withBulkheadFull_shouldRejectImmediately() throws Exception {
+        GoogleOAuthClient client = client(1, 0, 4);
+        latencyMs = 200L;
+        requestReceived = new CountDownLatch(1);
+        CompletableFuture<GoogleTokenResponse> inFlight =
+                CompletableFuture.supplyAsync(() -> client.exchangeCode("first"));
+        assertThat(requestReceived.await(1, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(meterRegistry.get("oauth.google.bulkhead.active").gauge().value())
+                .isEqualTo(1.0);
+        assertThatThrownBy(() -> client.exchangeCode("second"))
+                .isInstanceOfSatisfying(
+                        BusinessException.class,
+                        ex ->
+                                assertThat(ex.getErrorCode())
+                                        .isEqualTo(ErrorCode.OAUTH_TOKEN_EXCHANGE_FAILED))
+                .hasMessageContaining("busy");
+
+        assertThat(inFlight.get(1, TimeUnit.SECONDS).accessToken()).isEqualTo("google-access");
+        assertThat(tokenRequests).hasValue(1);
+    }
+
+    private GoogleOAuthClient client(int maxConcurrentCalls, long maxWaitMs, int minimumCalls) {
+        return new GoogleOAuthClient(
+                oAuthProperties,
+                restClient,
+                meterRegistry,
+                maxConcurrentCalls,
+                maxWaitMs,
+                minimumCalls,
+                minimumCalls,
+                50,
+                30_000L);
+    }
+
+    private long requestTimerCount(String outcome) {
+        return meterRegistry
+                .get("oauth.google.request")
+                .tag("operation", "token")
+                .tag("outcome", outcome)
+                .timer()
+                .count();
+    }
+}
@@ -0,0 +1,126 @@
+package com.vocawik.service.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.vocawik.common.auth.AuthProvider;
+import com.vocawik.domain.user.User;
+import com.vocawik.domain.user.UserAuthProvider;
+import com.vocawik.domain.user.UserRole;
+import com.vocawik.repository.user.ProviderLinkedUser;
+import com.vocawik.repository.user.UserAuthProviderRepository;
+import com.vocawik.repository.user.UserRepository;
+import com.vocawik.security.jwt.UserTokensRevokedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LoginIdentityServiceTest {
+
+    private static final GoogleUserInfo USER_INFO =
+            new GoogleUserInfo("google-sub", "user@example.com", true, "User");
+
+    private final String userUuid = UUID.randomUUID().toString();
+
+    private UserRepository userRepository;
+    private UserAuthProviderRepository userAuthProviderRepository;
+    private LoginIdentityService loginIdentityService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userAuthProviderRepository = mock(UserAuthProviderRepository.class);
+        loginIdentityService =
+                new LoginIdentityService(
+                        userRepository,
+                        userAuthProviderRepository,
+                        new SimpleMeterRegistry(),
+                        100L,
+                        600L);
+    }
+
+    @Test
+    @DisplayName("Returning user should be resolved with one projection query")
+    void resolveGoogleUser_withLinkedUser_shouldUseProjectionQuery() {
+        givenLinkedUser();
+
+        LoginIdentity identity = loginIdentityService.resolveGoogleUser(USER_INFO);
+
+        assertThat(identity).isEqualTo(new LoginIdentity(userUuid, "ADMIN"));
+        verify(userRepository).updateLastLoginAt(eq(7L), any(LocalDateTime.class));
+        verify(userAuthProviderRepository, never())
+                .findByProviderAndProviderUserId(any(), anyString());
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    @DisplayName("Repeated login should be served from the cache without a lookup query")
+    void resolveGoogleUser_whenCached_shouldSkipLookup() {
+        givenLinkedUser();
+        when(userRepository.updateLastLoginAt(eq(7L), any(LocalDateTime.class))).thenReturn(1);
+
+        loginIdentityService.resolveGoogleUser(USER_INFO);
+        LoginIdentity identity = loginIdentityService.resolveGoogleUser(USER_INFO);
+
+        assertThat(identity.userUuid()).isEqualTo(userUuid);
+        verify(userAuthProviderRepository, times(1))
+                .findLinkedUser(AuthProvider.GOOGLE, "google-sub");
+    }
+
+    @Test
+    @DisplayName("Token revocation should evict the user's cached identity")
+    void onUserTokensRevoked_shouldEvictCachedIdentity() {
+        givenLinkedUser();
+        when(userRepository.updateLastLoginAt(eq(7L), any(LocalDateTime.class))).thenReturn(1);
+        loginIdentityService.resolveGoogleUser(USER_INFO);
+
+        loginIdentityService.onUserTokensRevoked(new UserTokensRevokedEvent(userUuid, 1L));
+        loginIdentityService.resolveGoogleUser(USER_INFO);
+
+        verify(userAuthProviderRepository, times(2))
+                .findLinkedUser(AuthProvider.GOOGLE, "google-sub");
+    }
+
+    @Test
+    @DisplayName("Cached identity of a removed user should be resolved again")
+    void resolveGoogleUser_whenCachedUserIsGone_shouldLookUpAgain() {
+        givenLinkedUser();
+        loginIdentityService.resolveGoogleUser(USER_INFO);
+
+        loginIdentityService.resolveGoogleUser(USER_INFO);
+
+        verify(userAuthProviderRepository, times(2))
+                .findLinkedUser(AuthProvider.GOOGLE, "google-sub");
+    }
+
+    @Test
+    @DisplayName("Unknown identity should create and link a new user")
+    void resolveGoogleUser_withUnknownIdentity_shouldCreateAndLinkUser() {
+        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.empty());
+        when(userRepository.save(any(User.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        LoginIdentity identity = loginIdentityService.resolveGoogleUser(USER_INFO);
+
+        assertThat(identity.role()).isEqualTo("USER");
+        verify(userRepository).save(any(User.class));
+        verify(userAuthProviderRepository).save(any(UserAuthProvider.class));
+        verify(userRepository, never()).updateLastLoginAt(any(), any());
+    }
+
+    private void givenLinkedUser() {
+        when(userAuthProviderRepository.findLinkedUser(AuthProvider.GOOGLE, "google-sub"))
+                .thenReturn(Optional.of(new ProviderLinkedUser(7L, userUuid, UserRole.ADMIN)));
+    }
+}
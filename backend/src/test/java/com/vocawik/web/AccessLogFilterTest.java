@@ -0,0 +1,223 @@
+package com.vocawik.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class AccessLogFilterTest {
+
+    private static final String[] LOGGED_HEADERS = {"user-agent", "x-request-id", "authorization"};
+
+    private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+    private final LogMasker masker =
+            new LogMasker(
+                    new String[] {"token"},
+                    new String[] {"authorization", "cookie"},
+                    new String[] {"token"});
+    private ClientIpResolver clientIpResolver;
+    private AccessLogPipeline pipeline;
+    private AccessLogFilter filter;
+    private FilterChain filterChain;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        clientIpResolver =
+                new ClientIpResolver(
+                        "127.0.0.1/32,10.0.0.0/8,172.16.0.0/12,192.168.0.0/16,::1/128");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AccessLogSampler sampleAll =
+                new AccessLogSampler(0, 0, Duration.ofSeconds(1), 1, () -> 0, meterRegistry);
+        pipeline =
+                new AccessLogPipeline(
+                        16,
+                        AccessLogOverflow.DROP,
+                        0,
+                        masker,
+                        meterRegistry,
+                        sampleAll,
+                        line -> lines.add(line.toString()));
+        filter = filter(false);
+        filterChain = mock(FilterChain.class);
+        request = new MockHttpServletRequest("GET", "/api/v1/users");
+        response = new MockHttpServletResponse();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pipeline.destroy();
+        MDC.clear();
+    }
+
+    @Test
+    @DisplayName("Should time the request and put the request ID in MDC while it runs")
+    void doFilter_successfulRequest_shouldTimeRequest() throws Exception {
+        request.addHeader("X-Request-Id", "req-123");
+        doAnswer(
+                        invocation -> {
+                            assertThat(MDC.get("requestId")).isEqualTo("req-123");
+                            return null;
+                        })
+                .when(filterChain)
+                .doFilter(any(), any());
+
+        filter.doFilter(request, response, filterChain);
+
+        assertThat(request.getAttribute(RequestTimings.ATTRIBUTE))
+                .isInstanceOf(RequestTimings.class);
+        assertThat(MDC.get("requestId")).isNull();
+        assertThat(response.getHeader("X-Request-Id")).isEqualTo("req-123");
+        assertThat(response.getHeader("Server-Timing")).isNull();
+        assertThat(lines.poll(5, TimeUnit.SECONDS))
+                .contains("\"requestId\":\"req-123\"", "\"status\":200", "\"durationMs\":");
+    }
+
+    @Test
+    @DisplayName("Should log and rethrow exception from the chain")
+    void doFilter_exception_shouldRethrow() throws Exception {
+        request.setQueryString("q=test&page=1");
+        doThrow(new IllegalStateException("test error"))
+                .when(filterChain)
+                .doFilter(any(), any());
+
+        assertThatThrownBy(() -> filter.doFilter(request, response, filterChain))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("test error");
+        assertThat(MDC.get("requestId")).isNull();
+        assertThat(lines.poll(5, TimeUnit.SECONDS))
+                .contains("\"query\":\"q=test&page=1\"", "\"error\":\"test error\"");
+    }
+
+    @Test
+    @DisplayName("Server-Timing should carry the phases finished before the body is written")
+    void doFilter_withServerTiming_shouldSendPhasesBeforeBody() throws Exception {
+        filter = filter(true);
+        doAnswer(
+                        invocation -> {
+                            ServletRequest chainRequest = invocation.getArgument(0);
+                            ServletResponse chainResponse = invocation.getArgument(1);
+                            RequestTimings.record(
+                                    chainRequest,
+                                    RequestTimings.Phase.AUTH,
+                                    System.nanoTime() - 2_000_000);
+                            RequestTimings.record(
+                                    chainRequest,
+                                    RequestTimings.Phase.HANDLER,
+                                    System.nanoTime() - 5_000_000);
+                            chainResponse.getWriter().write("{}");
+                            return null;
+                        })
+                .when(filterChain)
+                .doFilter(any(), any());
+
+        filter.doFilter(request, response, filterChain);
+
+        assertThat(response.getHeader("Server-Timing"))
+                .matches(
+                        "auth;dur=\\d+\\.\\d{3}, handler;dur=\\d+\\.\\d{3},"
+                                + " total;dur=\\d+\\.\\d{3}");
+        assertThat(response.getContentAsString()).isEqualTo("{}");
+    }
+
+    @Test
+    @DisplayName("Server-Timing should be sent on responses without a body")
+    void doFilter_withServerTimingAndNoBody_shouldSendTotal() throws Exception {
+        filter = filter(true);
+
+        filter.doFilter(request, response, filterChain);
+
+        assertThat(response.getHeader("Server-Timing")).startsWith("total;dur=");
+    }
+
+    @Test
+    @DisplayName("Time after the handler returned should be counted as serialization")
+    void finish_afterHandler_shouldCountSerialization() {
+        RequestTimings timings = new RequestTimings(0);
+        timings.record(RequestTimings.Phase.HANDLER, 1_000_000, 4_000_000);
+        timings.finish(5_500_000);
+
+        assertThat(timings.nanos(RequestTimings.Phase.HANDLER)).isEqualTo(3_000_000);
+        assertThat(timings.nanos(RequestTimings.Phase.SERIALIZATION)).isEqualTo(1_500_000);
+        assertThat(timings.elapsedNanos()).isEqualTo(5_500_000);
+    }
+
+    @Test
+    @DisplayName("Should log only the configured headers, masked and escaped as JSON")
+    void doFilter_shouldLogConfiguredHeadersAsJson() throws Exception {
+        request.addHeader("Authorization", "Bearer token-value");
+        request.addHeader("Cookie", "SESSION=abc123");
+        request.addHeader("User-Agent", "JUnit \"5\"");
+        request.setRequestURI("/api/v1/reset/token/secret-value");
+        request.setQueryString("token=query-secret&page=1");
+
+        filter.doFilter(request, response, filterChain);
+
+        String line = lines.poll(5, TimeUnit.SECONDS);
+        assertThat(line)
+                .contains(
+                        "\"uri\":\"/api/v1/reset/token/***\"",
+                        "\"query\":\"token=***&page=1\"",
+                        "\"headers\":{\"user-agent\":\"JUnit \\\"5\\\"\","
+                                + "\"authorization\":\"***\"}");
+        assertThat(line).doesNotContain("token-value", "abc123", "secret-value", "query-secret");
+    }
+
+    @Test
+    @DisplayName("Should use header request ID when present")
+    void resolveRequestId_withHeader_shouldUseHeader() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Request-Id", "req-abc");
+
+        String requestId = filter.resolveRequestId(request);
+
+        assertThat(requestId).isEqualTo("req-abc");
+    }
+
+    @Test
+    @DisplayName("Should generate a time-ordered request ID when header missing")
+    void resolveRequestId_withoutHeader_shouldGenerate() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        String requestId = filter.resolveRequestId(request);
+
+        assertThat(UUID.fromString(requestId).version()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Should replace a malformed header request ID and echo the generated one")
+    void doFilter_withMalformedRequestId_shouldEchoGeneratedId() throws Exception {
+        request.addHeader("X-Request-Id", "bad\r\nSet-Cookie: x=1");
+
+        filter.doFilter(request, response, filterChain);
+
+        String requestId = response.getHeader("X-Request-Id");
+        assertThat(UUID.fromString(requestId).version()).isEqualTo(7);
+        assertThat(lines.poll(5, TimeUnit.SECONDS)).contains("\"requestId\":\"" + requestId + "\"");
+    }
+
+    private AccessLogFilter filter(boolean serverTiming) {
+        return new AccessLogFilter(
+                "X-Request-Id", serverTiming, LOGGED_HEADERS, clientIpResolver, pipeline, masker);
+    }
+}
@@ -0,0 +1,114 @@
+package com.vocawik.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AccessLogPipelineTest {
+
+    private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LogMasker masker = new LogMasker(new String[0], new String[0], new String[0]);
+    private final AccessLogSampler sampleAll =
+            new AccessLogSampler(0, 0, Duration.ofSeconds(1), 1, () -> 0, meterRegistry);
+    private AccessLogPipeline pipeline;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pipeline.destroy();
+    }
+
+    @Test
+    @DisplayName("Published entries should be written as JSON and their slots reused")
+    void publish_shouldWriteJsonAndReuseEvent() throws InterruptedException {
+        pipeline =
+                new AccessLogPipeline(
+                        1,
+                        AccessLogOverflow.BLOCK,
+                        5_000,
+                        masker,
+                        meterRegistry,
+                        sampleAll,
+                        line -> lines.add(line.toString()));
+
+        for (int i = 0; i < 3; i++) {
+            AccessLogEvent event = pipeline.claim();
+            event.request(0L, "req-" + i, "GET", "/api/v1/words", null, "127.0.0.1");
+            event.response(200, new RequestTimings(System.nanoTime()), null);
+            pipeline.publish(event);
+            assertThat(lines.poll(5, TimeUnit.SECONDS))
+                    .startsWith(
+                            "{\"timestamp\":\"1970-01-01T00:00:00.000Z\",\"detail\":\"sampled\"")
+                    .contains("\"requestId\":\"req-" + i + "\"", "\"status\":200")
+                    .doesNotContain("\"query\"")
+                    .endsWith("}");
+        }
+        assertThat(pipeline.dropped()).isZero();
+    }
+
+    @Test
+    @DisplayName("Timestamps should be written in ISO-8601 UTC with milliseconds")
+    void appendTimestamp_shouldMatchIsoFormat() {
+        DateTimeFormatter iso =
+                DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSS'Z'")
+                        .withZone(ZoneOffset.UTC);
+        long[] samples = {0L, 951_782_400_000L, 1_709_211_909_042L, 4_102_444_799_999L};
+
+        for (long millis : samples) {
+            StringBuilder out = new StringBuilder();
+            AccessLogEvent.appendTimestamp(out, millis);
+            assertThat(out.toString()).isEqualTo(iso.format(Instant.ofEpochMilli(millis)));
+        }
+    }
+
+    @Test
+    @DisplayName("DROP policy should skip the entry and count it when every slot is in use")
+    void claim_whenFullWithDropPolicy_shouldDrop() {
+        pipeline =
+                new AccessLogPipeline(
+                        2,
+                        AccessLogOverflow.DROP,
+                        0,
+                        masker,
+                        meterRegistry,
+                        sampleAll,
+                        line -> lines.add(line.toString()));
+
+        assertThat(pipeline.claim()).isNotNull();
+        assertThat(pipeline.claim()).isNotNull();
+        assertThat(pipeline.claim()).isNull();
+
+        assertThat(pipeline.dropped()).isEqualTo(1);
+        assertThat(meterRegistry.get("logging.access.dropped").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("BLOCK policy should wait for a slot freed by the drain thread")
+    void claim_whenFullWithBlockPolicy_shouldWaitForSlot() {
+        pipeline =
+                new AccessLogPipeline(
+                        1,
+                        AccessLogOverflow.BLOCK,
+                        5_000,
+                        masker,
+                        meterRegistry,
+                        sampleAll,
+                        line -> lines.add(line.toString()));
+        AccessLogEvent event = pipeline.claim();
+        event.response(200, new RequestTimings(System.nanoTime()), null);
+        pipeline.publish(event);
+
+        assertThat(pipeline.claim()).isSameAs(event);
+        assertThat(pipeline.dropped()).isZero();
+    }
+}
@@ -0,0 +1,121 @@
+package com.vocawik.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AccessLogSamplerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> written = new ArrayList<>();
+    private final AccessLogSampler.Writer writer =
+            (event, detail) -> written.add(event.status() + ":" + detail.jsonName());
+
+    @Test
+    @DisplayName("Successful fast requests should only be counted by default")
+    void accept_successfulRequests_shouldOnlyCount() {
+        AccessLogSampler sampler = sampler(0, 0.0);
+
+        sampler.accept(event(200, 1), writer);
+        sampler.accept(event(404, 1), writer);
+
+        assertThat(written).isEmpty();
+        assertThat(count("2xx", "none")).isEqualTo(1.0);
+        assertThat(count("4xx", "none")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("An error should flush the unwritten recent entries before itself")
+    void accept_error_shouldFlushFlightBuffer() {
+        AccessLogSampler sampler = sampler(2, 0.0);
+
+        sampler.accept(event(201, 1), writer);
+        sampler.accept(event(202, 1), writer);
+        sampler.accept(event(204, 1), writer);
+        sampler.accept(event(503, 1), writer);
+
+        assertThat(written).containsExactly("202:context", "204:context", "503:error");
+        assertThat(count("5xx", "error")).isEqualTo(1.0);
+        assertThat(count("2xx", "none")).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("Entries after an incident should be written as context, once each")
+    void accept_afterSlowRequest_shouldWriteTrailingContext() {
+        AccessLogSampler sampler = sampler(1, 0.0);
+
+        sampler.accept(event(200, 1), writer);
+        sampler.accept(event(200, 2_000), writer);
+        sampler.accept(event(201, 1), writer);
+        sampler.accept(event(202, 1), writer);
+        sampler.accept(event(203, 1), writer);
+
+        assertThat(written)
+                .containsExactly("200:context", "200:slow", "201:context", "202:context");
+        assertThat(count("2xx", "context")).isEqualTo(2.0);
+        assertThat(count("2xx", "none")).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("A thrown request should be written as an error whatever its status")
+    void accept_failedRequest_shouldBeError() {
+        AccessLogSampler sampler = sampler(0, 0.0);
+        AccessLogEvent event = event(200, 1);
+        event.response(200, timings(1), "boom");
+
+        sampler.accept(event, writer);
+
+        assertThat(written).containsExactly("200:error");
+    }
+
+    @Test
+    @DisplayName("Requests under the sample rate should be written as sampled")
+    void accept_underSampleRate_shouldSample() {
+        AccessLogSampler sampler =
+                new AccessLogSampler(0, 0, Duration.ofSeconds(1), 0.5, () -> 0.25, meterRegistry);
+
+        sampler.accept(event(200, 1), writer);
+
+        assertThat(written).containsExactly("200:sampled");
+        assertThat(count("2xx", "sampled")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Sample rate outside [0, 1] should be rejected")
+    void constructor_withInvalidRate_shouldThrow() {
+        assertThatThrownBy(() -> sampler(0, 1.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private AccessLogSampler sampler(int flightBufferSize, double sampleRate) {
+        return new AccessLogSampler(
+                flightBufferSize, 2, Duration.ofSeconds(1), sampleRate, () -> 1, meterRegistry);
+    }
+
+    private static AccessLogEvent event(int status, long elapsedMillis) {
+        AccessLogEvent event = new AccessLogEvent(AccessLogPipeline.MAX_HEADERS);
+        event.request(0L, "req", "GET", "/api/v1/words", null, "127.0.0.1");
+        event.response(status, timings(elapsedMillis), null);
+        return event;
+    }
+
+    private static RequestTimings timings(long elapsedMillis) {
+        RequestTimings timings = new RequestTimings(0);
+        timings.finish(Duration.ofMillis(elapsedMillis).toNanos());
+        return timings;
+    }
+
+    private double count(String status, String detail) {
+        return meterRegistry
+                .get("logging.access.requests")
+                .tag("status", status)
+                .tag("detail", detail)
+                .counter()
+                .count();
+    }
+}
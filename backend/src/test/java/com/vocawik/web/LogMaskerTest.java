@@ -0,0 +1,113 @@
+package com.vocawik.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LogMaskerTest {
+
+    private final LogMasker masker =
+            new LogMasker(
+                    new String[] {"password", "token", "access_token", "email", "code"},
+                    new String[] {"Authorization", "cookie", "x-api-key"},
+                    new String[] {"token", "email"});
+
+    @Test
+    @DisplayName("Masked query parameters should keep their name and lose their value")
+    void appendQuery_shouldMaskOnlyMaskedKeys() {
+        String masked =
+                masker.appendQuery(
+                                new StringBuilder(),
+                                "page=2&ACCESS_TOKEN=abc&tokens=keep&email=a%40b.c&flag&token=")
+                        .toString();
+
+        assertThat(masked)
+                .isEqualTo("page=2&ACCESS_TOKEN=***&tokens=keep&email=***&flag&token=***");
+    }
+
+    @Test
+    @DisplayName("OAuth authorization code should be masked in callback queries")
+    void appendQuery_withOAuthCallback_shouldMaskCode() {
+        assertThat(
+                        masker.appendQuery(new StringBuilder(), "code=4%2F0Ab-secret&state=xyz")
+                                .toString())
+                .isEqualTo("code=***&state=xyz");
+    }
+
+    @Test
+    @DisplayName("Query without masked parameters should be copied unchanged")
+    void appendQuery_withoutMaskedKeys_shouldCopy() {
+        assertThat(masker.appendQuery(new StringBuilder(), "").toString()).isEmpty();
+        assertThat(masker.appendQuery(new StringBuilder(), "q=caf%C3%A9&&p=1").toString())
+                .isEqualTo("q=caf%C3%A9&&p=1");
+    }
+
+    @Test
+    @DisplayName("Masked headers should be replaced whole, case-insensitively")
+    void appendHeader_shouldMaskConfiguredHeaders() {
+        assertThat(masker.appendHeader(new StringBuilder(), "authorization", "Bearer x").toString())
+                .isEqualTo(LogMasker.MASK);
+        assertThat(masker.appendHeader(new StringBuilder(), "Cookie", "SESSION=1").toString())
+                .isEqualTo(LogMasker.MASK);
+        assertThat(masker.appendHeader(new StringBuilder(), "User-Agent", "JUnit").toString())
+                .isEqualTo("JUnit");
+    }
+
+    @Test
+    @DisplayName("Keys should only apply to the targets they were configured for")
+    void matches_shouldRespectTarget() {
+        assertThat(masker.matches(LogMasker.Target.QUERY, "password", 0, 8)).isTrue();
+        assertThat(masker.matches(LogMasker.Target.PATH, "password", 0, 8)).isFalse();
+        assertThat(masker.matches(LogMasker.Target.HEADER, "x-api-key", 0, 9)).isTrue();
+        assertThat(masker.matches(LogMasker.Target.QUERY, "x-api-key", 0, 9)).isFalse();
+        assertThat(masker.matches(LogMasker.Target.QUERY, "passwords", 0, 9)).isFalse();
+        assertThat(masker.matches(LogMasker.Target.QUERY, "pass", 0, 4)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Segment after a masked segment and masked matrix parameters should be masked")
+    void appendPath_shouldMaskFollowingSegmentAndMatrixParameters() {
+        assertThat(masker.maskPath("/api/v1/reset/token/abc123/confirm"))
+                .isEqualTo("/api/v1/reset/token/***/confirm");
+        assertThat(masker.maskPath("/api/v1/users;email=a@b.c;page=2/"))
+                .isEqualTo("/api/v1/users;email=***;page=2/");
+        assertThat(masker.maskPath("/api/v1/auth/oauth/google/callback"))
+                .isEqualTo("/api/v1/auth/oauth/google/callback");
+    }
+
+    @Test
+    @DisplayName("Percent-encoded query names should be masked like their decoded form")
+    void appendQuery_withEncodedNames_shouldMask() {
+        String masked =
+                masker.appendQuery(
+                                new StringBuilder(),
+                                "access%5Ftoken=a&%74oken=b&%54OKE%6e=c&e+mail=d&tok%zzen=e&t%6=f")
+                        .toString();
+
+        assertThat(masked)
+                .isEqualTo(
+                        "access%5Ftoken=***&%74oken=***&%54OKE%6e=***&e+mail=d&tok%zzen=e&t%6=f");
+        assertThat(masker.matches(LogMasker.Target.HEADER, "%74oken", 0, 7)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Percent-encoded path segments and matrix names should be masked")
+    void appendPath_withEncodedNames_shouldMask() {
+        assertThat(masker.maskPath("/api/v1/reset/%74oken/abc123;%65mail=a@b.c"))
+                .isEqualTo("/api/v1/reset/%74oken/***");
+        assertThat(masker.maskPath("/api/v1/users;e%6Dail=a@b.c"))
+                .isEqualTo("/api/v1/users;e%6Dail=***");
+    }
+
+    @Test
+    @DisplayName("Non-ASCII keys should be rejected at startup")
+    void constructor_withNonAsciiKey_shouldThrow() {
+        assertThatThrownBy(
+                        () ->
+                                new LogMasker(
+                                        new String[] {"passé"}, new String[0], new String[0]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}